@@ -0,0 +1,73 @@
+package com.example.payments.benchmark;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.payments.domain.Currency;
+import com.example.payments.domain.Payment;
+import com.example.payments.domain.PaymentMethod;
+import com.example.payments.domain.PaymentStatus;
+import com.example.payments.dto.PaymentResponse;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * Fixed fixtures shared by the benchmarks. Values are constant so runs are
+ * comparable across builds.
+ */
+final class BenchmarkData {
+
+    static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 1, 15, 10, 30, 0);
+
+    static final String CREATE_REQUEST_JSON = """
+            {
+                "reference": "PAY-2024-001",
+                "customerId": "CUST-12345",
+                "amount": 150000.00,
+                "currency": "COP",
+                "method": "CARD"
+            }
+            """;
+
+    private BenchmarkData() {
+    }
+
+    static Payment payment(long id, PaymentStatus status) {
+        Payment payment = new Payment();
+        payment.setId(id);
+        payment.setReference("PAY-2024-" + id);
+        payment.setCustomerId("CUST-" + (id % 100));
+        payment.setAmount(new BigDecimal("150000.00"));
+        payment.setCurrency(Currency.COP);
+        payment.setMethod(PaymentMethod.CARD);
+        payment.setStatus(status);
+        payment.setCreatedAt(CREATED_AT.plusSeconds(id));
+        return payment;
+    }
+
+    static List<Payment> payments(int count) {
+        List<Payment> payments = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            payments.add(payment(i, PaymentStatus.PENDING));
+        }
+        return payments;
+    }
+
+    static List<PaymentResponse> responses(int count) {
+        return payments(count).stream().map(PaymentResponse::fromEntity).toList();
+    }
+
+    /**
+     * Mirrors the settings Quarkus applies to its default ObjectMapper.
+     */
+    static ObjectMapper objectMapper() {
+        return new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.payments.benchmark;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.logging.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.payments.domain.Currency;
+import com.example.payments.domain.PaymentMethod;
+import com.example.payments.domain.PaymentStatus;
+import com.example.payments.dto.PaymentResponse;
+import com.example.payments.infrastructure.cache.CaffeinePaymentCache;
+import com.example.payments.infrastructure.cache.OffHeapPaymentCache;
+import com.example.payments.infrastructure.cache.PaymentCache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Payment cache storages holding one million final-status payments.
+ * Setup logs the retained heap and direct memory per million entries
+ * (the footprint); the benchmark measures a cache hit, whose allocation
+ * shows up in gc.alloc.rate.norm.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "-Xmx4g" })
+public class PaymentCacheBenchmark {
+
+    private static final Logger LOG = Logger.getLogger(PaymentCacheBenchmark.class);
+
+    private static final int ENTRIES = 1_000_000;
+
+    @Param({ "heap", "off-heap" })
+    public String storage;
+
+    private PaymentCache cache;
+
+    @Setup
+    public void setUp() {
+        long heapBefore = usedHeap();
+        long directBefore = usedDirect();
+
+        cache = "heap".equals(storage)
+                ? new CaffeinePaymentCache(ENTRIES, Duration.ofMillis(500), new SimpleMeterRegistry())
+                : new OffHeapPaymentCache(ENTRIES, Duration.ofMillis(500), 100_000, new SimpleMeterRegistry());
+        for (int id = 1; id <= ENTRIES; id++) {
+            cache.put(payment(id));
+        }
+
+        long heap = usedHeap() - heapBefore;
+        long direct = usedDirect() - directBefore;
+        LOG.infof("%s cache, %,d payments: heap %,d bytes (%d per entry), direct %,d bytes (%d per entry)",
+                storage, ENTRIES, heap, heap / ENTRIES, direct, direct / ENTRIES);
+    }
+
+    @Benchmark
+    public Optional<PaymentResponse> hit() {
+        return cache.getIfPresent((long) ThreadLocalRandom.current().nextInt(1, ENTRIES + 1));
+    }
+
+    // Typical shape: unique reference, customers shared by many payments
+    private static PaymentResponse payment(long id) {
+        return new PaymentResponse(id, "PAY-2024-" + id, "CUST-" + (id % 10_000), new BigDecimal("150000.0000"),
+                Currency.COP, PaymentMethod.CARD, PaymentStatus.APPROVED, BenchmarkData.CREATED_AT.plusSeconds(id));
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long usedDirect() {
+        return ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+                .filter(pool -> "direct".equals(pool.getName()))
+                .mapToLong(BufferPoolMXBean::getMemoryUsed)
+                .sum();
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.payments.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.payments.domain.Payment;
+import com.example.payments.domain.PaymentStatus;
+
+/**
+ * Status transition rules of {@link Payment}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class PaymentDomainBenchmark {
+
+    private Payment pending;
+    private Payment approved;
+
+    @Setup
+    public void setUp() {
+        pending = BenchmarkData.payment(1, PaymentStatus.PENDING);
+        approved = BenchmarkData.payment(2, PaymentStatus.APPROVED);
+    }
+
+    @Benchmark
+    public boolean canTransitionFromPending() {
+        return pending.canTransitionTo(PaymentStatus.APPROVED);
+    }
+
+    @Benchmark
+    public boolean canTransitionFromFinal() {
+        return approved.canTransitionTo(PaymentStatus.REJECTED);
+    }
+
+    @Benchmark
+    public Payment transitionTo() {
+        // transitionTo mutates, so each invocation starts from a fresh PENDING payment
+        Payment payment = BenchmarkData.payment(3, PaymentStatus.PENDING);
+        payment.transitionTo(PaymentStatus.APPROVED);
+        return payment;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.payments.benchmark;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.validator.HibernateValidator;
+import org.hibernate.validator.messageinterpolation.ParameterMessageInterpolator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.payments.domain.PaymentStatus;
+import com.example.payments.dto.CreatePaymentRequest;
+import com.example.payments.dto.PagedResponse;
+import com.example.payments.dto.PaymentResponse;
+import com.example.payments.infrastructure.rest.PaymentJsonEncoder;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import io.vertx.core.buffer.Buffer;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+
+/**
+ * JSON (de)serialization and validation done on every request. The encode*
+ * benchmarks are the hand-written PaymentJsonEncoder path used by the REST
+ * writers; compare their gc.alloc.rate.norm with the serialize* ones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class PaymentJsonBenchmark {
+
+    @Param({ "10", "100" })
+    public int pageSize;
+
+    private ObjectWriter paymentWriter;
+    private ObjectWriter pageWriter;
+    private ObjectReader createRequestReader;
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+
+    private PaymentResponse payment;
+    private PagedResponse<PaymentResponse> page;
+    private CreatePaymentRequest createRequest;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        var objectMapper = BenchmarkData.objectMapper();
+        paymentWriter = objectMapper.writerFor(PaymentResponse.class);
+        pageWriter = objectMapper.writerFor(PagedResponse.class);
+        createRequestReader = objectMapper.readerFor(CreatePaymentRequest.class);
+
+        // Parameter interpolation avoids depending on an EL implementation
+        validatorFactory = Validation.byProvider(HibernateValidator.class)
+                .configure()
+                .messageInterpolator(new ParameterMessageInterpolator())
+                .buildValidatorFactory();
+        validator = validatorFactory.getValidator();
+
+        payment = PaymentResponse.fromEntity(BenchmarkData.payment(1, PaymentStatus.PENDING));
+        page = new PagedResponse<>(BenchmarkData.responses(pageSize), 0, pageSize, 1_000_000L);
+        createRequest = createRequestReader.readValue(BenchmarkData.CREATE_REQUEST_JSON);
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public byte[] serializePayment() throws JsonProcessingException {
+        return paymentWriter.writeValueAsBytes(payment);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return pageWriter.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public Buffer encodePayment() {
+        Buffer buffer = Buffer.buffer(PaymentJsonEncoder.sizeHint(1));
+        PaymentJsonEncoder.writePayment(buffer, payment);
+        return buffer;
+    }
+
+    @Benchmark
+    public Buffer encodePage() {
+        Buffer buffer = Buffer.buffer(PaymentJsonEncoder.sizeHint(pageSize));
+        PaymentJsonEncoder.writePage(buffer, page);
+        return buffer;
+    }
+
+    @Benchmark
+    public CreatePaymentRequest deserializeCreateRequest() throws JsonProcessingException {
+        return createRequestReader.readValue(BenchmarkData.CREATE_REQUEST_JSON);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CreatePaymentRequest>> validateCreateRequest() {
+        return validator.validate(createRequest);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CreatePaymentRequest>> deserializeAndValidateCreateRequest()
+            throws JsonProcessingException {
+        return validator.validate(createRequestReader.<CreatePaymentRequest>readValue(BenchmarkData.CREATE_REQUEST_JSON));
+    }
+}
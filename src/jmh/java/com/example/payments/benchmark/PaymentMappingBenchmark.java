@@ -0,0 +1,67 @@
+package com.example.payments.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.payments.domain.Payment;
+import com.example.payments.domain.PaymentStatus;
+import com.example.payments.dto.PagedResponse;
+import com.example.payments.dto.PaymentResponse;
+
+/**
+ * Entity to DTO mapping and page construction done on every read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class PaymentMappingBenchmark {
+
+    @Param({ "10", "100" })
+    public int pageSize;
+
+    private Payment payment;
+    private List<Payment> page;
+    private List<PaymentResponse> responses;
+
+    @Setup
+    public void setUp() {
+        payment = BenchmarkData.payment(1, PaymentStatus.PENDING);
+        page = BenchmarkData.payments(pageSize);
+        responses = BenchmarkData.responses(pageSize);
+    }
+
+    @Benchmark
+    public PaymentResponse fromEntity() {
+        return PaymentResponse.fromEntity(payment);
+    }
+
+    @Benchmark
+    public List<PaymentResponse> fromEntityPage() {
+        return page.stream().map(PaymentResponse::fromEntity).toList();
+    }
+
+    @Benchmark
+    public PagedResponse<PaymentResponse> pagedResponseWithTotal() {
+        return new PagedResponse<>(responses, 3, pageSize, 1_000_000L);
+    }
+
+    @Benchmark
+    public PagedResponse<PaymentResponse> pagedResponseSlice() {
+        return PagedResponse.ofSlice(responses, 3, pageSize, true);
+    }
+}
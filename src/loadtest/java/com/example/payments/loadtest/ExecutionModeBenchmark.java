@@ -0,0 +1,56 @@
+package com.example.payments.loadtest;
+
+import java.net.URI;
+import java.net.URL;
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.payments.loadtest.LoadTestConfig.Operation;
+
+import io.quarkus.test.common.http.TestHTTPResource;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Compares the worker-pool and virtual-thread execution modes under high
+ * concurrency: fast reads share the server with slow queries that each hold
+ * a pooled connection. Both subclasses run the same seeded, open-loop
+ * workload, so their reports (and .hgrm files under
+ * target/load-test/&lt;mode&gt;) can be compared directly.
+ * Run with {@code ./mvnw -Pload-test verify -Dit.test='ExecutionMode*IT'}.
+ */
+abstract class ExecutionModeBenchmark {
+
+    // Defaults for this scenario; any -Dload.* property still overrides them
+    private static final Map<String, String> SCENARIO = Map.of(
+            "load.rps", "1000",
+            "load.warmup", "PT5S",
+            "load.duration", "PT30S",
+            "load.mix", "get=80,slowQuery=20",
+            "load.slow-query", "PT0.1S");
+
+    private final LoadTestConfig config = new LoadTestConfig(SCENARIO);
+
+    @TestHTTPResource("/")
+    URL baseUrl;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Test
+    @DisplayName("Throughput and latency with slow queries under high concurrency")
+    void compareExecutionMode() throws Exception {
+        PaymentSeeder seeder = new PaymentSeeder(entityManager, config);
+        seeder.seed();
+        long[] idRange = seeder.idRange();
+
+        OpenLoopDriver driver = new OpenLoopDriver(config, URI.create(baseUrl.toString()), idRange[0], idRange[1]);
+        Map<Operation, Histogram> histograms = driver.run();
+        driver.report(executionMode(), histograms);
+    }
+
+    protected abstract String executionMode();
+}
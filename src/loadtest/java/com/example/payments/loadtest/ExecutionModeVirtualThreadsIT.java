@@ -0,0 +1,30 @@
+package com.example.payments.loadtest;
+
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+
+/**
+ * {@link ExecutionModeBenchmark} with endpoints on virtual threads.
+ */
+@QuarkusTest
+@TestProfile(ExecutionModeVirtualThreadsIT.Profile.class)
+@EnabledIfSystemProperty(named = "load.tests", matches = "true")
+class ExecutionModeVirtualThreadsIT extends ExecutionModeBenchmark {
+
+    static final String MODE = "virtual-threads";
+
+    @Override
+    protected String executionMode() {
+        return MODE;
+    }
+
+    public static class Profile extends LoadTestProfile {
+
+        @Override
+        protected String executionMode() {
+            return MODE;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.payments.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Load test settings, read from system properties so runs can be reproduced
+ * from the command line. Scenarios may supply their own defaults; system
+ * properties still take precedence.
+ */
+final class LoadTestConfig {
+
+    /** Payments the table should contain before the run (only the difference is inserted). */
+    final long seedRows;
+    /** Distinct customers in seeded and created payments. */
+    final int customers;
+    /** Skew exponent of the customer distribution; 1 is uniform, higher concentrates on few customers. */
+    final double customerSkew;
+    /** Share of seeded payments left PENDING; the rest are APPROVED or REJECTED. */
+    final double pendingRatio;
+    /** Rows inserted per seeding transaction. */
+    final int seedChunk;
+    /** Seed for data generation and the request mix, so runs are repeatable. */
+    final long randomSeed;
+
+    /** Total target request rate, independent of how fast responses come back. */
+    final int targetRps;
+    final Duration warmup;
+    final Duration duration;
+    /** Weights per operation, e.g. {@code create=20,get=50,list=20,updateStatus=10}. */
+    final Map<Operation, Integer> mix;
+    /** Page size and count mode of list requests. */
+    final int listSize;
+    final String listCount;
+    /** Database time spent by each slow query request. */
+    final Duration slowQuery;
+
+    final String reportDir;
+
+    LoadTestConfig() {
+        this(Map.of());
+    }
+
+    LoadTestConfig(Map<String, String> defaults) {
+        seedRows = Long.parseLong(get(defaults, "load.seed.rows", "100000"));
+        customers = Integer.parseInt(get(defaults, "load.seed.customers", "10000"));
+        customerSkew = Double.parseDouble(get(defaults, "load.seed.skew", "3.0"));
+        pendingRatio = Double.parseDouble(get(defaults, "load.seed.pending-ratio", "0.1"));
+        seedChunk = Integer.parseInt(get(defaults, "load.seed.chunk", "1000000"));
+        randomSeed = Long.parseLong(get(defaults, "load.random-seed", "42"));
+        targetRps = Integer.parseInt(get(defaults, "load.rps", "500"));
+        warmup = Duration.parse(get(defaults, "load.warmup", "PT10S"));
+        duration = Duration.parse(get(defaults, "load.duration", "PT60S"));
+        mix = parseMix(get(defaults, "load.mix", "create=20,get=50,list=20,updateStatus=10"));
+        listSize = Integer.parseInt(get(defaults, "load.list.size", "20"));
+        listCount = get(defaults, "load.list.count", "exact");
+        slowQuery = Duration.parse(get(defaults, "load.slow-query", "PT0.05S"));
+        reportDir = get(defaults, "load.report-dir", "target/load-test");
+    }
+
+    private static String get(Map<String, String> defaults, String key, String fallback) {
+        return System.getProperty(key, defaults.getOrDefault(key, fallback));
+    }
+
+    private static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split("=");
+            mix.put(Operation.fromString(parts[0]), Integer.parseInt(parts[1].trim()));
+        }
+        return mix;
+    }
+
+    /**
+     * Endpoints exercised by the load test.
+     */
+    enum Operation {
+        CREATE,
+        GET,
+        LIST,
+        UPDATE_STATUS,
+        /** Test-only endpoint holding a connection for {@code load.slow-query}. */
+        SLOW_QUERY;
+
+        static Operation fromString(String value) {
+            String normalized = value.trim().replaceAll("([a-z])([A-Z])", "$1_$2").toUpperCase(Locale.ROOT);
+            return valueOf(normalized);
+        }
+    }
+}
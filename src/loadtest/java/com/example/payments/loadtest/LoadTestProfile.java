@@ -0,0 +1,46 @@
+package com.example.payments.loadtest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import io.quarkus.test.junit.QuarkusTestProfile;
+
+/**
+ * Runs the application against a local PostgreSQL (the docker-compose
+ * instance by default). Unlike the functional Postgres profile the schema is
+ * only migrated, not cleaned, so seeded data survives between runs unless
+ * {@code -Dload.clean=true} is given. SQL logging is off so it does not
+ * distort the measurements. The pool size and execution mode can be set with
+ * {@code -Dload.pool-size} and {@code -Dload.execution-mode}.
+ */
+public class LoadTestProfile implements QuarkusTestProfile {
+
+    @Override
+    public Map<String, String> getConfigOverrides() {
+        Map<String, String> overrides = new HashMap<>(Map.of(
+                "quarkus.datasource.db-kind", "postgresql",
+                "quarkus.datasource.jdbc.url", System.getProperty(
+                        "postgres.url", "jdbc:postgresql://localhost:5434/payments"),
+                "quarkus.datasource.username", System.getProperty("postgres.username", "postgres"),
+                "quarkus.datasource.password", System.getProperty("postgres.password", "secret"),
+                "quarkus.hibernate-orm.database.generation", "none",
+                "quarkus.hibernate-orm.log.sql", "false",
+                "quarkus.flyway.migrate-at-start", "true",
+                "quarkus.flyway.clean-at-start", System.getProperty("load.clean", "false"),
+                "quarkus.flyway.clean-disabled", "false"));
+        overrides.put("quarkus.datasource.jdbc.max-size", System.getProperty("load.pool-size", "20"));
+        overrides.put("payments.execution-mode", executionMode());
+        if ("reactive".equals(executionMode())) {
+            overrides.put("quarkus.datasource.reactive", "true");
+            overrides.put("quarkus.datasource.reactive.url", overrides.get("quarkus.datasource.jdbc.url").replace("jdbc:", ""));
+        }
+        return overrides;
+    }
+
+    /**
+     * Build-time execution mode of the REST endpoints under test.
+     */
+    protected String executionMode() {
+        return System.getProperty("load.execution-mode", "worker");
+    }
+}
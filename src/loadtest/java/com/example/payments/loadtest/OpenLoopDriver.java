@@ -0,0 +1,236 @@
+package com.example.payments.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.jboss.logging.Logger;
+
+import com.example.payments.loadtest.LoadTestConfig.Operation;
+
+/**
+ * Open-loop load generator. Requests are issued on a fixed schedule at the
+ * target rate whether or not earlier ones have completed, and latency is
+ * measured from each request's scheduled start, so a stalled server shows
+ * up as latency instead of as a lower request rate (no coordinated omission).
+ */
+final class OpenLoopDriver {
+
+    private static final Logger LOG = Logger.getLogger(OpenLoopDriver.class);
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final LoadTestConfig config;
+    private final URI baseUri;
+    private final long minSeededId;
+    private final long maxSeededId;
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, Map<Integer, LongAdder>> statusCodes = new EnumMap<>(Operation.class);
+    private final Queue<Long> pendingIds = new ConcurrentLinkedQueue<>();
+    private final AtomicLong createdCounter = new AtomicLong();
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+    OpenLoopDriver(LoadTestConfig config, URI baseUri, long minSeededId, long maxSeededId) {
+        this.config = config;
+        this.baseUri = baseUri;
+        this.minSeededId = minSeededId;
+        this.maxSeededId = maxSeededId;
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder(MAX_LATENCY_MICROS, 3));
+            statusCodes.put(operation, new ConcurrentSkipListMap<>());
+        }
+    }
+
+    /**
+     * Runs the warmup and measured phases and returns the histograms of the
+     * measured phase only.
+     */
+    Map<Operation, Histogram> run() throws InterruptedException {
+        SplittableRandom random = new SplittableRandom(config.randomSeed);
+        Operation[] schedule = weightedSchedule();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / config.targetRps;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            drive(executor, random, schedule, intervalNanos, config.warmup);
+            // Discard everything recorded during warmup
+            recorders.values().forEach(Recorder::getIntervalHistogram);
+            statusCodes.values().forEach(Map::clear);
+
+            drive(executor, random, schedule, intervalNanos, config.duration);
+        }
+
+        Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+        recorders.forEach((operation, recorder) -> histograms.put(operation, recorder.getIntervalHistogram()));
+        return histograms;
+    }
+
+    /**
+     * Logs throughput and latency percentiles per endpoint and writes the
+     * full distributions as .hgrm files (plottable with HdrHistogram's tools).
+     */
+    void report(Map<Operation, Histogram> histograms) throws IOException {
+        report("", histograms);
+    }
+
+    /**
+     * Same as {@link #report(Map)}, with the distributions written under a
+     * subdirectory named after the scenario label.
+     */
+    void report(String label, Map<Operation, Histogram> histograms) throws IOException {
+        Path dir = Path.of(config.reportDir, label);
+        Files.createDirectories(dir);
+        double seconds = config.duration.toMillis() / 1000.0;
+
+        LOG.infof("Open-loop load test%s: %d req/s target for %s (after %s warmup)",
+                label.isEmpty() ? "" : " [" + label + "]", config.targetRps, config.duration, config.warmup);
+        LOG.infof("  %-14s %10s %9s %9s %9s %9s %9s  %s",
+                "endpoint", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "status codes");
+        for (Map.Entry<Operation, Histogram> entry : histograms.entrySet()) {
+            Histogram histogram = entry.getValue();
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            LOG.infof("  %-14s %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f  %s",
+                    entry.getKey(),
+                    histogram.getTotalCount() / seconds,
+                    histogram.getValueAtPercentile(50) / 1000.0,
+                    histogram.getValueAtPercentile(90) / 1000.0,
+                    histogram.getValueAtPercentile(99) / 1000.0,
+                    histogram.getValueAtPercentile(99.9) / 1000.0,
+                    histogram.getMaxValue() / 1000.0,
+                    statusCodes.get(entry.getKey()));
+
+            Path file = dir.resolve(entry.getKey().name().toLowerCase() + ".hgrm");
+            try (PrintStream hgrm = new PrintStream(Files.newOutputStream(file))) {
+                histogram.outputPercentileDistribution(hgrm, 1000.0);
+            }
+        }
+        LOG.infof("  Distributions (ms) written to %s", dir.toAbsolutePath());
+    }
+
+    private void drive(ExecutorService executor, SplittableRandom random, Operation[] schedule,
+            long intervalNanos, Duration phase) {
+        long start = System.nanoTime();
+        long end = start + phase.toNanos();
+        for (long intended = start; intended < end; intended += intervalNanos) {
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = schedule[random.nextInt(schedule.length)];
+            HttpRequest request = buildRequest(operation, random);
+            long scheduledAt = intended;
+            executor.execute(() -> send(operation, request, scheduledAt));
+        }
+    }
+
+    private void send(Operation operation, HttpRequest request, long scheduledAt) {
+        int status;
+        String body = null;
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            status = response.statusCode();
+            body = response.body();
+        } catch (IOException e) {
+            status = -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        long latencyMicros = (System.nanoTime() - scheduledAt) / 1000;
+        recorders.get(operation).recordValue(Math.min(latencyMicros, MAX_LATENCY_MICROS));
+        statusCodes.get(operation).computeIfAbsent(status, code -> new LongAdder()).increment();
+
+        if (operation == Operation.CREATE && status == 201) {
+            // Created payments are PENDING, so they are the targets of later status updates
+            pendingIds.add(extractId(body));
+        }
+    }
+
+    private HttpRequest buildRequest(Operation operation, SplittableRandom random) {
+        return switch (operation) {
+            case CREATE -> HttpRequest.newBuilder(baseUri.resolve("/api/payments"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("""
+                            {"reference":"LOAD-%s-%d","customerId":"%s","amount":%d.00,"currency":"COP","method":"CARD"}"""
+                            .formatted(runId, createdCounter.incrementAndGet(), customer(random), 1 + random.nextInt(1_000_000))))
+                    .build();
+            case GET -> HttpRequest.newBuilder(baseUri.resolve("/api/payments/" + seededId(random)))
+                    .GET()
+                    .build();
+            case LIST -> HttpRequest.newBuilder(baseUri.resolve("/api/payments?customerId=" + customer(random)
+                    + "&size=" + config.listSize + "&count=" + config.listCount))
+                    .GET()
+                    .build();
+            case SLOW_QUERY -> HttpRequest.newBuilder(baseUri.resolve(
+                    SlowQueryResource.PATH + "?millis=" + config.slowQuery.toMillis()))
+                    .GET()
+                    .build();
+            case UPDATE_STATUS -> {
+                Long id = pendingIds.poll();
+                // Without a fresh PENDING payment, a seeded one is used and may answer 409
+                long target = id != null ? id : seededId(random);
+                yield HttpRequest.newBuilder(baseUri.resolve("/api/payments/" + target + "/status"))
+                        .header("Content-Type", "application/json")
+                        .method("PATCH", HttpRequest.BodyPublishers.ofString(
+                                random.nextInt(10) < 8 ? "{\"status\":\"APPROVED\"}" : "{\"status\":\"REJECTED\"}"))
+                        .build();
+            }
+        };
+    }
+
+    private Operation[] weightedSchedule() {
+        int total = config.mix.values().stream().mapToInt(Integer::intValue).sum();
+        Operation[] schedule = new Operation[total];
+        int index = 0;
+        for (Map.Entry<Operation, Integer> entry : config.mix.entrySet()) {
+            for (int i = 0; i < entry.getValue(); i++) {
+                schedule[index++] = entry.getKey();
+            }
+        }
+        return schedule;
+    }
+
+    // Same skew as the seed: a few customers own most of the payments
+    private String customer(SplittableRandom random) {
+        return "CUST-" + (int) Math.floor(config.customers * Math.pow(random.nextDouble(), config.customerSkew));
+    }
+
+    private long seededId(SplittableRandom random) {
+        return maxSeededId > minSeededId ? random.nextLong(minSeededId, maxSeededId + 1) : minSeededId;
+    }
+
+    private static Long extractId(String body) {
+        int start = body.indexOf("\"id\":") + 5;
+        int end = start;
+        while (end < body.length() && Character.isDigit(body.charAt(end))) {
+            end++;
+        }
+        return Long.valueOf(body.substring(start, end));
+    }
+}
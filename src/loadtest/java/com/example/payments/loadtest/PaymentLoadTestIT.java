@@ -0,0 +1,51 @@
+package com.example.payments.loadtest;
+
+import java.net.URI;
+import java.net.URL;
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.example.payments.loadtest.LoadTestConfig.Operation;
+
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+
+/**
+ * End-to-end load test: boots the application against a local PostgreSQL,
+ * tops the payments table up to the configured volume and drives an
+ * open-loop create/get/list/updateStatus mix over HTTP.
+ * Opt-in: {@code ./mvnw -Pload-test verify} (needs the docker-compose
+ * database); see {@link LoadTestConfig} for the {@code -Dload.*} settings.
+ */
+@QuarkusTest
+@TestProfile(LoadTestProfile.class)
+@EnabledIfSystemProperty(named = "load.tests", matches = "true")
+class PaymentLoadTestIT {
+
+    private final LoadTestConfig config = new LoadTestConfig();
+
+    @TestHTTPResource("/")
+    URL baseUrl;
+
+    @Inject
+    EntityManager entityManager;
+
+    @Test
+    @DisplayName("Throughput and latency per endpoint under an open-loop workload")
+    void runLoadTest() throws Exception {
+        PaymentSeeder seeder = new PaymentSeeder(entityManager, config);
+        seeder.seed();
+        long[] idRange = seeder.idRange();
+
+        OpenLoopDriver driver = new OpenLoopDriver(config, URI.create(baseUrl.toString()), idRange[0], idRange[1]);
+        Map<Operation, Histogram> histograms = driver.run();
+        driver.report(histograms);
+    }
+}
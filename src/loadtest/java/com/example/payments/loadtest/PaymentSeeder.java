@@ -0,0 +1,101 @@
+package com.example.payments.loadtest;
+
+import org.jboss.logging.Logger;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Fills the payments table with generated data straight in PostgreSQL, one
+ * INSERT ... SELECT generate_series per chunk.
+ */
+final class PaymentSeeder {
+
+    private static final Logger LOG = Logger.getLogger(PaymentSeeder.class);
+
+    // Random data whose customer ids follow the same skew as the workload
+    private static final String SEED_SQL = """
+            INSERT INTO payments (id, reference, customer_id, amount, currency, method, status, created_at)
+            SELECT :firstId + g,
+                   'SEED-' || (:firstId + g),
+                   'CUST-' || CAST(floor(:customers * power(random(), :skew)) AS int),
+                   round(CAST(random() * 1000000 AS numeric), 2),
+                   (ARRAY['COP', 'USD', 'EUR'])[1 + CAST(floor(random() * 3) AS int)],
+                   (ARRAY['CARD', 'PSE', 'TRANSFER'])[1 + CAST(floor(random() * 3) AS int)],
+                   CASE WHEN random() < :pendingRatio THEN 'PENDING'
+                        WHEN random() < 0.9 THEN 'APPROVED'
+                        ELSE 'REJECTED' END,
+                   now() - random() * interval '365 days'
+            FROM generate_series(0, :count - 1) g""";
+
+    private final EntityManager entityManager;
+    private final LoadTestConfig config;
+
+    PaymentSeeder(EntityManager entityManager, LoadTestConfig config) {
+        this.entityManager = entityManager;
+        this.config = config;
+    }
+
+    /**
+     * Inserts payments until the table holds {@code load.seed.rows}.
+     */
+    void seed() {
+        long existing = QuarkusTransaction.requiringNew().call(() -> ((Number) entityManager
+                .createNativeQuery("SELECT COUNT(*) FROM payments")
+                .getSingleResult()).longValue());
+        long missing = config.seedRows - existing;
+        if (missing <= 0) {
+            return;
+        }
+
+        LOG.infof("Seeding %d payments (%d customers, skew %.1f)", missing, config.customers, config.customerSkew);
+        long started = System.nanoTime();
+        QuarkusTransaction.requiringNew().run(() -> entityManager
+                // Seeded payments spread over the past year, which may predate the existing partitions
+                .createNativeQuery("SELECT ensure_payment_partitions(CAST(now() - interval '365 days' AS timestamp),"
+                        + " CAST(now() AS timestamp))")
+                .getSingleResult());
+        for (long done = 0; done < missing; done += config.seedChunk) {
+            long count = Math.min(config.seedChunk, missing - done);
+            double chunkSeed = ((config.randomSeed + done) % 1000) / 1000.0;
+            QuarkusTransaction.requiringNew().run(() -> {
+                entityManager.createNativeQuery("SELECT setseed(:seed)")
+                        .setParameter("seed", chunkSeed)
+                        .getSingleResult();
+                // Start past existing rows and past the id block the running application may hold in memory
+                long firstId = ((Number) entityManager
+                        .createNativeQuery("SELECT GREATEST(COALESCE(MAX(id), 0),"
+                                + " (SELECT last_value + 49 FROM payments_id_seq)) + 1 FROM payments")
+                        .getSingleResult()).longValue();
+                entityManager.createNativeQuery(SEED_SQL)
+                        .setParameter("firstId", firstId)
+                        .setParameter("customers", config.customers)
+                        .setParameter("skew", config.customerSkew)
+                        .setParameter("pendingRatio", config.pendingRatio)
+                        .setParameter("count", count)
+                        .executeUpdate();
+            });
+        }
+
+        QuarkusTransaction.requiringNew().run(() -> {
+            // Move the sequence past the explicit ids so the application's inserts do not collide
+            entityManager.createNativeQuery(
+                    "SELECT setval('payments_id_seq', (SELECT MAX(id) FROM payments) + 50)")
+                    .getSingleResult();
+            entityManager.createNativeQuery("ANALYZE payments").executeUpdate();
+        });
+        LOG.infof("Seeded in %.1f s", (System.nanoTime() - started) / 1_000_000_000.0);
+    }
+
+    /**
+     * Returns the lowest and highest payment ids, used to pick existing payments.
+     */
+    long[] idRange() {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            Object[] row = (Object[]) entityManager
+                    .createNativeQuery("SELECT COALESCE(MIN(id), 0), COALESCE(MAX(id), 0) FROM payments")
+                    .getSingleResult();
+            return new long[] { ((Number) row[0]).longValue(), ((Number) row[1]).longValue() };
+        });
+    }
+}
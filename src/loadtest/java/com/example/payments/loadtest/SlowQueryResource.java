@@ -0,0 +1,34 @@
+package com.example.payments.loadtest;
+
+import io.quarkus.arc.properties.IfBuildProperty;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.QueryParam;
+
+/**
+ * Test-only endpoint that holds a pooled connection for a given time with
+ * pg_sleep, standing in for slow production queries. Runs on the worker
+ * pool, like {@code PaymentResource}.
+ */
+@Path(SlowQueryResource.PATH)
+@IfBuildProperty(name = "payments.execution-mode", stringValue = "worker", enableIfMissing = true)
+public class SlowQueryResource {
+
+    static final String PATH = "/loadtest/slow-query";
+
+    @Inject
+    EntityManager entityManager;
+
+    @GET
+    @Transactional
+    public String slowQuery(@QueryParam("millis") @DefaultValue("50") long millis) {
+        entityManager.createNativeQuery("SELECT pg_sleep(:seconds)")
+                .setParameter("seconds", millis / 1000.0)
+                .getSingleResult();
+        return "ok";
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.payments.loadtest;
+
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.ws.rs.Path;
+
+/**
+ * {@link SlowQueryResource} on virtual threads, mirroring
+ * {@code VirtualThreadPaymentResource}.
+ */
+@Path(SlowQueryResource.PATH)
+@RunOnVirtualThread
+@IfBuildProperty(name = "payments.execution-mode", stringValue = "virtual-threads")
+public class VirtualThreadSlowQueryResource extends SlowQueryResource {
+}
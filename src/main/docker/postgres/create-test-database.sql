@@ -0,0 +1,3 @@
+-- Separate database for the opt-in PostgreSQL integration tests, which clean
+-- their schema before running; the application keeps using "payments"
+CREATE DATABASE payments_test;
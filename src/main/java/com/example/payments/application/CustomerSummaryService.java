@@ -0,0 +1,55 @@
+package com.example.payments.application;
+
+import java.time.LocalDate;
+
+import com.example.payments.domain.Currency;
+import com.example.payments.dto.CustomerDailyPaymentTotal;
+import com.example.payments.dto.CustomerPaymentTotal;
+import com.example.payments.dto.CustomerSummaryResponse;
+
+/**
+ * Port (interface) defining the per-customer payment summary use cases.
+ * Summaries are maintained incrementally by {@link PaymentService}; reading
+ * one costs the same regardless of how many payments the customer has.
+ */
+public interface CustomerSummaryService {
+
+    /**
+     * Returns the totals of a customer per currency and status.
+     * Business rules:
+     * - Without dates, totals cover every payment of the customer
+     * - With dates, both are required, from must not be after to and the
+     *   range is capped by payments.summary.max-range-days
+     * 
+     * @param customerId the customer ID
+     * @param from       first creation day (nullable)
+     * @param to         last creation day (nullable)
+     * @return the customer summary, with no totals for unknown customers
+     */
+    CustomerSummaryResponse<CustomerPaymentTotal> summarize(String customerId, LocalDate from, LocalDate to);
+
+    /**
+     * Returns the totals of a customer per creation day, currency and status.
+     * The range follows the rules of {@link #summarize} but is required.
+     * 
+     * @param customerId the customer ID
+     * @param from       first creation day
+     * @param to         last creation day
+     * @param currency   filter by currency (nullable)
+     * @return the customer summary, one line per day, currency and status
+     */
+    CustomerSummaryResponse<CustomerDailyPaymentTotal> summarizeDaily(
+            String customerId,
+            LocalDate from,
+            LocalDate to,
+            Currency currency);
+
+    /**
+     * Recomputes every customer summary from the stored payments, including
+     * archived ones. Used to backfill or repair summaries; payment writes
+     * keep going meanwhile.
+     * 
+     * @return number of summary rows corrected
+     */
+    long rebuild();
+}
@@ -0,0 +1,87 @@
+package com.example.payments.application;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import com.example.payments.domain.Currency;
+import com.example.payments.dto.CustomerDailyPaymentTotal;
+import com.example.payments.dto.CustomerPaymentTotal;
+import com.example.payments.dto.CustomerSummaryResponse;
+import com.example.payments.exception.InvalidDateRangeException;
+import com.example.payments.infrastructure.repository.CustomerSummaryRepository;
+
+import io.micrometer.core.annotation.Timed;
+import io.quarkus.narayana.jta.TransactionConfiguration;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+
+/**
+ * Implementation of the customer summary use cases.
+ */
+@ApplicationScoped
+public class CustomerSummaryServiceImpl implements CustomerSummaryService {
+
+    private static final Logger LOG = Logger.getLogger(CustomerSummaryServiceImpl.class);
+
+    private final CustomerSummaryRepository summaryRepository;
+    private final int maxRangeDays;
+
+    @Inject
+    public CustomerSummaryServiceImpl(
+            CustomerSummaryRepository summaryRepository,
+            @ConfigProperty(name = "payments.summary.max-range-days", defaultValue = "366") int maxRangeDays) {
+        this.summaryRepository = summaryRepository;
+        this.maxRangeDays = maxRangeDays;
+    }
+
+    @Override
+    @Timed(value = "payments.service", extraTags = { "operation", "summarize" })
+    public CustomerSummaryResponse<CustomerPaymentTotal> summarize(String customerId, LocalDate from, LocalDate to) {
+        if (from == null && to == null) {
+            return new CustomerSummaryResponse<>(customerId, null, null, summaryRepository.findTotals(customerId));
+        }
+        checkRange(from, to);
+        return new CustomerSummaryResponse<>(customerId, from, to, summaryRepository.findTotals(customerId, from, to));
+    }
+
+    @Override
+    @Timed(value = "payments.service", extraTags = { "operation", "summarizeDaily" })
+    public CustomerSummaryResponse<CustomerDailyPaymentTotal> summarizeDaily(
+            String customerId,
+            LocalDate from,
+            LocalDate to,
+            Currency currency) {
+
+        checkRange(from, to);
+        return new CustomerSummaryResponse<>(customerId, from, to,
+                summaryRepository.findDailyTotals(customerId, from, to, currency));
+    }
+
+    @Override
+    @Timed(value = "payments.service", extraTags = { "operation", "rebuildSummaries" })
+    @Transactional
+    @TransactionConfiguration(timeoutFromConfigProperty = "payments.summary.rebuild.transaction-timeout")
+    public long rebuild() {
+        long corrected = summaryRepository.rebuild();
+        LOG.infof("Rebuilt customer summaries, %d rows corrected", corrected);
+        return corrected;
+    }
+
+    // Bounds the rows read per request: at most one per day, currency and status
+    private void checkRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new InvalidDateRangeException("Both from and to are required");
+        }
+        if (from.isAfter(to)) {
+            throw new InvalidDateRangeException(String.format("from %s is after to %s", from, to));
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxRangeDays) {
+            throw new InvalidDateRangeException(String.format(
+                    "Date range cannot exceed %d days", maxRangeDays));
+        }
+    }
+}
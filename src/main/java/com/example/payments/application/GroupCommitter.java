@@ -0,0 +1,161 @@
+package com.example.payments.application;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.jboss.logging.Logger;
+
+import io.micrometer.core.instrument.DistributionSummary;
+
+/**
+ * Coalesces items submitted concurrently into groups written by one
+ * transaction each. A flusher thread takes the first waiting item, adds
+ * whatever else is queued and waits at most max-wait for more, up to
+ * max-batch-size items. Under low load a group is a single item and only
+ * max-wait is added; under high load many callers share one commit.
+ * <p>
+ * The flush callback completes each {@link Request}; requests it leaves
+ * pending fail, and if it throws, every pending request fails with that
+ * exception.
+ *
+ * @param <T> submitted item
+ * @param <R> result handed back to the submitter
+ */
+final class GroupCommitter<T, R> implements AutoCloseable {
+
+    private static final Logger LOG = Logger.getLogger(GroupCommitter.class);
+
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final Consumer<List<Request<T, R>>> flush;
+    private final DistributionSummary groupSize;
+    private final BlockingQueue<Request<T, R>> queue;
+    private final List<Thread> flushers = new ArrayList<>();
+
+    private volatile boolean running = true;
+
+    GroupCommitter(
+            String name,
+            int flusherCount,
+            int maxBatchSize,
+            Duration maxWait,
+            int queueCapacity,
+            Consumer<List<Request<T, R>>> flush,
+            DistributionSummary groupSize) {
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.flush = flush;
+        this.groupSize = groupSize;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        for (int i = 0; i < flusherCount; i++) {
+            flushers.add(Thread.ofPlatform().daemon().name(name + "-" + i).start(this::flushLoop));
+        }
+    }
+
+    /**
+     * Queues the item and waits until the group holding it is flushed.
+     * Blocks while the queue is full.
+     *
+     * @return the result the flush completed the request with
+     * @throws RuntimeException the exception the request failed with
+     */
+    R submit(T item) {
+        Request<T, R> request = new Request<>(item);
+        try {
+            queue.put(request);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing for group commit", e);
+        }
+        if (!running) {
+            // Raced with close(); the request may never be taken
+            request.fail(new IllegalStateException("Group commit is shut down"));
+        }
+        try {
+            return request.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        flushers.forEach(Thread::interrupt);
+        List<Request<T, R>> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        abandoned.forEach(request -> request.fail(new IllegalStateException("Group commit is shut down")));
+    }
+
+    private void flushLoop() {
+        List<Request<T, R>> group = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                collect(group);
+            } catch (InterruptedException e) {
+                group.forEach(request -> request.fail(new IllegalStateException("Group commit is shut down")));
+                return;
+            }
+            groupSize.record(group.size());
+            try {
+                flush.accept(List.copyOf(group));
+                group.forEach(request -> request.fail(new IllegalStateException("Item was not flushed")));
+            } catch (RuntimeException e) {
+                LOG.warnf(e, "Group commit of %d items failed", group.size());
+                group.forEach(request -> request.fail(e));
+            }
+            group.clear();
+        }
+    }
+
+    private void collect(List<Request<T, R>> group) throws InterruptedException {
+        group.add(queue.take());
+        queue.drainTo(group, maxBatchSize - group.size());
+        long deadline = System.nanoTime() + maxWaitNanos;
+        while (group.size() < maxBatchSize) {
+            long remaining = deadline - System.nanoTime();
+            Request<T, R> next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+            if (next == null) {
+                return;
+            }
+            group.add(next);
+            queue.drainTo(group, maxBatchSize - group.size());
+        }
+    }
+
+    /**
+     * An item waiting in a group. Completing or failing it more than once
+     * has no effect.
+     */
+    static final class Request<T, R> {
+
+        private final T item;
+        private final CompletableFuture<R> result = new CompletableFuture<>();
+
+        Request(T item) {
+            this.item = item;
+        }
+
+        T item() {
+            return item;
+        }
+
+        void complete(R value) {
+            result.complete(value);
+        }
+
+        void fail(RuntimeException exception) {
+            result.completeExceptionally(exception);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.payments.application;
+
+import com.example.payments.dto.PaymentResponse;
+
+/**
+ * CDI event fired when a payment is inserted, inside the inserting
+ * transaction. Observers interested only in committed payments should use
+ * {@code @Observes(during = TransactionPhase.AFTER_SUCCESS)}.
+ */
+public class PaymentCreated {
+
+    private final PaymentResponse payment;
+
+    public PaymentCreated(PaymentResponse payment) {
+        this.payment = payment;
+    }
+
+    public PaymentResponse getPayment() {
+        return payment;
+    }
+}
@@ -1,11 +1,17 @@
 package com.example.payments.application;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
-import com.example.payments.domain.Payment;
 import com.example.payments.domain.PaymentStatus;
+import com.example.payments.dto.BatchCreatePaymentResponse;
+import com.example.payments.dto.BulkUpdateStatusResponse;
+import com.example.payments.dto.CountMode;
 import com.example.payments.dto.CreatePaymentRequest;
+import com.example.payments.dto.PageCursor;
 import com.example.payments.dto.PagedResponse;
 import com.example.payments.dto.PaymentResponse;
 
@@ -27,13 +33,37 @@ public interface PaymentService {
      */
     PaymentResponse create(CreatePaymentRequest request);
 
+    /**
+     * Creates many payments at once with PENDING status.
+     * Each item follows the same rules as {@link #create}, but failures are
+     * reported per item instead of failing the whole batch:
+     * - Invalid items are reported as INVALID
+     * - Items whose reference already exists (or repeats within the batch)
+     *   are reported as DUPLICATE
+     * Valid items are persisted with batched inserts in chunked transactions.
+     * 
+     * @param requests the payments to create
+     * @return per-item results in request order
+     */
+    BatchCreatePaymentResponse createBatch(List<CreatePaymentRequest> requests);
+
     /**
      * Finds a payment by its ID.
+     * Served from an in-process cache; see {@code PaymentCache}.
      * 
      * @param id the payment ID
      * @return the payment if found
      */
-    Optional<Payment> findById(Long id);
+    Optional<PaymentResponse> findById(Long id);
+
+    /**
+     * Finds payments by ID reading the database, never the cache, for
+     * callers that must start from the current status.
+     * 
+     * @param ids the payment IDs
+     * @return the payments found (including archived ones), in no particular order
+     */
+    List<PaymentResponse> findCurrentByIds(Collection<Long> ids);
 
     /**
      * Lists payments with optional filters and mandatory pagination.
@@ -44,6 +74,8 @@ public interface PaymentService {
      * @param to         filter by creation date to (optional)
      * @param page       page number (0-indexed)
      * @param size       page size
+     * @param countMode  how the total is computed: exact COUNT, planner
+     *                   estimate, or none (only whether a next page exists)
      * @return paginated list of payments
      */
     PagedResponse<PaymentResponse> findAll(
@@ -52,8 +84,48 @@ public interface PaymentService {
             LocalDateTime from,
             LocalDateTime to,
             int page,
+            int size,
+            CountMode countMode);
+
+    /**
+     * Lists payments with optional filters using keyset (cursor) pagination.
+     * Recommended for deep crawls such as reconciliation: each page seeks past
+     * the previous one instead of skipping rows, and no total count is computed.
+     * 
+     * @param status     filter by status (optional)
+     * @param customerId filter by customer ID (optional)
+     * @param from       filter by creation date from (optional)
+     * @param to         filter by creation date to (optional)
+     * @param cursor     position after which to start (null for the first page)
+     * @param size       page size
+     * @return page of payments with the cursor for the next page, if any
+     */
+    PagedResponse<PaymentResponse> findAllAfter(
+            PaymentStatus status,
+            String customerId,
+            LocalDateTime from,
+            LocalDateTime to,
+            PageCursor cursor,
             int size);
 
+    /**
+     * Streams every payment matching the filters, oldest first, without
+     * loading them into memory. Intended for large exports such as
+     * reconciliation.
+     * 
+     * @param status     filter by status (optional)
+     * @param customerId filter by customer ID (optional)
+     * @param from       filter by creation date from (optional)
+     * @param to         filter by creation date to (optional)
+     * @param sink       called once per matching payment
+     */
+    void export(
+            PaymentStatus status,
+            String customerId,
+            LocalDateTime from,
+            LocalDateTime to,
+            Consumer<PaymentResponse> sink);
+
     /**
      * Updates the status of a payment.
      * Business rules:
@@ -65,4 +137,16 @@ public interface PaymentService {
      * @return the updated payment response
      */
     PaymentResponse updateStatus(Long id, PaymentStatus newStatus);
+
+    /**
+     * Moves many payments to the same status with set-based updates.
+     * The same transition rules as {@link #updateStatus} apply; payments that
+     * cannot make the transition are reported instead of failing the request.
+     * 
+     * @param ids        payment IDs to update (optional)
+     * @param references payment references to update (optional)
+     * @param newStatus  the target status
+     * @return which payments were transitioned, rejected or not found
+     */
+    BulkUpdateStatusResponse bulkUpdateStatus(List<Long> ids, List<String> references, PaymentStatus newStatus);
 }
@@ -1,22 +1,55 @@
 package com.example.payments.application;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
 import com.example.payments.domain.Payment;
 import com.example.payments.domain.PaymentStatus;
+import com.example.payments.domain.PaymentStatusSnapshot;
+import com.example.payments.dto.BatchCreatePaymentResponse;
+import com.example.payments.dto.BatchItemResult;
+import com.example.payments.dto.BulkUpdateStatusResponse;
+import com.example.payments.dto.CountMode;
 import com.example.payments.dto.CreatePaymentRequest;
+import com.example.payments.dto.PageCursor;
 import com.example.payments.dto.PagedResponse;
 import com.example.payments.dto.PaymentResponse;
+import com.example.payments.dto.StatusTransitionRejection;
 import com.example.payments.exception.DuplicateReferenceException;
+import com.example.payments.exception.InvalidStatusTransitionException;
 import com.example.payments.exception.PaymentNotFoundException;
+import com.example.payments.infrastructure.cache.PaymentCache;
+import com.example.payments.infrastructure.cache.PaymentReferenceFilter;
+import com.example.payments.infrastructure.repository.CustomerSummaryRepository;
 import com.example.payments.infrastructure.repository.PaymentRepository;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.narayana.jta.TransactionConfiguration;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 
 /**
  * Implementation of payment use cases.
@@ -25,77 +58,467 @@ import jakarta.transaction.Transactional;
 @ApplicationScoped
 public class PaymentServiceImpl implements PaymentService {
 
+    private static final Logger LOG = Logger.getLogger(PaymentServiceImpl.class);
+
+    // Keeps IN lists well below the driver's bind parameter limit
+    private static final int BULK_UPDATE_CHUNK_SIZE = 1000;
+
     private final PaymentRepository paymentRepository;
+    private final PaymentCache paymentCache;
+    private final PaymentReferenceFilter referenceFilter;
+    private final CustomerSummaryRepository summaryRepository;
+    private final Event<PaymentCreated> createdEvent;
+    private final Event<PaymentStatusChanged> statusChangedEvent;
+    private final Validator validator;
+    private final int batchChunkSize;
+    private final int exportFetchSize;
+
+    // Set when payments.group-commit.enabled; create() then shares transactions with concurrent calls
+    private final GroupCommitter<CreatePaymentRequest, PaymentResponse> groupCommitter;
 
     @Inject
-    public PaymentServiceImpl(PaymentRepository paymentRepository) {
+    public PaymentServiceImpl(
+            PaymentRepository paymentRepository,
+            PaymentCache paymentCache,
+            PaymentReferenceFilter referenceFilter,
+            CustomerSummaryRepository summaryRepository,
+            Event<PaymentCreated> createdEvent,
+            Event<PaymentStatusChanged> statusChangedEvent,
+            Validator validator,
+            @ConfigProperty(name = "payments.batch.chunk-size", defaultValue = "500") int batchChunkSize,
+            @ConfigProperty(name = "payments.export.fetch-size", defaultValue = "1000") int exportFetchSize,
+            @ConfigProperty(name = "payments.group-commit.enabled", defaultValue = "false") boolean groupCommitEnabled,
+            @ConfigProperty(name = "payments.group-commit.flushers", defaultValue = "2") int groupCommitFlushers,
+            @ConfigProperty(name = "payments.group-commit.max-batch-size", defaultValue = "200") int groupCommitMaxBatchSize,
+            @ConfigProperty(name = "payments.group-commit.max-wait", defaultValue = "PT0.0002S") Duration groupCommitMaxWait,
+            @ConfigProperty(name = "payments.group-commit.queue-capacity", defaultValue = "10000") int groupCommitQueueCapacity,
+            MeterRegistry meterRegistry) {
         this.paymentRepository = paymentRepository;
+        this.paymentCache = paymentCache;
+        this.referenceFilter = referenceFilter;
+        this.summaryRepository = summaryRepository;
+        this.createdEvent = createdEvent;
+        this.statusChangedEvent = statusChangedEvent;
+        this.validator = validator;
+        this.batchChunkSize = batchChunkSize;
+        this.exportFetchSize = exportFetchSize;
+        this.groupCommitter = groupCommitEnabled
+                ? new GroupCommitter<>("payment-group-commit", groupCommitFlushers, groupCommitMaxBatchSize,
+                        groupCommitMaxWait, groupCommitQueueCapacity, this::flushGroup,
+                        DistributionSummary.builder("payments.group-commit.size")
+                                .description("Payments created per group-commit transaction")
+                                .register(meterRegistry))
+                : null;
+    }
+
+    @PreDestroy
+    void stopGroupCommit() {
+        if (groupCommitter != null) {
+            groupCommitter.close();
+        }
     }
 
     @Override
+    @Timed(value = "payments.service", extraTags = { "operation", "create" })
     @Transactional
     public PaymentResponse create(CreatePaymentRequest request) {
-        // Check for duplicate reference
-        if (paymentRepository.existsByReference(request.getReference())) {
-            throw new DuplicateReferenceException(request.getReference());
+        if (groupCommitter != null) {
+            // Written by a flusher thread in a transaction shared with concurrent calls;
+            // this call's own transaction stays empty and never takes a connection
+            return groupCommitter.submit(request);
         }
 
         // Create new payment with PENDING status (ignoring any status from frontend)
-        Payment payment = new Payment(
-                request.getReference(),
-                request.getCustomerId(),
-                request.getAmount(),
-                request.getCurrency(),
-                request.getMethod());
+        Payment payment = toPayment(request);
+
+        // Single INSERT ... ON CONFLICT DO NOTHING; the claim on the reference decides
+        // duplicates, so concurrent requests with the same reference cannot both succeed
+        Payment savedPayment = paymentRepository.insertIfAbsent(payment)
+                .orElseThrow(() -> new DuplicateReferenceException(request.getReference()));
+        PaymentResponse response = PaymentResponse.fromEntity(savedPayment);
+        summaryRepository.addPayments(List.of(response));
+        createdEvent.fire(new PaymentCreated(response));
+        return response;
+    }
+
+    @Override
+    @Timed(value = "payments.service", extraTags = { "operation", "createBatch" })
+    public BatchCreatePaymentResponse createBatch(List<CreatePaymentRequest> requests) {
+        BatchItemResult[] results = new BatchItemResult[requests.size()];
+        List<Integer> accepted = new ArrayList<>();
+        Set<String> referencesInBatch = new HashSet<>();
+
+        // Validate each item on its own and drop references repeated within the batch
+        for (int index = 0; index < requests.size(); index++) {
+            CreatePaymentRequest request = requests.get(index);
+            String violations = validate(request);
+            if (violations != null) {
+                results[index] = BatchItemResult.invalid(
+                        index, request != null ? request.getReference() : null, violations);
+            } else if (!referencesInBatch.add(request.getReference())) {
+                results[index] = BatchItemResult.duplicate(index, request.getReference());
+            } else {
+                accepted.add(index);
+            }
+        }
+
+        insertAccepted(requests, accepted, results);
+        return new BatchCreatePaymentResponse(Arrays.asList(results));
+    }
+
+    // Group-commit flush: the concurrent create() calls of one group, written like a batch
+    private void flushGroup(List<GroupCommitter.Request<CreatePaymentRequest, PaymentResponse>> group) {
+        List<CreatePaymentRequest> requests = group.stream().map(GroupCommitter.Request::item).toList();
+        BatchItemResult[] results = new BatchItemResult[requests.size()];
+        List<Integer> accepted = new ArrayList<>();
+        Map<String, Integer> firstByReference = new HashMap<>();
+        for (int index = 0; index < requests.size(); index++) {
+            // Concurrent calls with the same reference: the first one is written
+            if (firstByReference.putIfAbsent(requests.get(index).getReference(), index) == null) {
+                accepted.add(index);
+            }
+        }
+
+        try {
+            insertAccepted(requests, accepted, results);
+        } finally {
+            // Runs even if the insert threw, so callers whose rows were committed get them;
+            // requests left without an outcome are failed by the GroupCommitter
+            for (int index = 0; index < results.length; index++) {
+                int first = firstByReference.get(requests.get(index).getReference());
+                if (first == index) {
+                    complete(group.get(index), results[index]);
+                } else if (results[first] != null) {
+                    // A repeated reference only conflicts if the first call stored it
+                    complete(group.get(index), results[first].getOutcome() == BatchItemResult.Outcome.CREATED
+                            ? BatchItemResult.duplicate(index, requests.get(index).getReference())
+                            : results[first]);
+                }
+            }
+        }
+    }
+
+    private static void complete(GroupCommitter.Request<CreatePaymentRequest, PaymentResponse> request, BatchItemResult result) {
+        if (result == null) {
+            return;
+        }
+        switch (result.getOutcome()) {
+            case CREATED -> request.complete(result.getPayment());
+            case DUPLICATE -> request.fail(new DuplicateReferenceException(result.getReference()));
+            default -> request.fail(new IllegalStateException(result.getMessage()));
+        }
+    }
 
-        // Persist and return response
-        Payment savedPayment = paymentRepository.save(payment);
-        return PaymentResponse.fromEntity(savedPayment);
+    // Fills results for every accepted item; failures are reported per item, never thrown
+    private void insertAccepted(List<CreatePaymentRequest> requests, List<Integer> accepted, BatchItemResult[] results) {
+        // One transaction and one JDBC batch per chunk
+        for (int start = 0; start < accepted.size(); start += batchChunkSize) {
+            List<Integer> chunk = accepted.subList(start, Math.min(start + batchChunkSize, accepted.size()));
+            try {
+                QuarkusTransaction.requiringNew().run(() -> insertChunk(requests, chunk, results));
+            } catch (DuplicateReferenceException e) {
+                // A reference taken concurrently fails the whole chunk; retry item by item
+                insertOneByOne(requests, chunk, results);
+            } catch (RuntimeException e) {
+                // The chunk transaction rolled back, so none of its payments were stored
+                LOG.errorf(e, "Inserting a chunk of %d payments failed", chunk.size());
+                for (int index : chunk) {
+                    if (results[index] == null || results[index].getOutcome() != BatchItemResult.Outcome.DUPLICATE) {
+                        results[index] = BatchItemResult.failed(index, requests.get(index).getReference());
+                    }
+                }
+            }
+        }
     }
 
     @Override
-    public Optional<Payment> findById(Long id) {
-        return paymentRepository.findPaymentById(id);
+    @Timed(value = "payments.service", extraTags = { "operation", "findById" })
+    public Optional<PaymentResponse> findById(Long id) {
+        return paymentCache.get(id, paymentRepository::findResponseById);
     }
 
     @Override
+    @Timed(value = "payments.service", extraTags = { "operation", "findCurrentByIds" })
+    public List<PaymentResponse> findCurrentByIds(Collection<Long> ids) {
+        List<PaymentResponse> payments = new ArrayList<>(paymentRepository.findResponsesByIds(ids));
+        if (payments.size() < ids.size()) {
+            // Only archived payments are left, and those no longer change status
+            Set<Long> found = payments.stream().map(PaymentResponse::getId).collect(Collectors.toSet());
+            ids.stream()
+                    .filter(id -> !found.contains(id))
+                    .forEach(id -> paymentRepository.findResponseById(id).ifPresent(payments::add));
+        }
+        return payments;
+    }
+
+    @Override
+    @Timed(value = "payments.service", extraTags = { "operation", "findAll" })
     public PagedResponse<PaymentResponse> findAll(
             PaymentStatus status,
             String customerId,
             LocalDateTime from,
             LocalDateTime to,
             int page,
+            int size,
+            CountMode countMode) {
+
+        int offset = PagedResponse.offset(page, size);
+        if (countMode == CountMode.EXACT) {
+            // Get paginated payments with filters
+            List<PaymentResponse> payments = paymentRepository.findByFilters(
+                    status, customerId, from, to, page, size);
+
+            // Get total count for pagination
+            long totalElements = paymentRepository.countByFilters(
+                    status, customerId, from, to);
+
+            return new PagedResponse<>(payments, page, size, totalElements);
+        }
+
+        // Fetch one extra row to know whether another page exists without counting
+        List<PaymentResponse> payments = paymentRepository.findSliceByFilters(
+                status, customerId, from, to, offset, size + 1);
+
+        boolean hasNext = payments.size() > size;
+        if (hasNext) {
+            payments = payments.subList(0, size);
+        }
+
+        PagedResponse<PaymentResponse> response = PagedResponse.ofSlice(
+                payments, page, size, hasNext);
+
+        if (countMode == CountMode.ESTIMATE) {
+            response.setEstimatedTotalElements(paymentRepository.estimateByFilters(
+                    status, customerId, from, to));
+        }
+
+        return response;
+    }
+
+    @Override
+    @Timed(value = "payments.service", extraTags = { "operation", "findAllAfter" })
+    public PagedResponse<PaymentResponse> findAllAfter(
+            PaymentStatus status,
+            String customerId,
+            LocalDateTime from,
+            LocalDateTime to,
+            PageCursor cursor,
             int size) {
 
-        // Get paginated payments with filters
-        List<Payment> payments = paymentRepository.findByFilters(
-                status, customerId, from, to, page, size);
+        // Fetch one extra row to know whether another page exists
+        List<PaymentResponse> payments = paymentRepository.findByFiltersAfter(
+                status, customerId, from, to,
+                cursor != null ? cursor.getCreatedAt() : null,
+                cursor != null ? cursor.getId() : null,
+                size + 1);
 
-        // Get total count for pagination
-        long totalElements = paymentRepository.countByFilters(
-                status, customerId, from, to);
+        String nextCursor = null;
+        if (payments.size() > size) {
+            payments = payments.subList(0, size);
+            PaymentResponse last = payments.get(size - 1);
+            nextCursor = new PageCursor(last.getCreatedAt(), last.getId()).encode();
+        }
 
-        // Convert to response DTOs
-        List<PaymentResponse> content = payments.stream()
-                .map(PaymentResponse::fromEntity)
-                .collect(Collectors.toList());
+        return PagedResponse.ofCursor(payments, size, nextCursor);
+    }
 
-        return new PagedResponse<>(content, page, size, totalElements);
+    @Override
+    @Timed(value = "payments.service", extraTags = { "operation", "export" })
+    @Transactional
+    @TransactionConfiguration(timeoutFromConfigProperty = "payments.export.transaction-timeout")
+    public void export(
+            PaymentStatus status,
+            String customerId,
+            LocalDateTime from,
+            LocalDateTime to,
+            Consumer<PaymentResponse> sink) {
+
+        // The transaction keeps the server-side cursor open while rows are written out
+        paymentRepository.forEachByFilters(status, customerId, from, to, exportFetchSize,
+                payment -> sink.accept(PaymentResponse.fromEntity(payment)));
     }
 
     @Override
+    @Timed(value = "payments.service", extraTags = { "operation", "updateStatus" })
     @Transactional
     public PaymentResponse updateStatus(Long id, PaymentStatus newStatus) {
-        // Find payment or throw 404
-        Payment payment = paymentRepository.findPaymentById(id)
+        Set<PaymentStatus> allowedSources = Payment.statusesAllowedToTransitionTo(newStatus);
+
+        // Compare-and-set: the row only changes if it is still in an allowed source
+        // status, so of two concurrent transitions exactly one wins. It returns the
+        // updated row, so the read is only needed to explain a miss.
+        PaymentResponse payment = paymentRepository.updateStatusIfAllowed(id, allowedSources, newStatus)
+                .orElseGet(() -> rejectStatusChange(id, newStatus));
+
+        // With a single allowed source, that is the status the payment had
+        PaymentStatus previousStatus = allowedSources.size() == 1 ? allowedSources.iterator().next() : null;
+        summaryRepository.movePayments(List.of(payment), previousStatus);
+        statusChangedEvent.fire(new PaymentStatusChanged(id, previousStatus, newStatus));
+        return payment;
+    }
+
+    private PaymentResponse rejectStatusChange(Long id, PaymentStatus newStatus) {
+        PaymentResponse current = paymentRepository.findResponseById(id)
                 .orElseThrow(() -> new PaymentNotFoundException(id));
+        // Not allowed from the current status, or a concurrent transition got there first
+        Payment.checkTransition(current.getStatus(), newStatus);
+        throw new InvalidStatusTransitionException(String.format(
+                "Payment %d changed status concurrently, retry the update", id));
+    }
+
+    @Override
+    @Timed(value = "payments.service", extraTags = { "operation", "bulkUpdateStatus" })
+    @Transactional
+    public BulkUpdateStatusResponse bulkUpdateStatus(List<Long> ids, List<String> references, PaymentStatus newStatus) {
+        BulkUpdateStatusResponse response = new BulkUpdateStatusResponse();
+        List<Long> requestedIds = ids != null ? new ArrayList<>(new LinkedHashSet<>(ids)) : List.of();
+        List<String> requestedReferences = references != null
+                ? new ArrayList<>(new LinkedHashSet<>(references))
+                : List.of();
+
+        Set<Long> foundIds = new HashSet<>();
+        Set<String> foundReferences = new HashSet<>();
+        Set<Long> handled = new HashSet<>();
+
+        for (int start = 0; start < requestedIds.size(); start += BULK_UPDATE_CHUNK_SIZE) {
+            List<Long> chunk = requestedIds.subList(start, Math.min(start + BULK_UPDATE_CHUNK_SIZE, requestedIds.size()));
+            transitionChunk(paymentRepository.lockStatuses(chunk, List.of()),
+                    newStatus, response, foundIds, foundReferences, handled);
+        }
+        for (int start = 0; start < requestedReferences.size(); start += BULK_UPDATE_CHUNK_SIZE) {
+            List<String> chunk = requestedReferences.subList(start,
+                    Math.min(start + BULK_UPDATE_CHUNK_SIZE, requestedReferences.size()));
+            transitionChunk(paymentRepository.lockStatuses(List.of(), chunk),
+                    newStatus, response, foundIds, foundReferences, handled);
+        }
+
+        requestedIds.stream()
+                .filter(id -> !foundIds.contains(id))
+                .forEach(response.getNotFoundIds()::add);
+        requestedReferences.stream()
+                .filter(reference -> !foundReferences.contains(reference))
+                .forEach(response.getNotFoundReferences()::add);
+
+        return response;
+    }
+
+    private void transitionChunk(
+            List<PaymentStatusSnapshot> snapshots,
+            PaymentStatus newStatus,
+            BulkUpdateStatusResponse response,
+            Set<Long> foundIds,
+            Set<String> foundReferences,
+            Set<Long> handled) {
 
-        // Apply domain logic for status transition (may throw
-        // InvalidStatusTransitionException)
-        payment.transitionTo(newStatus);
+        // Rows are locked, so the eligible set cannot change before the UPDATE
+        List<PaymentStatusSnapshot> eligible = new ArrayList<>();
+        for (PaymentStatusSnapshot snapshot : snapshots) {
+            foundIds.add(snapshot.getId());
+            foundReferences.add(snapshot.getReference());
+            if (!handled.add(snapshot.getId())) {
+                // Same payment requested by both ID and reference
+                continue;
+            }
+            if (Payment.isAllowedTransition(snapshot.getStatus(), newStatus)) {
+                eligible.add(snapshot);
+            } else {
+                response.getRejected().add(new StatusTransitionRejection(
+                        snapshot.getId(),
+                        snapshot.getReference(),
+                        snapshot.getStatus(),
+                        String.format("Cannot transition from %s to %s", snapshot.getStatus(), newStatus)));
+            }
+        }
+
+        List<Long> eligibleIds = eligible.stream()
+                .map(PaymentStatusSnapshot::getId)
+                .collect(Collectors.toList());
+        paymentRepository.updateStatuses(eligibleIds, Payment.statusesAllowedToTransitionTo(newStatus), newStatus);
+        response.getTransitioned().addAll(eligibleIds);
+
+        Map<PaymentStatus, List<Long>> idsByPreviousStatus = eligible.stream()
+                .collect(Collectors.groupingBy(PaymentStatusSnapshot::getStatus,
+                        Collectors.mapping(PaymentStatusSnapshot::getId, Collectors.toList())));
+        idsByPreviousStatus.forEach((previousStatus, movedIds) -> summaryRepository.movePayments(
+                paymentRepository.findResponsesByIds(movedIds), previousStatus));
+
+        for (PaymentStatusSnapshot snapshot : eligible) {
+            statusChangedEvent.fire(new PaymentStatusChanged(snapshot.getId(), snapshot.getStatus(), newStatus));
+        }
+    }
+
+    private void insertChunk(List<CreatePaymentRequest> requests, List<Integer> chunk, BatchItemResult[] results) {
+        // References the filter rules out skip the query; the unique constraint still guards them
+        Set<String> existing = referenceFilter.findExisting(chunk.stream()
+                .map(index -> requests.get(index).getReference())
+                .collect(Collectors.toList()), paymentRepository::findExistingReferences);
+
+        List<Integer> insertedIndexes = new ArrayList<>();
+        List<Payment> payments = new ArrayList<>();
+        for (int index : chunk) {
+            CreatePaymentRequest request = requests.get(index);
+            if (existing.contains(request.getReference())) {
+                results[index] = BatchItemResult.duplicate(index, request.getReference());
+            } else {
+                insertedIndexes.add(index);
+                payments.add(toPayment(request));
+            }
+        }
+
+        paymentRepository.saveAll(payments);
+
+        List<PaymentResponse> created = payments.stream().map(PaymentResponse::fromEntity).toList();
+        summaryRepository.addPayments(created);
+        for (int i = 0; i < created.size(); i++) {
+            int index = insertedIndexes.get(i);
+            createdEvent.fire(new PaymentCreated(created.get(i)));
+            results[index] = BatchItemResult.created(index, created.get(i));
+        }
+    }
+
+    private void insertOneByOne(List<CreatePaymentRequest> requests, List<Integer> chunk, BatchItemResult[] results) {
+        for (int index : chunk) {
+            CreatePaymentRequest request = requests.get(index);
+            try {
+                PaymentResponse created = QuarkusTransaction.requiringNew().call(() -> {
+                    PaymentResponse inserted = PaymentResponse.fromEntity(paymentRepository
+                            .insertIfAbsent(toPayment(request))
+                            .orElseThrow(() -> new DuplicateReferenceException(request.getReference())));
+                    summaryRepository.addPayments(List.of(inserted));
+                    createdEvent.fire(new PaymentCreated(inserted));
+                    return inserted;
+                });
+                results[index] = BatchItemResult.created(index, created);
+            } catch (DuplicateReferenceException e) {
+                results[index] = BatchItemResult.duplicate(index, request.getReference());
+            } catch (RuntimeException e) {
+                // Only this item's transaction rolled back; the others keep their outcome
+                LOG.errorf(e, "Inserting payment %s failed", request.getReference());
+                results[index] = BatchItemResult.failed(index, request.getReference());
+            }
+        }
+    }
 
-        // Persist and return updated payment
-        Payment updatedPayment = paymentRepository.save(payment);
-        return PaymentResponse.fromEntity(updatedPayment);
+    private String validate(CreatePaymentRequest request) {
+        if (request == null) {
+            return "Item is required";
+        }
+        Set<ConstraintViolation<CreatePaymentRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private static Payment toPayment(CreatePaymentRequest request) {
+        return new Payment(
+                request.getReference(),
+                request.getCustomerId(),
+                request.getAmount(),
+                request.getCurrency(),
+                request.getMethod());
     }
 }
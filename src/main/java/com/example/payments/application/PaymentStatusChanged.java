@@ -0,0 +1,33 @@
+package com.example.payments.application;
+
+import com.example.payments.domain.PaymentStatus;
+
+/**
+ * CDI event fired when a payment changes status.
+ * Observers interested only in committed changes should use
+ * {@code @Observes(during = TransactionPhase.AFTER_SUCCESS)}.
+ */
+public class PaymentStatusChanged {
+
+    private final Long paymentId;
+    private final PaymentStatus previousStatus;
+    private final PaymentStatus newStatus;
+
+    public PaymentStatusChanged(Long paymentId, PaymentStatus previousStatus, PaymentStatus newStatus) {
+        this.paymentId = paymentId;
+        this.previousStatus = previousStatus;
+        this.newStatus = newStatus;
+    }
+
+    public Long getPaymentId() {
+        return paymentId;
+    }
+
+    public PaymentStatus getPreviousStatus() {
+        return previousStatus;
+    }
+
+    public PaymentStatus getNewStatus() {
+        return newStatus;
+    }
+}
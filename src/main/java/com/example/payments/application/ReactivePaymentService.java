@@ -0,0 +1,70 @@
+package com.example.payments.application;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import com.example.payments.domain.PaymentStatus;
+import com.example.payments.dto.CountMode;
+import com.example.payments.dto.CreatePaymentRequest;
+import com.example.payments.dto.PageCursor;
+import com.example.payments.dto.PagedResponse;
+import com.example.payments.dto.PaymentResponse;
+
+import io.smallrye.mutiny.Uni;
+
+/**
+ * Non-blocking variant of the single-payment and listing use cases of
+ * {@link PaymentService}, with the same business rules.
+ */
+public interface ReactivePaymentService {
+
+    /**
+     * Creates a new payment with PENDING status.
+     * 
+     * @param request the payment data
+     * @return the created payment response
+     */
+    Uni<PaymentResponse> create(CreatePaymentRequest request);
+
+    /**
+     * Finds a payment by ID.
+     * 
+     * @param id the payment ID
+     * @return the payment response if found
+     */
+    Uni<Optional<PaymentResponse>> findById(Long id);
+
+    /**
+     * Lists payments with optional filters and offset pagination.
+     * 
+     * @see PaymentService#findAll
+     */
+    Uni<PagedResponse<PaymentResponse>> findAll(
+            PaymentStatus status,
+            String customerId,
+            LocalDateTime from,
+            LocalDateTime to,
+            int page,
+            int size,
+            CountMode countMode);
+
+    /**
+     * Lists payments with optional filters using keyset (cursor) pagination.
+     * 
+     * @see PaymentService#findAllAfter
+     */
+    Uni<PagedResponse<PaymentResponse>> findAllAfter(
+            PaymentStatus status,
+            String customerId,
+            LocalDateTime from,
+            LocalDateTime to,
+            PageCursor cursor,
+            int size);
+
+    /**
+     * Updates the status of a payment.
+     * 
+     * @see PaymentService#updateStatus
+     */
+    Uni<PaymentResponse> updateStatus(Long id, PaymentStatus newStatus);
+}
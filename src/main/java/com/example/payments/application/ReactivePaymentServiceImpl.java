@@ -0,0 +1,157 @@
+package com.example.payments.application;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import com.example.payments.domain.Payment;
+import com.example.payments.domain.PaymentStatus;
+import com.example.payments.dto.CountMode;
+import com.example.payments.dto.CreatePaymentRequest;
+import com.example.payments.dto.PageCursor;
+import com.example.payments.dto.PagedResponse;
+import com.example.payments.dto.PaymentResponse;
+import com.example.payments.infrastructure.cache.PaymentCache;
+import com.example.payments.infrastructure.repository.ReactivePaymentRepository;
+
+import io.micrometer.core.annotation.Timed;
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Implementation of the reactive payment use cases.
+ * Enabled with {@code payments.execution-mode=reactive}.
+ * <p>
+ * Reads use the reactive client. Creating a payment and changing its status
+ * also write customer summaries and outbox events, which must commit with
+ * the payment; the reactive client cannot join that JTA transaction, so
+ * both run through the blocking {@link PaymentService} on the worker pool.
+ */
+@ApplicationScoped
+@IfBuildProperty(name = "payments.execution-mode", stringValue = "reactive")
+public class ReactivePaymentServiceImpl implements ReactivePaymentService {
+
+    private final ReactivePaymentRepository paymentRepository;
+    private final PaymentCache paymentCache;
+    private final PaymentService paymentService;
+
+    @Inject
+    public ReactivePaymentServiceImpl(
+            ReactivePaymentRepository paymentRepository,
+            PaymentCache paymentCache,
+            PaymentService paymentService) {
+        this.paymentRepository = paymentRepository;
+        this.paymentCache = paymentCache;
+        this.paymentService = paymentService;
+    }
+
+    @Override
+    @Timed(value = "payments.service", extraTags = { "operation", "create" })
+    public Uni<PaymentResponse> create(CreatePaymentRequest request) {
+        return onWorker(() -> paymentService.create(request));
+    }
+
+    @Override
+    @Timed(value = "payments.service", extraTags = { "operation", "findById" })
+    public Uni<Optional<PaymentResponse>> findById(Long id) {
+        Optional<PaymentResponse> cached = paymentCache.getIfPresent(id);
+        if (cached.isPresent()) {
+            return Uni.createFrom().item(cached);
+        }
+        return paymentRepository.findPaymentById(id)
+                .map(payment -> payment.map(PaymentResponse::fromEntity))
+                .invoke(payment -> payment.ifPresent(paymentCache::put));
+    }
+
+    @Override
+    @Timed(value = "payments.service", extraTags = { "operation", "findAll" })
+    public Uni<PagedResponse<PaymentResponse>> findAll(
+            PaymentStatus status,
+            String customerId,
+            LocalDateTime from,
+            LocalDateTime to,
+            int page,
+            int size,
+            CountMode countMode) {
+
+        int offset = PagedResponse.offset(page, size);
+        if (countMode == CountMode.EXACT) {
+            // Page and count run concurrently on separate pooled connections
+            return Uni.combine().all()
+                    .unis(paymentRepository.findSliceByFilters(status, customerId, from, to, offset, size),
+                            paymentRepository.countByFilters(status, customerId, from, to))
+                    .asTuple()
+                    .map(result -> new PagedResponse<>(toResponses(result.getItem1()), page, size, result.getItem2()));
+        }
+
+        // Fetch one extra row to know whether another page exists without counting
+        Uni<PagedResponse<PaymentResponse>> slice = paymentRepository
+                .findSliceByFilters(status, customerId, from, to, offset, size + 1)
+                .map(payments -> {
+                    boolean hasNext = payments.size() > size;
+                    List<Payment> content = hasNext ? payments.subList(0, size) : payments;
+                    return PagedResponse.ofSlice(toResponses(content), page, size, hasNext);
+                });
+
+        if (countMode != CountMode.ESTIMATE) {
+            return slice;
+        }
+        return Uni.combine().all()
+                .unis(slice, paymentRepository.estimateByFilters(status, customerId, from, to))
+                .asTuple()
+                .map(result -> {
+                    PagedResponse<PaymentResponse> response = result.getItem1();
+                    response.setEstimatedTotalElements(result.getItem2());
+                    return response;
+                });
+    }
+
+    @Override
+    @Timed(value = "payments.service", extraTags = { "operation", "findAllAfter" })
+    public Uni<PagedResponse<PaymentResponse>> findAllAfter(
+            PaymentStatus status,
+            String customerId,
+            LocalDateTime from,
+            LocalDateTime to,
+            PageCursor cursor,
+            int size) {
+
+        // Fetch one extra row to know whether another page exists
+        return paymentRepository.findByFiltersAfter(
+                status, customerId, from, to,
+                cursor != null ? cursor.getCreatedAt() : null,
+                cursor != null ? cursor.getId() : null,
+                size + 1)
+                .map(payments -> {
+                    String nextCursor = null;
+                    List<Payment> content = payments;
+                    if (payments.size() > size) {
+                        content = payments.subList(0, size);
+                        Payment last = content.get(size - 1);
+                        nextCursor = new PageCursor(last.getCreatedAt(), last.getId()).encode();
+                    }
+                    return PagedResponse.ofCursor(toResponses(content), size, nextCursor);
+                });
+    }
+
+    @Override
+    @Timed(value = "payments.service", extraTags = { "operation", "updateStatus" })
+    public Uni<PaymentResponse> updateStatus(Long id, PaymentStatus newStatus) {
+        return onWorker(() -> paymentService.updateStatus(id, newStatus));
+    }
+
+    // The payment, its summary deltas and its outbox events commit in the same JTA transaction
+    private static <T> Uni<T> onWorker(Supplier<T> work) {
+        return Uni.createFrom().item(work).runSubscriptionOn(Infrastructure.getDefaultWorkerPool());
+    }
+
+    private static List<PaymentResponse> toResponses(List<Payment> payments) {
+        return payments.stream()
+                .map(PaymentResponse::fromEntity)
+                .toList();
+    }
+}
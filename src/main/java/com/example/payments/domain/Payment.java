@@ -2,6 +2,8 @@ package com.example.payments.domain;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
 
 import com.example.payments.exception.InvalidStatusTransitionException;
 
@@ -12,21 +14,30 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
 
 /**
  * Domain entity representing a payment transaction.
  * Contains business logic for status transitions.
  */
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", uniqueConstraints = @UniqueConstraint(name = Payment.REFERENCE_CONSTRAINT, columnNames = "reference"))
 public class Payment {
 
+    /** Name of the unique constraint guarding {@code reference}. */
+    public static final String REFERENCE_CONSTRAINT = "uk_payment_reference";
+
+    // Sequence (not IDENTITY) so Hibernate can allocate IDs in memory and batch inserts.
+    // With Quarkus' default pooled-lo optimizer each nextval reserves [value, value + 50).
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payments_id_seq")
+    @SequenceGenerator(name = "payments_id_seq", sequenceName = "payments_id_seq", allocationSize = 50)
     private Long id;
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String reference;
 
     @Column(name = "customer_id", nullable = false)
@@ -50,6 +61,11 @@ public class Payment {
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
+    // Incremented by every status change, including conditional and set-based updates
+    @Version
+    @Column(nullable = false)
+    private long version;
+
     // Default constructor required by JPA
     public Payment() {
     }
@@ -77,26 +93,69 @@ public class Payment {
      * @throws InvalidStatusTransitionException if transition is not allowed
      */
     public void transitionTo(PaymentStatus newStatus) {
-        if (this.status == PaymentStatus.PENDING) {
-            if (newStatus == PaymentStatus.APPROVED || newStatus == PaymentStatus.REJECTED) {
-                this.status = newStatus;
-                return;
-            }
+        checkTransition(this.status, newStatus);
+        this.status = newStatus;
+    }
+
+    /**
+     * Rejects a transition that the business rules do not allow.
+     *
+     * @throws InvalidStatusTransitionException if transition is not allowed
+     */
+    public static void checkTransition(PaymentStatus from, PaymentStatus to) {
+        if (!isAllowedTransition(from, to)) {
+            throw new InvalidStatusTransitionException(
+                    String.format("Cannot transition from %s to %s", from, to));
         }
-        throw new InvalidStatusTransitionException(
-                String.format("Cannot transition from %s to %s", this.status, newStatus));
     }
 
     /**
      * Checks if transition to the given status is allowed.
      */
     public boolean canTransitionTo(PaymentStatus newStatus) {
-        if (this.status == PaymentStatus.PENDING) {
-            return newStatus == PaymentStatus.APPROVED || newStatus == PaymentStatus.REJECTED;
+        return isAllowedTransition(this.status, newStatus);
+    }
+
+    /**
+     * Status transition rules, the single source of truth for both
+     * entity transitions and set-based updates:
+     * - PENDING can transition to APPROVED or REJECTED
+     * - APPROVED and REJECTED are final states
+     */
+    public static boolean isAllowedTransition(PaymentStatus from, PaymentStatus to) {
+        if (from == PaymentStatus.PENDING) {
+            return to == PaymentStatus.APPROVED || to == PaymentStatus.REJECTED;
         }
         return false;
     }
 
+    /**
+     * Checks if the given status is final, i.e. no transition leaves it.
+     * Payments in a final status never change again.
+     */
+    public static boolean isFinalStatus(PaymentStatus status) {
+        for (PaymentStatus target : PaymentStatus.values()) {
+            if (isAllowedTransition(status, target)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the statuses from which a payment may move to the given status.
+     * Used to guard set-based updates with {@code WHERE status IN (...)}.
+     */
+    public static Set<PaymentStatus> statusesAllowedToTransitionTo(PaymentStatus target) {
+        Set<PaymentStatus> sources = EnumSet.noneOf(PaymentStatus.class);
+        for (PaymentStatus source : PaymentStatus.values()) {
+            if (isAllowedTransition(source, target)) {
+                sources.add(source);
+            }
+        }
+        return sources;
+    }
+
     // Getters and Setters
 
     public Long getId() {
@@ -162,4 +221,8 @@ public class Payment {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    public long getVersion() {
+        return version;
+    }
 }
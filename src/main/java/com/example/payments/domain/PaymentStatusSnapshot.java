@@ -0,0 +1,29 @@
+package com.example.payments.domain;
+
+/**
+ * Identity and current status of a payment, read without loading the entity.
+ */
+public class PaymentStatusSnapshot {
+
+    private final Long id;
+    private final String reference;
+    private final PaymentStatus status;
+
+    public PaymentStatusSnapshot(Long id, String reference, PaymentStatus status) {
+        this.id = id;
+        this.reference = reference;
+        this.status = status;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public PaymentStatus getStatus() {
+        return status;
+    }
+}
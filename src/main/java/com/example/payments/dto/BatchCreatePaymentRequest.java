@@ -0,0 +1,36 @@
+package com.example.payments.dto;
+
+import java.util.List;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Request DTO for creating many payments at once.
+ * Items are validated one by one so an invalid item does not fail the batch.
+ */
+@Schema(description = "Request payload for creating payments in bulk")
+public class BatchCreatePaymentRequest {
+
+    @NotEmpty(message = "Items are required")
+    @Size(max = 10000, message = "A batch can contain at most 10000 items")
+    @Schema(description = "Payments to create (at most 10000)")
+    private List<CreatePaymentRequest> items;
+
+    public BatchCreatePaymentRequest() {
+    }
+
+    public BatchCreatePaymentRequest(List<CreatePaymentRequest> items) {
+        this.items = items;
+    }
+
+    public List<CreatePaymentRequest> getItems() {
+        return items;
+    }
+
+    public void setItems(List<CreatePaymentRequest> items) {
+        this.items = items;
+    }
+}
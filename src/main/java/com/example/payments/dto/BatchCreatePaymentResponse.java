@@ -0,0 +1,84 @@
+package com.example.payments.dto;
+
+import java.util.List;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+/**
+ * Response DTO for batch creation: per-item results plus totals by outcome.
+ */
+@Schema(description = "Batch creation result")
+public class BatchCreatePaymentResponse {
+
+    @Schema(description = "Number of payments created", examples = { "998" })
+    private int created;
+
+    @Schema(description = "Number of items rejected as duplicate references", examples = { "1" })
+    private int duplicates;
+
+    @Schema(description = "Number of items rejected by validation", examples = { "1" })
+    private int invalid;
+
+    @Schema(description = "Number of items not stored because of an unexpected error; they can be retried", examples = { "0" })
+    private int failed;
+
+    @Schema(description = "Per-item results, in request order")
+    private List<BatchItemResult> results;
+
+    public BatchCreatePaymentResponse() {
+    }
+
+    public BatchCreatePaymentResponse(List<BatchItemResult> results) {
+        this.results = results;
+        for (BatchItemResult result : results) {
+            switch (result.getOutcome()) {
+                case CREATED -> created++;
+                case DUPLICATE -> duplicates++;
+                case INVALID -> invalid++;
+                case FAILED -> failed++;
+            }
+        }
+    }
+
+    // Getters and Setters
+
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public int getDuplicates() {
+        return duplicates;
+    }
+
+    public void setDuplicates(int duplicates) {
+        this.duplicates = duplicates;
+    }
+
+    public int getInvalid() {
+        return invalid;
+    }
+
+    public void setInvalid(int invalid) {
+        this.invalid = invalid;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<BatchItemResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<BatchItemResult> results) {
+        this.results = results;
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.payments.dto;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of a single item of a batch creation request.
+ */
+@Schema(description = "Result for one item of a batch")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResult {
+
+    /**
+     * What happened to the item.
+     */
+    public enum Outcome {
+        CREATED,
+        DUPLICATE,
+        INVALID,
+        FAILED
+    }
+
+    @Schema(description = "Position of the item in the request (0-indexed)", examples = { "0" })
+    private int index;
+
+    @Schema(description = "Payment reference sent for the item", examples = { "PAY-2024-001" })
+    private String reference;
+
+    @Schema(description = "Item outcome", examples = { "CREATED" })
+    private Outcome outcome;
+
+    @Schema(description = "Created payment (CREATED only)")
+    private PaymentResponse payment;
+
+    @Schema(description = "Why the item was not created (DUPLICATE, INVALID and FAILED only)")
+    private String message;
+
+    public BatchItemResult() {
+    }
+
+    public static BatchItemResult created(int index, PaymentResponse payment) {
+        BatchItemResult result = new BatchItemResult();
+        result.setIndex(index);
+        result.setReference(payment.getReference());
+        result.setOutcome(Outcome.CREATED);
+        result.setPayment(payment);
+        return result;
+    }
+
+    public static BatchItemResult duplicate(int index, String reference) {
+        BatchItemResult result = new BatchItemResult();
+        result.setIndex(index);
+        result.setReference(reference);
+        result.setOutcome(Outcome.DUPLICATE);
+        result.setMessage(String.format("Payment with reference '%s' already exists", reference));
+        return result;
+    }
+
+    public static BatchItemResult invalid(int index, String reference, String message) {
+        BatchItemResult result = new BatchItemResult();
+        result.setIndex(index);
+        result.setReference(reference);
+        result.setOutcome(Outcome.INVALID);
+        result.setMessage(message);
+        return result;
+    }
+
+    /**
+     * The item was not stored because of an unexpected error; sending it
+     * again is safe.
+     */
+    public static BatchItemResult failed(int index, String reference) {
+        BatchItemResult result = new BatchItemResult();
+        result.setIndex(index);
+        result.setReference(reference);
+        result.setOutcome(Outcome.FAILED);
+        result.setMessage("Payment could not be stored, retry the item");
+        return result;
+    }
+
+    // Getters and Setters
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public void setReference(String reference) {
+        this.reference = reference;
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    public void setOutcome(Outcome outcome) {
+        this.outcome = outcome;
+    }
+
+    public PaymentResponse getPayment() {
+        return payment;
+    }
+
+    public void setPayment(PaymentResponse payment) {
+        this.payment = payment;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
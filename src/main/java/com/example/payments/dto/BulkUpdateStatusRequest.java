@@ -0,0 +1,67 @@
+package com.example.payments.dto;
+
+import java.util.List;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import com.example.payments.domain.PaymentStatus;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Request DTO for moving many payments to the same status.
+ * Payments can be selected by ID, by reference, or both.
+ */
+@Schema(description = "Request payload for updating the status of many payments")
+public class BulkUpdateStatusRequest {
+
+    @Size(max = 50000, message = "At most 50000 ids per request")
+    @Schema(description = "Payment IDs to update", examples = { "[1, 2, 3]" })
+    private List<Long> ids;
+
+    @Size(max = 50000, message = "At most 50000 references per request")
+    @Schema(description = "Payment references to update", examples = { "[\"PAY-2024-001\"]" })
+    private List<String> references;
+
+    @NotNull(message = "Status is required")
+    @Schema(description = "New payment status (APPROVED or REJECTED)", examples = { "APPROVED" })
+    private PaymentStatus status;
+
+    public BulkUpdateStatusRequest() {
+    }
+
+    @JsonIgnore
+    @AssertTrue(message = "At least one id or reference is required")
+    public boolean isAnyPaymentSelected() {
+        return (ids != null && !ids.isEmpty()) || (references != null && !references.isEmpty());
+    }
+
+    // Getters and Setters
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public List<String> getReferences() {
+        return references;
+    }
+
+    public void setReferences(List<String> references) {
+        this.references = references;
+    }
+
+    public PaymentStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(PaymentStatus status) {
+        this.status = status;
+    }
+}
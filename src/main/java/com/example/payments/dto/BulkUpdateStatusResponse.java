@@ -0,0 +1,62 @@
+package com.example.payments.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+/**
+ * Response DTO for bulk status updates.
+ */
+@Schema(description = "Bulk status update result")
+public class BulkUpdateStatusResponse {
+
+    @Schema(description = "IDs of the payments moved to the requested status")
+    private List<Long> transitioned = new ArrayList<>();
+
+    @Schema(description = "Payments whose current status does not allow the transition")
+    private List<StatusTransitionRejection> rejected = new ArrayList<>();
+
+    @Schema(description = "Requested IDs that do not exist")
+    private List<Long> notFoundIds = new ArrayList<>();
+
+    @Schema(description = "Requested references that do not exist")
+    private List<String> notFoundReferences = new ArrayList<>();
+
+    public BulkUpdateStatusResponse() {
+    }
+
+    // Getters and Setters
+
+    public List<Long> getTransitioned() {
+        return transitioned;
+    }
+
+    public void setTransitioned(List<Long> transitioned) {
+        this.transitioned = transitioned;
+    }
+
+    public List<StatusTransitionRejection> getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(List<StatusTransitionRejection> rejected) {
+        this.rejected = rejected;
+    }
+
+    public List<Long> getNotFoundIds() {
+        return notFoundIds;
+    }
+
+    public void setNotFoundIds(List<Long> notFoundIds) {
+        this.notFoundIds = notFoundIds;
+    }
+
+    public List<String> getNotFoundReferences() {
+        return notFoundReferences;
+    }
+
+    public void setNotFoundReferences(List<String> notFoundReferences) {
+        this.notFoundReferences = notFoundReferences;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.payments.dto;
+
+import java.util.Locale;
+
+/**
+ * How the total number of matching payments is computed for offset pages.
+ */
+public enum CountMode {
+    /** Exact COUNT over the filtered set (default). */
+    EXACT,
+    /** Planner row estimate; cheap but approximate. */
+    ESTIMATE,
+    /** No count at all; only whether a next page exists. */
+    NONE;
+
+    /**
+     * Case-insensitive conversion used for the {@code count} query parameter.
+     */
+    public static CountMode fromString(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
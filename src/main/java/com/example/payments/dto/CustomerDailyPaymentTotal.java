@@ -0,0 +1,42 @@
+package com.example.payments.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import com.example.payments.domain.Currency;
+import com.example.payments.domain.PaymentStatus;
+
+/**
+ * Count and amount of a customer's payments created on one day, in one
+ * currency and status.
+ */
+@Schema(description = "Customer payment totals for one day, currency and status")
+public class CustomerDailyPaymentTotal extends CustomerPaymentTotal {
+
+    @Schema(description = "Creation day of the payments", examples = { "2024-03-05" })
+    private LocalDate date;
+
+    public CustomerDailyPaymentTotal() {
+    }
+
+    /**
+     * Creates a total from column values. Used by projection queries.
+     */
+    public CustomerDailyPaymentTotal(LocalDate date, Currency currency, PaymentStatus status,
+            long paymentCount, BigDecimal totalAmount) {
+        super(currency, status, paymentCount, totalAmount);
+        this.date = date;
+    }
+
+    // Getters and Setters
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+}
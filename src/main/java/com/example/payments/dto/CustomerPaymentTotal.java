@@ -0,0 +1,74 @@
+package com.example.payments.dto;
+
+import java.math.BigDecimal;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import com.example.payments.domain.Currency;
+import com.example.payments.domain.PaymentStatus;
+
+/**
+ * Count and amount of a customer's payments in one currency and status.
+ */
+@Schema(description = "Customer payment totals for one currency and status")
+public class CustomerPaymentTotal {
+
+    @Schema(description = "Payment currency", examples = { "COP" })
+    private Currency currency;
+
+    @Schema(description = "Payment status", examples = { "APPROVED" })
+    private PaymentStatus status;
+
+    @Schema(description = "Number of payments", examples = { "12" })
+    private long paymentCount;
+
+    @Schema(description = "Sum of the payment amounts", examples = { "1800000.00" })
+    private BigDecimal totalAmount;
+
+    public CustomerPaymentTotal() {
+    }
+
+    /**
+     * Creates a total from column values. Used by projection queries.
+     */
+    public CustomerPaymentTotal(Currency currency, PaymentStatus status, long paymentCount, BigDecimal totalAmount) {
+        this.currency = currency;
+        this.status = status;
+        this.paymentCount = paymentCount;
+        this.totalAmount = totalAmount;
+    }
+
+    // Getters and Setters
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(Currency currency) {
+        this.currency = currency;
+    }
+
+    public PaymentStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(PaymentStatus status) {
+        this.status = status;
+    }
+
+    public long getPaymentCount() {
+        return paymentCount;
+    }
+
+    public void setPaymentCount(long paymentCount) {
+        this.paymentCount = paymentCount;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.payments.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Payment totals of a customer, all-time or for a range of creation days.
+ * Lines are either per currency and status, or per day, currency and status.
+ */
+@Schema(description = "Customer payment summary")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CustomerSummaryResponse<T extends CustomerPaymentTotal> {
+
+    @Schema(description = "Customer identifier", examples = { "CUST-12345" })
+    private String customerId;
+
+    @Schema(description = "First creation day included (absent for all-time totals)", examples = { "2024-03-01" })
+    private LocalDate from;
+
+    @Schema(description = "Last creation day included (absent for all-time totals)", examples = { "2024-03-31" })
+    private LocalDate to;
+
+    @Schema(description = "Totals, ordered by day (daily summary only), currency and status")
+    private List<T> totals;
+
+    public CustomerSummaryResponse() {
+    }
+
+    public CustomerSummaryResponse(String customerId, LocalDate from, LocalDate to, List<T> totals) {
+        this.customerId = customerId;
+        this.from = from;
+        this.to = to;
+        this.totals = totals;
+    }
+
+    // Getters and Setters
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(String customerId) {
+        this.customerId = customerId;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public List<T> getTotals() {
+        return totals;
+    }
+
+    public void setTotals(List<T> totals) {
+        this.totals = totals;
+    }
+}
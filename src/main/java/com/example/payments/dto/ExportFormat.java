@@ -0,0 +1,36 @@
+package com.example.payments.dto;
+
+import java.util.Locale;
+
+/**
+ * Output format of the payment export.
+ */
+public enum ExportFormat {
+    /** One JSON object per line (application/x-ndjson). */
+    NDJSON("application/x-ndjson", "ndjson"),
+    /** Comma-separated values with a header row (text/csv). */
+    CSV("text/csv", "csv");
+
+    private final String mediaType;
+    private final String fileExtension;
+
+    ExportFormat(String mediaType, String fileExtension) {
+        this.mediaType = mediaType;
+        this.fileExtension = fileExtension;
+    }
+
+    /**
+     * Case-insensitive conversion used for the {@code format} query parameter.
+     */
+    public static ExportFormat fromString(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+}
@@ -4,26 +4,41 @@ import java.util.List;
 
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 
+import com.example.payments.exception.InvalidPageException;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 /**
  * Generic wrapper for paginated responses.
+ * Offset pages carry page and whichever total was computed (exact, estimated
+ * or none); cursor pages carry nextCursor instead.
  */
 @Schema(description = "Paginated response wrapper")
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class PagedResponse<T> {
 
     @Schema(description = "List of items in the current page")
     private List<T> content;
 
-    @Schema(description = "Current page number (0-indexed)", examples = { "0" })
-    private int page;
+    @Schema(description = "Current page number (0-indexed, offset pagination only)", examples = { "0" })
+    private Integer page;
 
     @Schema(description = "Page size", examples = { "10" })
     private int size;
 
-    @Schema(description = "Total number of elements", examples = { "100" })
-    private long totalElements;
+    @Schema(description = "Total number of elements (offset pagination with count=exact only)", examples = { "100" })
+    private Long totalElements;
+
+    @Schema(description = "Total number of pages (offset pagination with count=exact only)", examples = { "10" })
+    private Integer totalPages;
+
+    @Schema(description = "Planner estimate of the total number of elements (count=estimate only)", examples = { "100" })
+    private Long estimatedTotalElements;
 
-    @Schema(description = "Total number of pages", examples = { "10" })
-    private int totalPages;
+    @Schema(description = "Whether a next page exists", examples = { "true" })
+    private Boolean hasNext;
+
+    @Schema(description = "Opaque token for the next page (cursor pagination only, absent on the last page)")
+    private String nextCursor;
 
     public PagedResponse() {
     }
@@ -34,6 +49,47 @@ public class PagedResponse<T> {
         this.size = size;
         this.totalElements = totalElements;
         this.totalPages = size > 0 ? (int) Math.ceil((double) totalElements / size) : 0;
+        this.hasNext = page + 1 < totalPages;
+    }
+
+    /**
+     * Creates an offset page without an exact total. Whether a next page
+     * exists is known from fetching one extra row.
+     */
+    public static <T> PagedResponse<T> ofSlice(List<T> content, int page, int size, boolean hasNext) {
+        PagedResponse<T> response = new PagedResponse<>();
+        response.setContent(content);
+        response.setPage(page);
+        response.setSize(size);
+        response.setHasNext(hasNext);
+        return response;
+    }
+
+    /**
+     * Creates a cursor (keyset) page. Totals are not computed in this mode.
+     */
+    public static <T> PagedResponse<T> ofCursor(List<T> content, int size, String nextCursor) {
+        PagedResponse<T> response = new PagedResponse<>();
+        response.setContent(content);
+        response.setSize(size);
+        response.setNextCursor(nextCursor);
+        response.setHasNext(nextCursor != null);
+        return response;
+    }
+
+    /**
+     * Row offset of an offset page. Computed in long arithmetic and rejected
+     * when the page, or the extra row fetched past it, would not fit the
+     * int offsets JPA and the database driver take.
+     *
+     * @throws InvalidPageException if the page is too deep
+     */
+    public static int offset(int page, int size) {
+        long offset = (long) page * size;
+        if (offset + size + 1 > Integer.MAX_VALUE) {
+            throw new InvalidPageException(page, size);
+        }
+        return (int) offset;
     }
 
     // Getters and Setters
@@ -46,11 +102,11 @@ public class PagedResponse<T> {
         this.content = content;
     }
 
-    public int getPage() {
+    public Integer getPage() {
         return page;
     }
 
-    public void setPage(int page) {
+    public void setPage(Integer page) {
         this.page = page;
     }
 
@@ -62,19 +118,43 @@ public class PagedResponse<T> {
         this.size = size;
     }
 
-    public long getTotalElements() {
+    public Long getTotalElements() {
         return totalElements;
     }
 
-    public void setTotalElements(long totalElements) {
+    public void setTotalElements(Long totalElements) {
         this.totalElements = totalElements;
     }
 
-    public int getTotalPages() {
+    public Integer getTotalPages() {
         return totalPages;
     }
 
-    public void setTotalPages(int totalPages) {
+    public void setTotalPages(Integer totalPages) {
         this.totalPages = totalPages;
     }
+
+    public Long getEstimatedTotalElements() {
+        return estimatedTotalElements;
+    }
+
+    public void setEstimatedTotalElements(Long estimatedTotalElements) {
+        this.estimatedTotalElements = estimatedTotalElements;
+    }
+
+    public Boolean getHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(Boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
 }
@@ -43,6 +43,22 @@ public class PaymentResponse {
     public PaymentResponse() {
     }
 
+    /**
+     * Creates a response from column values. Used by projection queries,
+     * which match the parameter names to entity attributes.
+     */
+    public PaymentResponse(Long id, String reference, String customerId, BigDecimal amount,
+            Currency currency, PaymentMethod method, PaymentStatus status, LocalDateTime createdAt) {
+        this.id = id;
+        this.reference = reference;
+        this.customerId = customerId;
+        this.amount = amount;
+        this.currency = currency;
+        this.method = method;
+        this.status = status;
+        this.createdAt = createdAt;
+    }
+
     /**
      * Creates a response DTO from a Payment entity.
      */
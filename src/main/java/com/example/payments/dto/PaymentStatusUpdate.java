@@ -0,0 +1,57 @@
+package com.example.payments.dto;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import com.example.payments.domain.Payment;
+import com.example.payments.domain.PaymentStatus;
+
+/**
+ * Status of a payment as pushed to status stream subscribers.
+ */
+@Schema(description = "Payment status notification")
+public class PaymentStatusUpdate {
+
+    @Schema(description = "Payment ID", examples = { "1" })
+    private Long id;
+
+    @Schema(description = "Payment status", examples = { "APPROVED" })
+    private PaymentStatus status;
+
+    @Schema(description = "Whether the status is final (no further updates will follow)", examples = { "true" })
+    private boolean finalStatus;
+
+    public PaymentStatusUpdate() {
+    }
+
+    public PaymentStatusUpdate(Long id, PaymentStatus status) {
+        this.id = id;
+        this.status = status;
+        this.finalStatus = Payment.isFinalStatus(status);
+    }
+
+    // Getters and Setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public PaymentStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(PaymentStatus status) {
+        this.status = status;
+    }
+
+    public boolean isFinalStatus() {
+        return finalStatus;
+    }
+
+    public void setFinalStatus(boolean finalStatus) {
+        this.finalStatus = finalStatus;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.payments.dto;
+
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+import com.example.payments.domain.PaymentStatus;
+
+/**
+ * A payment left unchanged by a bulk status update because the transition is
+ * not allowed from its current status.
+ */
+@Schema(description = "Payment rejected by a bulk status update")
+public class StatusTransitionRejection {
+
+    @Schema(description = "Payment ID", examples = { "1" })
+    private Long id;
+
+    @Schema(description = "Payment reference", examples = { "PAY-2024-001" })
+    private String reference;
+
+    @Schema(description = "Current payment status", examples = { "APPROVED" })
+    private PaymentStatus status;
+
+    @Schema(description = "Why the transition was rejected", examples = { "Cannot transition from APPROVED to REJECTED" })
+    private String message;
+
+    public StatusTransitionRejection() {
+    }
+
+    public StatusTransitionRejection(Long id, String reference, PaymentStatus status, String message) {
+        this.id = id;
+        this.reference = reference;
+        this.status = status;
+        this.message = message;
+    }
+
+    // Getters and Setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public void setReference(String reference) {
+        this.reference = reference;
+    }
+
+    public PaymentStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(PaymentStatus status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
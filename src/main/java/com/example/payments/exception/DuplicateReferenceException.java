@@ -10,4 +10,12 @@ public class DuplicateReferenceException extends RuntimeException {
     public DuplicateReferenceException(String reference) {
         super(String.format("Payment with reference '%s' already exists", reference));
     }
+
+    /**
+     * A batched insert hit the reference constraint without telling which
+     * of its references was taken.
+     */
+    public DuplicateReferenceException(int batchSize) {
+        super(String.format("One of the references of a batch of %d payments already exists", batchSize));
+    }
 }
@@ -1,8 +1,11 @@
 package com.example.payments.exception;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.inject.Inject;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.UriInfo;
 import jakarta.ws.rs.ext.ExceptionMapper;
@@ -20,8 +23,20 @@ public class GlobalExceptionHandler implements ExceptionMapper<Exception> {
     @Context
     UriInfo uriInfo;
 
+    @Inject
+    MeterRegistry meterRegistry;
+
     @Override
     public Response toResponse(Exception exception) {
+        Response response = mapException(exception);
+        meterRegistry.counter("payments.errors",
+                "exception", exception.getClass().getSimpleName(),
+                "status", String.valueOf(response.getStatus()))
+                .increment();
+        return response;
+    }
+
+    private Response mapException(Exception exception) {
         if (exception instanceof PaymentNotFoundException) {
             return buildResponse(Response.Status.NOT_FOUND, "PAYMENT_NOT_FOUND", exception.getMessage());
         }
@@ -34,6 +49,18 @@ public class GlobalExceptionHandler implements ExceptionMapper<Exception> {
             return buildResponse(Response.Status.CONFLICT, "INVALID_STATUS_TRANSITION", exception.getMessage());
         }
 
+        if (exception instanceof InvalidCursorException) {
+            return buildResponse(Response.Status.BAD_REQUEST, "INVALID_CURSOR", exception.getMessage());
+        }
+
+        if (exception instanceof InvalidPageException) {
+            return buildResponse(Response.Status.BAD_REQUEST, "INVALID_PAGE", exception.getMessage());
+        }
+
+        if (exception instanceof InvalidDateRangeException) {
+            return buildResponse(Response.Status.BAD_REQUEST, "INVALID_DATE_RANGE", exception.getMessage());
+        }
+
         if (exception instanceof ConstraintViolationException) {
             ConstraintViolationException cve = (ConstraintViolationException) exception;
             String message = cve.getConstraintViolations().stream()
@@ -51,6 +78,7 @@ public class GlobalExceptionHandler implements ExceptionMapper<Exception> {
 
     private Response buildResponse(Response.Status status, String code, String message) {
         ErrorResponse errorResponse = new ErrorResponse(code, message);
-        return Response.status(status).entity(errorResponse).build();
+        // Explicit type so errors stay JSON on endpoints that produce other media types (e.g. SSE)
+        return Response.status(status).type(MediaType.APPLICATION_JSON).entity(errorResponse).build();
     }
 }
@@ -0,0 +1,12 @@
+package com.example.payments.exception;
+
+/**
+ * Exception thrown when a pagination cursor cannot be decoded.
+ * Results in HTTP 400 Bad Request.
+ */
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String cursor) {
+        super(String.format("Invalid pagination cursor: '%s'", cursor));
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.payments.exception;
+
+/**
+ * Exception thrown when a date range is incomplete, reversed or too long.
+ * Results in HTTP 400 Bad Request.
+ */
+public class InvalidDateRangeException extends RuntimeException {
+
+    public InvalidDateRangeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.payments.exception;
+
+/**
+ * Exception thrown when an offset page lies beyond the deepest reachable row offset.
+ * Results in HTTP 400 Bad Request.
+ */
+public class InvalidPageException extends RuntimeException {
+
+    public InvalidPageException(int page, int size) {
+        super(String.format("Page %d of size %d is too deep for offset pagination, use the cursor parameter", page, size));
+    }
+
+    public InvalidPageException(String message) {
+        super(message);
+    }
+}
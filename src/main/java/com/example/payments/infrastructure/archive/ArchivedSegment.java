@@ -0,0 +1,50 @@
+package com.example.payments.infrastructure.archive;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Row of the payment_archive_segments table: a segment whose payments have
+ * been deleted from the payments table. Inserted by the transaction that
+ * deletes them, so a segment file without a row still has its payments in
+ * the hot table.
+ */
+@Entity
+@Table(name = "payment_archive_segments")
+public class ArchivedSegment {
+
+    @Id
+    @Column(name = "file_name")
+    private String fileName;
+
+    @Column(name = "row_count", nullable = false)
+    private int rowCount;
+
+    @Column(name = "settled_at", nullable = false)
+    private LocalDateTime settledAt;
+
+    public ArchivedSegment() {
+    }
+
+    public ArchivedSegment(String fileName, int rowCount) {
+        this.fileName = fileName;
+        this.rowCount = rowCount;
+        this.settledAt = LocalDateTime.now();
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public LocalDateTime getSettledAt() {
+        return settledAt;
+    }
+}
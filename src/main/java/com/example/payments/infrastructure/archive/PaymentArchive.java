@@ -0,0 +1,308 @@
+package com.example.payments.infrastructure.archive;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import com.example.payments.domain.PaymentStatus;
+import com.example.payments.dto.PaymentResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Cold tier of payments: final-status payments moved out of PostgreSQL by
+ * {@link PaymentArchiver} into {@link PaymentSegment} files in
+ * payments.archive.directory. Segment headers are kept in memory to skip
+ * segments by ID and date range; a bounded number of decoded segments is
+ * cached. Several replicas can share the directory; each picks up new
+ * segments on {@link #refresh(Set)}, which {@link PaymentArchiver} runs on
+ * every replica.
+ * <p>
+ * A segment is published while its payments are still in the payments
+ * table and settled once the transaction deleting them commits. Lookups and
+ * listings read unsettled segments too (the hot copy wins), so a payment is
+ * always found in at least one tier; counts and full scans skip them, so no
+ * payment is counted twice. A replica learns that another one settled a
+ * segment on its next refresh; until then its counts miss those payments.
+ */
+@ApplicationScoped
+public class PaymentArchive {
+
+    private static final Logger LOG = Logger.getLogger(PaymentArchive.class);
+
+    // Ordering of every listing, as in the hot table
+    private static final Comparator<Hit> CREATED_AT_ID = Comparator.comparingLong(Hit::createdAt)
+            .thenComparingLong(Hit::id);
+
+    private final Path directory;
+    private final Cache<Path, PaymentSegment> segments;
+
+    private volatile List<PaymentSegment.Info> infos = List.of();
+    // Published segments whose payments may still be in the payments table
+    private volatile Set<Path> unsettled = Set.of();
+
+    @Inject
+    public PaymentArchive(
+            @ConfigProperty(name = "payments.archive.directory", defaultValue = "data/archive") String directory,
+            @ConfigProperty(name = "payments.archive.cached-segments", defaultValue = "16") long cachedSegments) {
+        this.directory = Paths.get(directory);
+        this.segments = Caffeine.newBuilder()
+                .maximumSize(cachedSegments)
+                .build();
+    }
+
+    /**
+     * Rescans the archive directory for segments written by other replicas.
+     * Headers already read are reused, so only new segments cost a read.
+     *
+     * @param settledFileNames file names of the segments whose payments are
+     *                         no longer in the payments table
+     */
+    public synchronized void refresh(Set<String> settledFileNames) {
+        if (!Files.isDirectory(directory)) {
+            infos = List.of();
+            unsettled = Set.of();
+            return;
+        }
+        Map<Path, PaymentSegment.Info> known = new HashMap<>();
+        infos.forEach(info -> known.put(info.path(), info));
+
+        List<PaymentSegment.Info> found = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(path -> path.toString().endsWith(PaymentSegment.FILE_SUFFIX)).toList()) {
+                PaymentSegment.Info info = known.remove(file);
+                if (info != null) {
+                    found.add(info);
+                    continue;
+                }
+                try {
+                    found.add(PaymentSegment.readInfo(file));
+                } catch (IOException e) {
+                    LOG.warnf(e, "Skipping unreadable payment segment %s", file);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // Whatever is left was deleted from the directory
+        segments.invalidateAll(known.keySet());
+        found.sort(Comparator.comparingLong(PaymentSegment.Info::minId));
+        infos = List.copyOf(found);
+        unsettled = found.stream()
+                .map(PaymentSegment.Info::path)
+                .filter(path -> !settledFileNames.contains(path.getFileName().toString()))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Writes the payments to a new segment and makes it visible to readers.
+     * The segment stays unsettled until {@link #settled} is called.
+     *
+     * @return the header of the new segment
+     */
+    public synchronized PaymentSegment.Info append(List<PaymentResponse> payments) throws IOException {
+        Files.createDirectories(directory);
+        long minId = payments.stream().mapToLong(PaymentResponse::getId).min().orElseThrow();
+        long maxId = payments.stream().mapToLong(PaymentResponse::getId).max().orElseThrow();
+        Path file = directory.resolve(String.format("payments-%d-%d-%d%s",
+                minId, maxId, System.currentTimeMillis(), PaymentSegment.FILE_SUFFIX));
+        PaymentSegment.Info info = PaymentSegment.write(file, payments);
+
+        List<PaymentSegment.Info> updated = new ArrayList<>(infos);
+        updated.add(info);
+        updated.sort(Comparator.comparingLong(PaymentSegment.Info::minId));
+        Set<Path> updatedUnsettled = new HashSet<>(unsettled);
+        updatedUnsettled.add(info.path());
+        infos = List.copyOf(updated);
+        unsettled = Set.copyOf(updatedUnsettled);
+        return info;
+    }
+
+    /**
+     * Records that the payments of a segment have left the payments table.
+     */
+    public synchronized void settled(PaymentSegment.Info info) {
+        Set<Path> updatedUnsettled = new HashSet<>(unsettled);
+        updatedUnsettled.remove(info.path());
+        unsettled = Set.copyOf(updatedUnsettled);
+    }
+
+    /**
+     * Returns the published segments whose payments may still be in the
+     * payments table, oldest first.
+     */
+    public List<PaymentSegment.Info> unsettled() {
+        Set<Path> current = unsettled;
+        return infos.stream().filter(info -> current.contains(info.path())).toList();
+    }
+
+    /**
+     * Returns the IDs of the payments stored in a segment.
+     */
+    public List<Long> ids(PaymentSegment.Info info) {
+        PaymentSegment segment = segment(info);
+        List<Long> ids = new ArrayList<>(info.rowCount());
+        for (int row = 0; row < info.rowCount(); row++) {
+            ids.add(segment.id(row));
+        }
+        return ids;
+    }
+
+    public boolean isEmpty() {
+        return infos.isEmpty();
+    }
+
+    /**
+     * Whether any segment may hold payments created in the given range.
+     */
+    public boolean mayContain(LocalDateTime from, LocalDateTime to) {
+        PaymentSegment.Filter filter = PaymentSegment.Filter.of(null, null, from, to, null, null);
+        return infos.stream().anyMatch(info -> info.overlaps(filter.fromMicros(), filter.toMicros()));
+    }
+
+    public Optional<PaymentResponse> findById(long id) {
+        for (PaymentSegment.Info info : infos) {
+            if (info.mayContainId(id)) {
+                Optional<PaymentResponse> found = segment(info).findById(id);
+                if (found.isPresent()) {
+                    return found;
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns the first archived payments matching the filters, ordered by
+     * (createdAt, id) and starting strictly after the given position if any.
+     */
+    public List<PaymentResponse> find(
+            PaymentStatus status,
+            String customerId,
+            LocalDateTime from,
+            LocalDateTime to,
+            LocalDateTime afterCreatedAt,
+            Long afterId,
+            int limit) {
+
+        if (limit <= 0 || infos.isEmpty()) {
+            return List.of();
+        }
+        PaymentSegment.Filter filter = PaymentSegment.Filter.of(status, customerId, from, to, afterCreatedAt, afterId);
+        Long lowerBound = filter.afterCreatedAt() != null ? filter.afterCreatedAt() : filter.fromMicros();
+
+        // Keeps the smallest `limit` rows
+        TreeSet<Hit> hits = new TreeSet<>(CREATED_AT_ID);
+        for (PaymentSegment.Info info : infos) {
+            if (!info.overlaps(lowerBound, filter.toMicros())) {
+                continue;
+            }
+            PaymentSegment segment = segment(info);
+            segment.forEachMatch(filter, row -> {
+                Hit hit = new Hit(segment.createdAt(row), segment.id(row), segment, row);
+                if (hits.size() < limit) {
+                    hits.add(hit);
+                } else if (CREATED_AT_ID.compare(hit, hits.last()) < 0 && hits.add(hit)) {
+                    hits.pollLast();
+                }
+            });
+        }
+        return hits.stream().map(hit -> hit.segment().row(hit.row())).toList();
+    }
+
+    /**
+     * Calls the action once for every payment of the settled segments,
+     * segment by segment. Payments of unsettled segments are still in the
+     * payments table and are left to its readers.
+     */
+    public void forEach(Consumer<PaymentResponse> action) {
+        PaymentSegment.Filter all = PaymentSegment.Filter.of(null, null, null, null, null, null);
+        Set<Path> skipped = unsettled;
+        for (PaymentSegment.Info info : infos) {
+            if (skipped.contains(info.path())) {
+                continue;
+            }
+            PaymentSegment segment = segment(info);
+            segment.forEachMatch(all, row -> action.accept(segment.row(row)));
+        }
+    }
+
+    /**
+     * Calls the action once for every payment created at or after the given
+     * time in the segments named in settledFileNames, rather than in the
+     * segments this replica last saw settled. Lets a caller scan the archive
+     * as of a database snapshot it read the settled names from; refresh with
+     * the same names first so every such segment is known.
+     */
+    public void forEach(Set<String> settledFileNames, LocalDateTime from, Consumer<PaymentResponse> action) {
+        PaymentSegment.Filter filter = PaymentSegment.Filter.of(null, null, from, null, null, null);
+        for (PaymentSegment.Info info : infos) {
+            if (!settledFileNames.contains(info.path().getFileName().toString())
+                    || !info.overlaps(filter.fromMicros(), filter.toMicros())) {
+                continue;
+            }
+            PaymentSegment segment = segment(info);
+            segment.forEachMatch(filter, row -> action.accept(segment.row(row)));
+        }
+    }
+
+    /**
+     * Counts the payments of the settled segments matching the filters.
+     */
+    public long count(PaymentStatus status, String customerId, LocalDateTime from, LocalDateTime to) {
+        PaymentSegment.Filter filter = PaymentSegment.Filter.of(status, customerId, from, to, null, null);
+        boolean unfiltered = filter.status() == null && filter.customerId() == null;
+
+        AtomicLong count = new AtomicLong();
+        Set<Path> skipped = unsettled;
+        for (PaymentSegment.Info info : infos) {
+            if (skipped.contains(info.path()) || !info.overlaps(filter.fromMicros(), filter.toMicros())) {
+                continue;
+            }
+            boolean fullyInRange = (filter.fromMicros() == null || info.minCreatedAt() >= filter.fromMicros())
+                    && (filter.toMicros() == null || info.maxCreatedAt() <= filter.toMicros());
+            if (unfiltered && fullyInRange) {
+                // Answered from the header alone
+                count.addAndGet(info.rowCount());
+            } else {
+                segment(info).forEachMatch(filter, row -> count.incrementAndGet());
+            }
+        }
+        return count.get();
+    }
+
+    private PaymentSegment segment(PaymentSegment.Info info) {
+        return segments.get(info.path(), path -> {
+            try {
+                return PaymentSegment.read(path);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read payment segment " + path, e);
+            }
+        });
+    }
+
+    private record Hit(long createdAt, long id, PaymentSegment segment, int row) {
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.payments.infrastructure.archive;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import com.example.payments.dto.PaymentResponse;
+import com.example.payments.infrastructure.repository.PaymentRepository;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Moves payments in a final status older than payments.archive.min-age from
+ * the payments table into the {@link PaymentArchive}, one segment per batch.
+ * APPROVED and REJECTED payments never change again, so they can leave the
+ * hot table and its indexes for good; their references stay claimed in
+ * payment_references. Disabled unless payments.archive.enabled is true.
+ * <p>
+ * A run publishes new segments and leaves their rows in the payments table;
+ * a later run deletes them once the segment is older than
+ * payments.archive.settle-delay. Every replica refreshes its view of the
+ * archive each payments.archive.refresh-interval, so with a settle delay
+ * above that interval no replica misses a payment in between. The delete
+ * records the segment in payment_archive_segments in the same transaction,
+ * so a segment left behind by a crash is simply settled by the next run.
+ */
+@ApplicationScoped
+public class PaymentArchiver {
+
+    private static final Logger LOG = Logger.getLogger(PaymentArchiver.class);
+
+    // Arbitrary key of the advisory lock that keeps replicas from archiving the same rows.
+    // Held by every publishing and settling transaction.
+    private static final long ARCHIVER_LOCK = 0x5041594152434849L;
+
+    // Keeps each DELETE ... WHERE id IN (...) well below the driver's bind parameter limit
+    private static final int DELETE_CHUNK_SIZE = 1000;
+
+    private final boolean enabled;
+    private final Duration minAge;
+    private final int batchSize;
+    private final Duration settleDelay;
+    private final PaymentRepository paymentRepository;
+    private final PaymentArchive archive;
+    private final EntityManager entityManager;
+
+    @Inject
+    public PaymentArchiver(
+            @ConfigProperty(name = "payments.archive.enabled", defaultValue = "false") boolean enabled,
+            @ConfigProperty(name = "payments.archive.min-age", defaultValue = "P90D") Duration minAge,
+            @ConfigProperty(name = "payments.archive.batch-size", defaultValue = "50000") int batchSize,
+            @ConfigProperty(name = "payments.archive.settle-delay", defaultValue = "PT2M") Duration settleDelay,
+            PaymentRepository paymentRepository,
+            PaymentArchive archive,
+            EntityManager entityManager) {
+        this.enabled = enabled;
+        this.minAge = minAge;
+        this.batchSize = batchSize;
+        this.settleDelay = settleDelay;
+        this.paymentRepository = paymentRepository;
+        this.archive = archive;
+        this.entityManager = entityManager;
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        refresh();
+    }
+
+    @Scheduled(identity = "payment-archive-refresh",
+            every = "${payments.archive.refresh-interval:30s}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void scheduledRefresh() {
+        refresh();
+    }
+
+    /**
+     * Picks up the segments published and settled by any replica. Runs on
+     * every replica, whether or not it archives.
+     */
+    public void refresh() {
+        QuarkusTransaction.joiningExisting().run(() -> archive.refresh(Set.copyOf(entityManager
+                .createQuery("select s.fileName from ArchivedSegment s", String.class)
+                .getResultList())));
+    }
+
+    @Scheduled(identity = "payment-archiver",
+            every = "${payments.archive.interval:1h}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void run() {
+        if (!enabled) {
+            return;
+        }
+        refresh();
+        long settled = settleDue();
+        if (settled > 0) {
+            LOG.infof("Deleted %d archived payments from the payments table", settled);
+        }
+
+        LocalDateTime cutoff = LocalDateTime.now().minus(minAge);
+        Set<Path> published = new HashSet<>();
+        PaymentResponse last = null;
+        long archived = 0;
+        List<PaymentResponse> batch;
+        do {
+            batch = publishBatch(cutoff, last, published);
+            archived += batch.size();
+            last = batch.isEmpty() ? null : batch.get(batch.size() - 1);
+        } while (batch.size() == batchSize);
+        if (archived > 0) {
+            LOG.infof("Archived %d payments created before %s", archived, cutoff);
+        }
+    }
+
+    /**
+     * Deletes from the payments table the payments of every unsettled
+     * segment published at least payments.archive.settle-delay ago.
+     *
+     * @return number of payments deleted
+     */
+    public long settleDue() {
+        Instant due = Instant.now().minus(settleDelay);
+        long settled = 0;
+        for (PaymentSegment.Info info : archive.unsettled()) {
+            if (publishedAt(info).isAfter(due)) {
+                continue;
+            }
+            Integer deleted = QuarkusTransaction.requiringNew().call(() -> settle(info));
+            if (deleted == null) {
+                // Another replica holds the lock; it settles the rest
+                break;
+            }
+            archive.settled(info);
+            settled += deleted;
+        }
+        return settled;
+    }
+
+    // Returns the number of rows deleted, or null when another replica is archiving
+    private Integer settle(PaymentSegment.Info info) {
+        if (!tryLock()) {
+            return null;
+        }
+        String fileName = info.path().getFileName().toString();
+        if (entityManager.find(ArchivedSegment.class, fileName) != null) {
+            // Settled by another replica since our last refresh
+            return 0;
+        }
+        List<Long> ids = archive.ids(info);
+        int deleted = 0;
+        for (int start = 0; start < ids.size(); start += DELETE_CHUNK_SIZE) {
+            deleted += paymentRepository.deleteByIds(ids.subList(start, Math.min(start + DELETE_CHUNK_SIZE, ids.size())));
+        }
+        entityManager.persist(new ArchivedSegment(fileName, ids.size()));
+        return deleted;
+    }
+
+    /**
+     * Publishes a segment with up to payments.archive.batch-size final-status
+     * payments created before the cutoff and after the last one published by
+     * this run. Their rows stay in the payments table until the segment is
+     * settled, so no reader misses them in the meantime.
+     *
+     * @param after     last payment published by this run, null for the first batch
+     * @param published segments published by this run so far; the batch is
+     *                  skipped while any other segment is unsettled, so no
+     *                  payment is published twice
+     * @return the payments published, empty when there is nothing left or
+     *         another replica is archiving
+     */
+    private List<PaymentResponse> publishBatch(LocalDateTime cutoff, PaymentResponse after, Set<Path> published) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            if (!tryLock()) {
+                return List.of();
+            }
+            refresh();
+            if (archive.unsettled().stream().anyMatch(info -> !published.contains(info.path()))) {
+                return List.of();
+            }
+            List<PaymentResponse> payments = paymentRepository.findArchivable(cutoff,
+                    after == null ? null : after.getCreatedAt(),
+                    after == null ? null : after.getId(),
+                    batchSize);
+            if (payments.isEmpty()) {
+                return List.of();
+            }
+            try {
+                published.add(archive.append(payments).path());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return payments;
+        });
+    }
+
+    private boolean tryLock() {
+        return (Boolean) entityManager
+                .createNativeQuery("SELECT pg_try_advisory_xact_lock(:key)")
+                .setParameter("key", ARCHIVER_LOCK)
+                .getSingleResult();
+    }
+
+    private static Instant publishedAt(PaymentSegment.Info info) {
+        try {
+            return Files.getLastModifiedTime(info.path()).toInstant();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,387 @@
+package com.example.payments.infrastructure.archive;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.IntConsumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.example.payments.domain.Currency;
+import com.example.payments.domain.PaymentMethod;
+import com.example.payments.domain.PaymentStatus;
+import com.example.payments.dto.PaymentResponse;
+
+/**
+ * Immutable file of archived payments, stored column by column.
+ * <p>
+ * Layout: an uncompressed header with the row count and the ID and creation
+ * date ranges, so a segment can be skipped without decompressing it, then a
+ * GZIP stream holding each column in turn. Rows are sorted by ID; IDs and
+ * creation dates are delta-encoded varints, and low-cardinality columns
+ * (customer, currency, method, status) are dictionary-encoded. Filters run
+ * on the encoded columns and only matching rows are turned into responses.
+ */
+public final class PaymentSegment {
+
+    static final String FILE_SUFFIX = ".seg";
+
+    private static final int MAGIC = 0x50415953; // "PAYS"
+    private static final short FORMAT_VERSION = 1;
+
+    // Scale of payments.amount (DECIMAL(19, 4)); larger unscaled values are escaped as text
+    private static final int AMOUNT_SCALE = 4;
+    private static final long AMOUNT_ESCAPE = Long.MIN_VALUE;
+
+    /**
+     * Header of a segment file.
+     */
+    public record Info(Path path, int rowCount, long minId, long maxId, long minCreatedAt, long maxCreatedAt) {
+
+        boolean mayContainId(long id) {
+            return id >= minId && id <= maxId;
+        }
+
+        boolean overlaps(Long fromMicros, Long toMicros) {
+            return (fromMicros == null || maxCreatedAt >= fromMicros)
+                    && (toMicros == null || minCreatedAt <= toMicros);
+        }
+    }
+
+    /**
+     * Row filter over the encoded columns. Dates are in epoch microseconds;
+     * null components match everything.
+     */
+    record Filter(PaymentStatus status, String customerId, Long fromMicros, Long toMicros,
+            Long afterCreatedAt, Long afterId) {
+
+        static Filter of(PaymentStatus status, String customerId, LocalDateTime from, LocalDateTime to,
+                LocalDateTime afterCreatedAt, Long afterId) {
+            boolean hasCursor = afterCreatedAt != null && afterId != null;
+            return new Filter(status,
+                    customerId == null || customerId.isBlank() ? null : customerId,
+                    from == null ? null : epochMicros(from),
+                    to == null ? null : epochMicros(to),
+                    hasCursor ? epochMicros(afterCreatedAt) : null,
+                    hasCursor ? afterId : null);
+        }
+    }
+
+    private final Info info;
+    private final long[] ids;
+    private final long[] createdAt;
+    private final String[] references;
+    private final BigDecimal[] amounts;
+    private final String[] customerDictionary;
+    private final int[] customers;
+    private final Currency[] currencyDictionary;
+    private final int[] currencies;
+    private final PaymentMethod[] methodDictionary;
+    private final int[] methods;
+    private final PaymentStatus[] statusDictionary;
+    private final int[] statuses;
+
+    private PaymentSegment(Info info, DataInputStream in) throws IOException {
+        int rows = info.rowCount();
+        this.info = info;
+        this.ids = new long[rows];
+        this.createdAt = new long[rows];
+        this.references = new String[rows];
+        this.amounts = new BigDecimal[rows];
+
+        long id = 0;
+        for (int i = 0; i < rows; i++) {
+            id += readVarLong(in);
+            ids[i] = id;
+        }
+        long micros = 0;
+        for (int i = 0; i < rows; i++) {
+            micros += zigZagDecode(readVarLong(in));
+            createdAt[i] = micros;
+        }
+        for (int i = 0; i < rows; i++) {
+            long unscaled = zigZagDecode(readVarLong(in));
+            amounts[i] = unscaled == AMOUNT_ESCAPE
+                    ? new BigDecimal(in.readUTF())
+                    : BigDecimal.valueOf(unscaled, AMOUNT_SCALE);
+        }
+
+        this.customerDictionary = readDictionary(in);
+        this.customers = readIndexes(in, rows);
+        this.currencyDictionary = Arrays.stream(readDictionary(in)).map(Currency::valueOf).toArray(Currency[]::new);
+        this.currencies = readIndexes(in, rows);
+        this.methodDictionary = Arrays.stream(readDictionary(in)).map(PaymentMethod::valueOf).toArray(PaymentMethod[]::new);
+        this.methods = readIndexes(in, rows);
+        this.statusDictionary = Arrays.stream(readDictionary(in)).map(PaymentStatus::valueOf).toArray(PaymentStatus[]::new);
+        this.statuses = readIndexes(in, rows);
+
+        for (int i = 0; i < rows; i++) {
+            references[i] = in.readUTF();
+        }
+    }
+
+    /**
+     * Writes the payments to a new segment file. The file is written under a
+     * temporary name, synced and then renamed, so readers never see a partial
+     * segment.
+     *
+     * @param path     the segment file to create
+     * @param payments the payments to archive (at least one)
+     * @return the header of the new segment
+     */
+    public static Info write(Path path, List<PaymentResponse> payments) throws IOException {
+        if (payments.isEmpty()) {
+            throw new IllegalArgumentException("A segment needs at least one payment");
+        }
+        List<PaymentResponse> rows = payments.stream()
+                .sorted(Comparator.comparing(PaymentResponse::getId))
+                .toList();
+
+        long minCreatedAt = Long.MAX_VALUE;
+        long maxCreatedAt = Long.MIN_VALUE;
+        for (PaymentResponse row : rows) {
+            long micros = epochMicros(row.getCreatedAt());
+            minCreatedAt = Math.min(minCreatedAt, micros);
+            maxCreatedAt = Math.max(maxCreatedAt, micros);
+        }
+        Info info = new Info(path, rows.size(), rows.get(0).getId(), rows.get(rows.size() - 1).getId(),
+                minCreatedAt, maxCreatedAt);
+
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(temporary.toFile())) {
+            DataOutputStream header = new DataOutputStream(new BufferedOutputStream(file));
+            header.writeInt(MAGIC);
+            header.writeShort(FORMAT_VERSION);
+            header.writeInt(info.rowCount());
+            header.writeLong(info.minId());
+            header.writeLong(info.maxId());
+            header.writeLong(info.minCreatedAt());
+            header.writeLong(info.maxCreatedAt());
+            header.flush();
+
+            GZIPOutputStream gzip = new GZIPOutputStream(file, 64 * 1024);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(gzip, 64 * 1024));
+            writeColumns(out, rows);
+            out.flush();
+            gzip.finish();
+            file.getFD().sync();
+        }
+        Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE);
+        return info;
+    }
+
+    /**
+     * Reads only the header of a segment file.
+     */
+    public static Info readInfo(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 64))) {
+            return readHeader(path, in);
+        }
+    }
+
+    /**
+     * Reads and decodes a whole segment file.
+     */
+    public static PaymentSegment read(Path path) throws IOException {
+        try (InputStream file = Files.newInputStream(path)) {
+            Info info = readHeader(path, new DataInputStream(file));
+            DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(file, 64 * 1024), 64 * 1024));
+            return new PaymentSegment(info, in);
+        }
+    }
+
+    public Info info() {
+        return info;
+    }
+
+    /**
+     * Finds an archived payment by ID with a binary search on the ID column.
+     */
+    public Optional<PaymentResponse> findById(long id) {
+        int row = Arrays.binarySearch(ids, id);
+        return row >= 0 ? Optional.of(row(row)) : Optional.empty();
+    }
+
+    /**
+     * Calls the consumer with the index of every row matching the filter.
+     */
+    void forEachMatch(Filter filter, IntConsumer action) {
+        int customer = dictionaryIndex(customerDictionary, filter.customerId());
+        int status = dictionaryIndex(statusDictionary, filter.status());
+        if (customer == -1 || status == -1) {
+            return;
+        }
+        for (int i = 0; i < ids.length; i++) {
+            long micros = createdAt[i];
+            if ((customer >= 0 && customers[i] != customer)
+                    || (status >= 0 && statuses[i] != status)
+                    || (filter.fromMicros() != null && micros < filter.fromMicros())
+                    || (filter.toMicros() != null && micros > filter.toMicros())
+                    || (filter.afterCreatedAt() != null && (micros < filter.afterCreatedAt()
+                            || (micros == filter.afterCreatedAt() && ids[i] <= filter.afterId())))) {
+                continue;
+            }
+            action.accept(i);
+        }
+    }
+
+    long id(int row) {
+        return ids[row];
+    }
+
+    long createdAt(int row) {
+        return createdAt[row];
+    }
+
+    PaymentResponse row(int row) {
+        return new PaymentResponse(
+                ids[row],
+                references[row],
+                customerDictionary[customers[row]],
+                amounts[row],
+                currencyDictionary[currencies[row]],
+                methodDictionary[methods[row]],
+                statusDictionary[statuses[row]],
+                fromEpochMicros(createdAt[row]));
+    }
+
+    static long epochMicros(LocalDateTime dateTime) {
+        return ChronoUnit.MICROS.between(LocalDateTime.of(1970, 1, 1, 0, 0), dateTime);
+    }
+
+    static LocalDateTime fromEpochMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1000, ZoneOffset.UTC);
+    }
+
+    private static void writeColumns(DataOutputStream out, List<PaymentResponse> rows) throws IOException {
+        long previousId = 0;
+        for (PaymentResponse row : rows) {
+            writeVarLong(out, row.getId() - previousId);
+            previousId = row.getId();
+        }
+        long previousMicros = 0;
+        for (PaymentResponse row : rows) {
+            long micros = epochMicros(row.getCreatedAt());
+            writeVarLong(out, zigZagEncode(micros - previousMicros));
+            previousMicros = micros;
+        }
+        for (PaymentResponse row : rows) {
+            BigDecimal amount = row.getAmount().setScale(AMOUNT_SCALE);
+            if (amount.unscaledValue().bitLength() < Long.SIZE - 1) {
+                writeVarLong(out, zigZagEncode(amount.unscaledValue().longValue()));
+            } else {
+                writeVarLong(out, zigZagEncode(AMOUNT_ESCAPE));
+                out.writeUTF(row.getAmount().toPlainString());
+            }
+        }
+
+        writeDictionaryColumn(out, rows.stream().map(PaymentResponse::getCustomerId).toList());
+        writeDictionaryColumn(out, rows.stream().map(row -> row.getCurrency().name()).toList());
+        writeDictionaryColumn(out, rows.stream().map(row -> row.getMethod().name()).toList());
+        writeDictionaryColumn(out, rows.stream().map(row -> row.getStatus().name()).toList());
+
+        for (PaymentResponse row : rows) {
+            out.writeUTF(row.getReference());
+        }
+    }
+
+    private static Info readHeader(Path path, DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a payment segment: " + path);
+        }
+        short version = in.readShort();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported payment segment version " + version + ": " + path);
+        }
+        return new Info(path, in.readInt(), in.readLong(), in.readLong(), in.readLong(), in.readLong());
+    }
+
+    private static void writeDictionaryColumn(DataOutputStream out, List<String> values) throws IOException {
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        for (String value : values) {
+            dictionary.putIfAbsent(value, dictionary.size());
+        }
+        writeVarLong(out, dictionary.size());
+        for (String value : dictionary.keySet()) {
+            out.writeUTF(value);
+        }
+        for (String value : values) {
+            writeVarLong(out, dictionary.get(value));
+        }
+    }
+
+    private static String[] readDictionary(DataInputStream in) throws IOException {
+        String[] dictionary = new String[(int) readVarLong(in)];
+        for (int i = 0; i < dictionary.length; i++) {
+            dictionary[i] = in.readUTF();
+        }
+        return dictionary;
+    }
+
+    private static int[] readIndexes(DataInputStream in, int rows) throws IOException {
+        int[] indexes = new int[rows];
+        for (int i = 0; i < rows; i++) {
+            indexes[i] = (int) readVarLong(in);
+        }
+        return indexes;
+    }
+
+    // -2 when the filter is not set, -1 when the value does not occur in this segment
+    private static int dictionaryIndex(Object[] dictionary, Object value) {
+        if (value == null) {
+            return -2;
+        }
+        for (int i = 0; i < dictionary.length; i++) {
+            if (dictionary[i].equals(value)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in payment segment");
+    }
+
+    private static long zigZagEncode(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long zigZagDecode(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
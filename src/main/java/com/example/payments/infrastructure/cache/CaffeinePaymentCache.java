@@ -0,0 +1,97 @@
+package com.example.payments.infrastructure.cache;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.example.payments.application.PaymentStatusChanged;
+import com.example.payments.domain.Payment;
+import com.example.payments.dto.PaymentResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.quarkus.arc.properties.IfBuildProperty;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+
+/**
+ * {@link PaymentCache} holding PaymentResponse objects on the heap in a
+ * Caffeine cache, the default (payments.cache.storage=heap). Entries are
+ * evicted by size, PENDING ones after the pending TTL, and local status
+ * changes invalidate the entry as soon as their transaction commits.
+ * Hit/miss/eviction statistics are published as the "payments" cache metrics.
+ */
+@ApplicationScoped
+@IfBuildProperty(name = "payments.cache.storage", stringValue = "heap", enableIfMissing = true)
+public class CaffeinePaymentCache implements PaymentCache {
+
+    private final Cache<Long, PaymentResponse> cache;
+
+    @Inject
+    public CaffeinePaymentCache(
+            @ConfigProperty(name = "payments.cache.maximum-size", defaultValue = "100000") long maximumSize,
+            @ConfigProperty(name = "payments.cache.pending-ttl", defaultValue = "PT0.5S") Duration pendingTtl,
+            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new StatusAwareExpiry(pendingTtl.toNanos()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "payments");
+    }
+
+    @Override
+    public Optional<PaymentResponse> get(Long id, Function<Long, Optional<PaymentResponse>> loader) {
+        return Optional.ofNullable(cache.get(id, key -> loader.apply(key).orElse(null)));
+    }
+
+    @Override
+    public Optional<PaymentResponse> getIfPresent(Long id) {
+        return Optional.ofNullable(cache.getIfPresent(id));
+    }
+
+    @Override
+    public void put(PaymentResponse payment) {
+        cache.put(payment.getId(), payment);
+    }
+
+    @Override
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+    }
+
+    void onStatusChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) PaymentStatusChanged event) {
+        invalidate(event.getPaymentId());
+    }
+
+    private static class StatusAwareExpiry implements Expiry<Long, PaymentResponse> {
+
+        private final long pendingTtlNanos;
+
+        StatusAwareExpiry(long pendingTtlNanos) {
+            this.pendingTtlNanos = pendingTtlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(Long id, PaymentResponse payment, long currentTime) {
+            return Payment.isFinalStatus(payment.getStatus()) ? Long.MAX_VALUE : pendingTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(Long id, PaymentResponse payment, long currentTime, long currentDuration) {
+            return expireAfterCreate(id, payment, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long id, PaymentResponse payment, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package com.example.payments.infrastructure.cache;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.example.payments.domain.Currency;
+import com.example.payments.domain.PaymentMethod;
+import com.example.payments.domain.PaymentStatus;
+import com.example.payments.dto.PaymentResponse;
+
+/**
+ * Fixed-capacity table of payments in direct (off-heap) buffers, so cached
+ * entries cost no heap objects. Each payment is a 128-byte record:
+ *
+ * <pre>
+ *   0  id                  long
+ *   8  expires at          long (System.nanoTime based)
+ *  16  amount unscaled     long
+ *  24  created at          long (epoch microseconds, UTC)
+ *  32  customer code       int  (index into the customer dictionary)
+ *  36  amount scale        byte
+ *  37  currency            byte (ordinal)
+ *  38  method              byte (ordinal)
+ *  39  status              byte (ordinal)
+ *  40  referenced          byte (CLOCK bit)
+ *  41  reference length    byte
+ *  42  reference           UTF-8, up to 86 bytes
+ * </pre>
+ *
+ * IDs map to records through an open-addressing index (linear probing, int
+ * slots, at most half full) in another direct buffer. When the table is
+ * full, CLOCK picks the victim: the hand takes the first record that has
+ * expired or was not read since the hand last passed it, and clears the
+ * read mark of the records it skips. Customer IDs repeat across payments, so
+ * they are stored once in a heap dictionary of at most maxCustomers entries,
+ * counted by the records that use them: an entry is dropped with its last
+ * record and its code reused. A payment of a new customer while the
+ * dictionary is full evicts one record, as a put into a full table does, so
+ * customers no longer cached free their entries for new ones.
+ * <p>
+ * Payments that do not fit the layout (longer references, amounts beyond a
+ * long, sub-microsecond timestamps) are not stored, nor is a new customer's
+ * payment when the evicted record did not free a dictionary entry.
+ * Not thread-safe: {@link #get} may run concurrently with other gets, every
+ * other call needs exclusive access.
+ */
+final class CompactPaymentStore {
+
+    static final int RECORD_BYTES = 128;
+    static final int MAX_REFERENCE_BYTES = 86;
+
+    private static final int ID = 0;
+    private static final int EXPIRES_AT = 8;
+    private static final int AMOUNT = 16;
+    private static final int CREATED_AT = 24;
+    private static final int CUSTOMER = 32;
+    private static final int SCALE = 36;
+    private static final int CURRENCY = 37;
+    private static final int METHOD = 38;
+    private static final int STATUS = 39;
+    private static final int REFERENCED = 40;
+    private static final int REFERENCE_LENGTH = 41;
+    private static final int REFERENCE = 42;
+
+    private static final Currency[] CURRENCIES = Currency.values();
+    private static final PaymentMethod[] METHODS = PaymentMethod.values();
+    private static final PaymentStatus[] STATUSES = PaymentStatus.values();
+
+    private final int capacity;
+    private final int maxCustomers;
+    private final ByteBuffer records;
+    private final ByteBuffer index;
+    private final int indexMask;
+    // Slots of invalidated records, reused before evicting
+    private final ByteBuffer freeSlots;
+
+    private final Map<String, Integer> customerCodes = new HashMap<>();
+    private final List<String> customers = new ArrayList<>();
+    // Records using each customer code, and codes whose last record is gone
+    private int[] customerRefs = new int[16];
+    private int[] freeCodes = new int[16];
+    private int freeCodeCount;
+
+    private int freeCount;
+    private int unusedFrom;
+    private int clockHand;
+    private int size;
+    private long evictions;
+
+    CompactPaymentStore(int capacity, int maxCustomers) {
+        if (capacity <= 0 || capacity > Integer.MAX_VALUE / RECORD_BYTES) {
+            throw new IllegalArgumentException("capacity must be between 1 and " + Integer.MAX_VALUE / RECORD_BYTES);
+        }
+        this.capacity = capacity;
+        this.maxCustomers = maxCustomers;
+        this.records = ByteBuffer.allocateDirect(capacity * RECORD_BYTES);
+        int indexSize = Integer.highestOneBit(Math.max(1, 2 * capacity - 1)) << 1;
+        this.index = ByteBuffer.allocateDirect(indexSize * Integer.BYTES);
+        this.indexMask = indexSize - 1;
+        this.freeSlots = ByteBuffer.allocateDirect(capacity * Integer.BYTES);
+    }
+
+    /**
+     * Decodes the payment if it is stored and has not expired, and marks it
+     * as recently read.
+     *
+     * @param now current System.nanoTime()
+     * @return the payment, or null
+     */
+    PaymentResponse get(long id, long now) {
+        int position = find(id);
+        if (position < 0) {
+            return null;
+        }
+        int offset = recordOffset(index.getInt(position * Integer.BYTES) - 1);
+        if (records.getLong(offset + EXPIRES_AT) - now <= 0) {
+            return null;
+        }
+        records.put(offset + REFERENCED, (byte) 1);
+
+        byte[] reference = new byte[records.get(offset + REFERENCE_LENGTH)];
+        records.get(offset + REFERENCE, reference);
+        long createdAtMicros = records.getLong(offset + CREATED_AT);
+        return new PaymentResponse(
+                id,
+                new String(reference, StandardCharsets.UTF_8),
+                customers.get(records.getInt(offset + CUSTOMER)),
+                BigDecimal.valueOf(records.getLong(offset + AMOUNT), records.get(offset + SCALE)),
+                CURRENCIES[records.get(offset + CURRENCY)],
+                METHODS[records.get(offset + METHOD)],
+                STATUSES[records.get(offset + STATUS)],
+                LocalDateTime.ofEpochSecond(Math.floorDiv(createdAtMicros, 1_000_000),
+                        (int) Math.floorMod(createdAtMicros, 1_000_000) * 1_000, ZoneOffset.UTC));
+    }
+
+    /**
+     * Stores or replaces the payment, evicting another one if the table is full.
+     *
+     * @param expiresAt System.nanoTime() after which the payment is not served
+     * @param now       current System.nanoTime()
+     * @return false if the payment does not fit the record layout
+     */
+    boolean put(PaymentResponse payment, long expiresAt, long now) {
+        if (payment.getId() == null || payment.getCustomerId() == null || payment.getCurrency() == null
+                || payment.getMethod() == null || payment.getStatus() == null || payment.getCreatedAt() == null
+                || payment.getReference() == null || payment.getAmount() == null) {
+            return false;
+        }
+        byte[] reference = payment.getReference().getBytes(StandardCharsets.UTF_8);
+        BigDecimal amount = payment.getAmount();
+        LocalDateTime createdAt = payment.getCreatedAt();
+        if (reference.length > MAX_REFERENCE_BYTES
+                || amount.unscaledValue().bitLength() >= Long.SIZE
+                || amount.scale() != (byte) amount.scale()
+                || createdAt.getNano() % 1_000 != 0) {
+            return false;
+        }
+        int customer = acquireCustomer(payment.getCustomerId());
+        if (customer < 0 && size > 0) {
+            // Dictionary full: evict as for a full table, which may free an entry
+            freeSlots.putInt(freeCount++ * Integer.BYTES, evict(now));
+            customer = acquireCustomer(payment.getCustomerId());
+        }
+        if (customer < 0) {
+            return false;
+        }
+
+        long id = payment.getId();
+        int position = find(id);
+        int slot;
+        if (position >= 0) {
+            slot = index.getInt(position * Integer.BYTES) - 1;
+            releaseCustomer(records.getInt(recordOffset(slot) + CUSTOMER));
+        } else {
+            slot = allocate(now);
+            position = home(id);
+            while (index.getInt(position * Integer.BYTES) != 0) {
+                position = (position + 1) & indexMask;
+            }
+            index.putInt(position * Integer.BYTES, slot + 1);
+            size++;
+        }
+
+        int offset = recordOffset(slot);
+        records.putLong(offset + ID, id);
+        records.putLong(offset + EXPIRES_AT, expiresAt);
+        records.putLong(offset + AMOUNT, amount.unscaledValue().longValue());
+        records.putLong(offset + CREATED_AT,
+                createdAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + createdAt.getNano() / 1_000);
+        records.putInt(offset + CUSTOMER, customer);
+        records.put(offset + SCALE, (byte) amount.scale());
+        records.put(offset + CURRENCY, (byte) payment.getCurrency().ordinal());
+        records.put(offset + METHOD, (byte) payment.getMethod().ordinal());
+        records.put(offset + STATUS, (byte) payment.getStatus().ordinal());
+        records.put(offset + REFERENCED, (byte) 0);
+        records.put(offset + REFERENCE_LENGTH, (byte) reference.length);
+        records.put(offset + REFERENCE, reference);
+        return true;
+    }
+
+    /**
+     * Drops the payment, freeing its record for the next put.
+     */
+    void remove(long id) {
+        int position = find(id);
+        if (position < 0) {
+            return;
+        }
+        int slot = index.getInt(position * Integer.BYTES) - 1;
+        releaseCustomer(records.getInt(recordOffset(slot) + CUSTOMER));
+        removeAt(position);
+        freeSlots.putInt(freeCount++ * Integer.BYTES, slot);
+        size--;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long evictions() {
+        return evictions;
+    }
+
+    /**
+     * @return off-heap bytes held by the records, the index and the free list
+     */
+    long memoryBytes() {
+        return (long) records.capacity() + index.capacity() + freeSlots.capacity();
+    }
+
+    // Code of the customer with one more record using it, or -1 if the dictionary is full
+    private int acquireCustomer(String customerId) {
+        Integer code = customerCodes.get(customerId);
+        if (code == null) {
+            if (freeCodeCount > 0) {
+                code = freeCodes[--freeCodeCount];
+                customers.set(code, customerId);
+            } else if (customers.size() < maxCustomers) {
+                code = customers.size();
+                customers.add(customerId);
+                if (code == customerRefs.length) {
+                    customerRefs = Arrays.copyOf(customerRefs, 2 * customerRefs.length);
+                }
+            } else {
+                return -1;
+            }
+            customerCodes.put(customerId, code);
+        }
+        customerRefs[code]++;
+        return code;
+    }
+
+    private void releaseCustomer(int code) {
+        if (--customerRefs[code] > 0) {
+            return;
+        }
+        customerCodes.remove(customers.get(code));
+        customers.set(code, null);
+        if (freeCodeCount == freeCodes.length) {
+            freeCodes = Arrays.copyOf(freeCodes, 2 * freeCodes.length);
+        }
+        freeCodes[freeCodeCount++] = code;
+    }
+
+    private int allocate(long now) {
+        if (freeCount > 0) {
+            return freeSlots.getInt(--freeCount * Integer.BYTES);
+        }
+        if (unusedFrom < capacity) {
+            return unusedFrom++;
+        }
+        return evict(now);
+    }
+
+    // Second-chance sweep over the used slots; returns the emptied slot
+    private int evict(long now) {
+        int used = unusedFrom;
+        while (true) {
+            int slot = clockHand;
+            clockHand = (clockHand + 1) % used;
+            int offset = recordOffset(slot);
+            int position = find(records.getLong(offset + ID));
+            if (position >= 0
+                    && index.getInt(position * Integer.BYTES) - 1 == slot
+                    && (records.get(offset + REFERENCED) == 0 || records.getLong(offset + EXPIRES_AT) - now <= 0)) {
+                releaseCustomer(records.getInt(offset + CUSTOMER));
+                removeAt(position);
+                size--;
+                evictions++;
+                return slot;
+            }
+            records.put(offset + REFERENCED, (byte) 0);
+        }
+    }
+
+    private int find(long id) {
+        int position = home(id);
+        while (true) {
+            int entry = index.getInt(position * Integer.BYTES);
+            if (entry == 0) {
+                return -1;
+            }
+            if (records.getLong(recordOffset(entry - 1) + ID) == id) {
+                return position;
+            }
+            position = (position + 1) & indexMask;
+        }
+    }
+
+    // Backward-shift deletion keeps probe sequences intact without tombstones
+    private void removeAt(int position) {
+        int hole = position;
+        int next = (position + 1) & indexMask;
+        while (true) {
+            int entry = index.getInt(next * Integer.BYTES);
+            if (entry == 0) {
+                break;
+            }
+            int home = home(records.getLong(recordOffset(entry - 1) + ID));
+            if (((next - home) & indexMask) >= ((next - hole) & indexMask)) {
+                index.putInt(hole * Integer.BYTES, entry);
+                hole = next;
+            }
+            next = (next + 1) & indexMask;
+        }
+        index.putInt(hole * Integer.BYTES, 0);
+    }
+
+    private int home(long id) {
+        long hash = id * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & indexMask;
+    }
+
+    private static int recordOffset(int slot) {
+        return slot * RECORD_BYTES;
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.payments.infrastructure.cache;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.example.payments.application.PaymentStatusChanged;
+import com.example.payments.domain.Payment;
+import com.example.payments.dto.PaymentResponse;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.quarkus.arc.properties.IfBuildProperty;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+
+/**
+ * {@link PaymentCache} keeping payments as fixed-width records off the heap
+ * ({@link CompactPaymentStore}), selected with payments.cache.storage=off-heap.
+ * About 150 bytes of direct memory per entry instead of several hundred of
+ * heap objects, so more payments stay hot without growing GC work; each hit
+ * decodes a new PaymentResponse. Payments that do not fit the record layout
+ * are served from the loader every time.
+ * <p>
+ * Readers share a read lock; puts and invalidations take the write lock.
+ * Publishes the same "payments" cache metrics as the heap cache, plus
+ * payments.cache.off-heap.memory (bytes) and payments.cache.off-heap.rejected.
+ */
+@ApplicationScoped
+@IfBuildProperty(name = "payments.cache.storage", stringValue = "off-heap")
+public class OffHeapPaymentCache implements PaymentCache {
+
+    private final CompactPaymentStore store;
+    private final long pendingTtlNanos;
+    private final StampedLock lock = new StampedLock();
+    private final ConcurrentMap<Long, CompletableFuture<Optional<PaymentResponse>>> loads = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter puts;
+    private final Counter rejected;
+
+    @Inject
+    public OffHeapPaymentCache(
+            @ConfigProperty(name = "payments.cache.maximum-size", defaultValue = "100000") int maximumSize,
+            @ConfigProperty(name = "payments.cache.pending-ttl", defaultValue = "PT0.5S") Duration pendingTtl,
+            @ConfigProperty(name = "payments.cache.off-heap.max-customers", defaultValue = "1000000") int maxCustomers,
+            MeterRegistry meterRegistry) {
+        this.store = new CompactPaymentStore(maximumSize, maxCustomers);
+        this.pendingTtlNanos = pendingTtl.toNanos();
+        Tags tags = Tags.of("cache", "payments");
+        this.hits = meterRegistry.counter("cache.gets", tags.and("result", "hit"));
+        this.misses = meterRegistry.counter("cache.gets", tags.and("result", "miss"));
+        this.puts = meterRegistry.counter("cache.puts", tags);
+        this.rejected = meterRegistry.counter("payments.cache.off-heap.rejected");
+        FunctionCounter.builder("cache.evictions", store, CompactPaymentStore::evictions)
+                .tags(tags)
+                .register(meterRegistry);
+        Gauge.builder("cache.size", store, CompactPaymentStore::size)
+                .tags(tags)
+                .register(meterRegistry);
+        Gauge.builder("payments.cache.off-heap.memory", store, CompactPaymentStore::memoryBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Optional<PaymentResponse> get(Long id, Function<Long, Optional<PaymentResponse>> loader) {
+        Optional<PaymentResponse> cached = getIfPresent(id);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        CompletableFuture<Optional<PaymentResponse>> load = new CompletableFuture<>();
+        CompletableFuture<Optional<PaymentResponse>> running = loads.putIfAbsent(id, load);
+        if (running != null) {
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+        try {
+            Optional<PaymentResponse> loaded = loader.apply(id);
+            loaded.ifPresent(this::put);
+            load.complete(loaded);
+            return loaded;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loads.remove(id, load);
+        }
+    }
+
+    @Override
+    public Optional<PaymentResponse> getIfPresent(Long id) {
+        long stamp = lock.readLock();
+        PaymentResponse payment;
+        try {
+            payment = store.get(id, System.nanoTime());
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        (payment != null ? hits : misses).increment();
+        return Optional.ofNullable(payment);
+    }
+
+    @Override
+    public void put(PaymentResponse payment) {
+        long now = System.nanoTime();
+        // Compared by difference, like nanoTime values, so the overflow is harmless
+        long expiresAt = Payment.isFinalStatus(payment.getStatus()) ? now + Long.MAX_VALUE : now + pendingTtlNanos;
+        long stamp = lock.writeLock();
+        boolean stored;
+        try {
+            stored = store.put(payment, expiresAt, now);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        (stored ? puts : rejected).increment();
+    }
+
+    @Override
+    public void invalidate(Long id) {
+        long stamp = lock.writeLock();
+        try {
+            store.remove(id);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    void onStatusChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) PaymentStatusChanged event) {
+        invalidate(event.getPaymentId());
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.payments.infrastructure.cache;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+import com.example.payments.dto.PaymentResponse;
+
+/**
+ * Size-bounded, in-process read-through cache of payments by ID.
+ * Payments in a final status are immutable and stay cached until evicted;
+ * PENDING payments expire after a short TTL so changes made elsewhere
+ * (other replicas, direct SQL) become visible. Local status changes
+ * invalidate the entry as soon as their transaction commits.
+ * <p>
+ * The storage is selected at build time with payments.cache.storage:
+ * {@code heap} ({@link CaffeinePaymentCache}) or {@code off-heap}
+ * ({@link OffHeapPaymentCache}).
+ */
+public interface PaymentCache {
+
+    /**
+     * Returns the cached payment, loading it on a miss. Concurrent misses for
+     * the same ID share a single load; payments that do not exist are not cached.
+     *
+     * @param id     the payment ID
+     * @param loader loads the payment from the source of truth
+     * @return the payment if found
+     */
+    Optional<PaymentResponse> get(Long id, Function<Long, Optional<PaymentResponse>> loader);
+
+    /**
+     * Returns the cached payment without loading it. For callers that load
+     * asynchronously and then {@link #put} the result.
+     */
+    Optional<PaymentResponse> getIfPresent(Long id);
+
+    /**
+     * Caches a payment loaded by the caller. A PENDING payment loaded just
+     * before a concurrent status change can be cached after its invalidation,
+     * so it may be served for at most the pending TTL.
+     */
+    void put(PaymentResponse payment);
+
+    /**
+     * Drops a payment from the cache.
+     */
+    void invalidate(Long id);
+}
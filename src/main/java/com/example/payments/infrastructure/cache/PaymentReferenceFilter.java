@@ -0,0 +1,219 @@
+package com.example.payments.infrastructure.cache;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import com.example.payments.application.PaymentCreated;
+import com.example.payments.infrastructure.repository.PaymentRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+
+/**
+ * In-process Bloom filter of every payment reference, used to skip the
+ * existence query for references that were definitely never stored. Only
+ * "maybe present" references are looked up; the unique constraint on
+ * reference stays the final authority, so a stale filter costs a failed
+ * insert, never a duplicate.
+ * <p>
+ * The filter is loaded in the background at startup from payment_references,
+ * which keeps the claim of every reference ever stored (archived payments
+ * and detached partitions included), and every lookup goes to the database
+ * until it is ready.
+ * References created by this replica are added once their transaction
+ * commits; references created by other replicas are only picked up by a
+ * rebuild. A rebuild fills a new filter, sized for the current number of
+ * references, while the old one keeps serving, then swaps them. It runs when
+ * the estimated false-positive rate exceeds twice the configured one, or
+ * on demand through the admin route POST /admin/reference-filter/rebuild.
+ * <p>
+ * Metrics: payments.reference.filter.lookups (counter, tag result =
+ * definitely_new or maybe_present), payments.reference.filter.false.positives
+ * (maybe-present references not found in the database), and the gauges
+ * payments.reference.filter.observed.fpp, payments.reference.filter.estimated.fpp
+ * and payments.reference.filter.memory (off-heap bytes).
+ */
+@ApplicationScoped
+public class PaymentReferenceFilter {
+
+    private static final Logger LOG = Logger.getLogger(PaymentReferenceFilter.class);
+
+    private final boolean enabled;
+    private final long expectedReferences;
+    private final double falsePositiveRate;
+    private final int loadFetchSize;
+    private final PaymentRepository paymentRepository;
+
+    private final Counter definitelyNew;
+    private final Counter maybePresent;
+    private final Counter falsePositives;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    // Null until the first load completes
+    private volatile ReferenceBloomFilter active;
+    // Receives new references while a rebuild is loading
+    private volatile ReferenceBloomFilter next;
+
+    @Inject
+    public PaymentReferenceFilter(
+            @ConfigProperty(name = "payments.reference-filter.enabled", defaultValue = "true") boolean enabled,
+            @ConfigProperty(name = "payments.reference-filter.expected-references", defaultValue = "10000000") long expectedReferences,
+            @ConfigProperty(name = "payments.reference-filter.false-positive-rate", defaultValue = "0.01") double falsePositiveRate,
+            @ConfigProperty(name = "payments.reference-filter.load.fetch-size", defaultValue = "10000") int loadFetchSize,
+            PaymentRepository paymentRepository,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.expectedReferences = expectedReferences;
+        this.falsePositiveRate = falsePositiveRate;
+        this.loadFetchSize = loadFetchSize;
+        this.paymentRepository = paymentRepository;
+        this.definitelyNew = meterRegistry.counter("payments.reference.filter.lookups", "result", "definitely_new");
+        this.maybePresent = meterRegistry.counter("payments.reference.filter.lookups", "result", "maybe_present");
+        this.falsePositives = meterRegistry.counter("payments.reference.filter.false.positives");
+        Gauge.builder("payments.reference.filter.observed.fpp", this, PaymentReferenceFilter::observedFalsePositiveRate)
+                .description("Share of new references the filter reported as maybe present")
+                .register(meterRegistry);
+        Gauge.builder("payments.reference.filter.estimated.fpp", this, PaymentReferenceFilter::estimatedFalsePositiveRate)
+                .description("False-positive rate expected from the filter's fill ratio")
+                .register(meterRegistry);
+        Gauge.builder("payments.reference.filter.memory", this, PaymentReferenceFilter::memoryBytes)
+                .description("Off-heap memory held by the filter, including one being rebuilt")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Returns which of the references are stored, looking up only those the
+     * filter cannot rule out.
+     *
+     * @param references the references to check
+     * @param lookup     finds the stored references among the given ones
+     * @return the stored references
+     */
+    public Set<String> findExisting(Collection<String> references, Function<Collection<String>, Set<String>> lookup) {
+        ReferenceBloomFilter filter = active;
+        if (filter == null) {
+            return lookup.apply(references);
+        }
+        List<String> candidates = references.stream().filter(filter::mightContain).distinct().toList();
+        definitelyNew.increment(references.size() - candidates.size());
+        maybePresent.increment(candidates.size());
+        if (candidates.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> existing = lookup.apply(candidates);
+        falsePositives.increment(candidates.size() - existing.size());
+        return existing;
+    }
+
+    /**
+     * Adds a stored reference to the filter, and to the one being rebuilt.
+     */
+    public void add(String reference) {
+        ReferenceBloomFilter filter = active;
+        if (filter != null) {
+            filter.add(reference);
+        }
+        ReferenceBloomFilter loading = next;
+        if (loading != null) {
+            loading.add(reference);
+        }
+    }
+
+    /**
+     * Starts loading a new filter in the background; the current one keeps
+     * answering until it is swapped in.
+     *
+     * @return false if a rebuild is already running or the filter is disabled
+     */
+    public boolean rebuild() {
+        if (!enabled || !rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        Thread.ofPlatform().daemon().name("payment-reference-filter-loader").start(() -> {
+            try {
+                load();
+            } catch (RuntimeException e) {
+                LOG.warnf(e, "Payment reference filter load failed");
+            } finally {
+                next = null;
+                rebuilding.set(false);
+            }
+        });
+        return true;
+    }
+
+    @Scheduled(identity = "payment-reference-filter-check",
+            every = "${payments.reference-filter.check-interval:5m}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void rebuildIfSaturated() {
+        ReferenceBloomFilter filter = active;
+        if (filter != null && filter.estimatedFalsePositiveRate() > 2 * falsePositiveRate && rebuild()) {
+            LOG.infof("Payment reference filter holds about %d references; rebuilding it larger",
+                    filter.approximateSize());
+        }
+    }
+
+    private void load() {
+        long stored = QuarkusTransaction.requiringNew().call(paymentRepository::countReferences);
+        ReferenceBloomFilter loading = new ReferenceBloomFilter(Math.max(expectedReferences, 2 * stored), falsePositiveRate);
+        // Published before the scan starts: a reference committed behind the
+        // scan's position is added to it by onCreated
+        next = loading;
+        // One short transaction per page, so no snapshot or connection is held for the whole load
+        String after = null;
+        List<String> page;
+        do {
+            String from = after;
+            page = QuarkusTransaction.requiringNew()
+                    .call(() -> paymentRepository.findReferencesAfter(from, loadFetchSize));
+            page.forEach(loading::add);
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1);
+            }
+        } while (page.size() == loadFetchSize);
+        active = loading;
+        LOG.infof("Payment reference filter loaded %d references (%d KiB off-heap, %d hash functions)",
+                loading.approximateSize(), loading.memoryBytes() / 1024, loading.hashCount());
+    }
+
+    void onCreated(@Observes(during = TransactionPhase.AFTER_SUCCESS) PaymentCreated event) {
+        add(event.getPayment().getReference());
+    }
+
+    private double observedFalsePositiveRate() {
+        double checkedNew = falsePositives.count() + definitelyNew.count();
+        return checkedNew == 0 ? 0 : falsePositives.count() / checkedNew;
+    }
+
+    private double estimatedFalsePositiveRate() {
+        ReferenceBloomFilter filter = active;
+        return filter == null ? 0 : filter.estimatedFalsePositiveRate();
+    }
+
+    private double memoryBytes() {
+        ReferenceBloomFilter filter = active;
+        ReferenceBloomFilter loading = next;
+        return (filter == null ? 0 : filter.memoryBytes()) + (loading == null ? 0 : loading.memoryBytes());
+    }
+}
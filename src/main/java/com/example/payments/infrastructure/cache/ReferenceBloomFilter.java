@@ -0,0 +1,137 @@
+package com.example.payments.infrastructure.cache;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size Bloom filter of payment references, with its bit array in a
+ * direct (off-heap) buffer so a large filter adds nothing to heap scans.
+ * Bits are set with atomic ORs, so adds and lookups need no locking.
+ * <p>
+ * Each reference is hashed once to 64 bits and probes k bits derived from
+ * it by double hashing. {@link #mightContain} never answers false for an added
+ * reference; it answers true for an absent one with roughly the configured
+ * probability while no more than the expected number of references are added.
+ */
+final class ReferenceBloomFilter {
+
+    private static final VarHandle WORDS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    // Direct buffers are indexed with an int
+    private static final long MAX_BITS = (Integer.MAX_VALUE / Long.BYTES) * (long) Long.SIZE;
+
+    private final ByteBuffer words;
+    private final long bitCount;
+    private final int hashCount;
+    private final LongAdder bitsSet = new LongAdder();
+
+    ReferenceBloomFilter(long expectedReferences, double falsePositiveRate) {
+        if (expectedReferences <= 0) {
+            throw new IllegalArgumentException("expectedReferences must be positive");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("falsePositiveRate must be between 0 and 1");
+        }
+        double optimalBits = -expectedReferences * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        long wordCount = Math.min(MAX_BITS, Math.max(Long.SIZE, (long) Math.ceil(optimalBits))) / Long.SIZE;
+        this.bitCount = wordCount * Long.SIZE;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedReferences * Math.log(2)));
+        // Over-allocate by one word so the view can be aligned, as atomic access requires
+        this.words = ByteBuffer.allocateDirect((int) ((wordCount + 1) * Long.BYTES))
+                .alignedSlice(Long.BYTES)
+                .slice(0, (int) (wordCount * Long.BYTES));
+    }
+
+    /**
+     * Adds a reference.
+     */
+    void add(String reference) {
+        long h1 = hash(reference);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L);
+        long combined = h1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = (combined & Long.MAX_VALUE) % bitCount;
+            long mask = 1L << bit;
+            long previous = (long) WORDS.getAndBitwiseOr(words, (int) ((bit >>> 6) * Long.BYTES), mask);
+            if ((previous & mask) == 0) {
+                bitsSet.increment();
+            }
+            combined += h2;
+        }
+    }
+
+    /**
+     * @return false if the reference was definitely never added
+     */
+    boolean mightContain(String reference) {
+        long h1 = hash(reference);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L);
+        long combined = h1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = (combined & Long.MAX_VALUE) % bitCount;
+            long word = (long) WORDS.getOpaque(words, (int) ((bit >>> 6) * Long.BYTES));
+            if ((word & (1L << bit)) == 0) {
+                return false;
+            }
+            combined += h2;
+        }
+        return true;
+    }
+
+    long bitCount() {
+        return bitCount;
+    }
+
+    int hashCount() {
+        return hashCount;
+    }
+
+    /**
+     * @return off-heap bytes held by the bit array
+     */
+    long memoryBytes() {
+        return words.capacity();
+    }
+
+    /**
+     * Estimates the probability that an absent reference is reported as
+     * present, from the fraction of bits currently set.
+     */
+    double estimatedFalsePositiveRate() {
+        return Math.pow((double) bitsSet.sum() / bitCount, hashCount);
+    }
+
+    /**
+     * Estimates the number of distinct references added, from the fraction
+     * of bits currently set.
+     */
+    long approximateSize() {
+        double fill = (double) bitsSet.sum() / bitCount;
+        if (fill >= 1) {
+            return Long.MAX_VALUE;
+        }
+        return Math.round(-(double) bitCount / hashCount * Math.log1p(-fill));
+    }
+
+    // FNV-1a over UTF-16 units, finalized with the MurmurHash3 mixer
+    private static long hash(String reference) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < reference.length(); i++) {
+            hash ^= reference.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
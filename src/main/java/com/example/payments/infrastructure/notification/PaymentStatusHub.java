@@ -0,0 +1,74 @@
+package com.example.payments.infrastructure.notification;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.example.payments.application.PaymentStatusChanged;
+import com.example.payments.dto.PaymentStatusUpdate;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+
+/**
+ * In-memory fan-out of payment status changes to stream subscribers.
+ * By default it is fed by committed local changes. With PostgreSQL
+ * LISTEN/NOTIFY enabled it is fed by {@link PgNotifyStatusRelay} instead, so
+ * every replica sees changes made by any of them.
+ */
+@ApplicationScoped
+public class PaymentStatusHub {
+
+    private final ConcurrentHashMap<Long, Set<PaymentStatusSubscription>> subscriptions = new ConcurrentHashMap<>();
+    private final boolean pgNotifyEnabled;
+
+    @Inject
+    public PaymentStatusHub(
+            @ConfigProperty(name = "payments.notifications.pg-notify.enabled", defaultValue = "false") boolean pgNotifyEnabled) {
+        this.pgNotifyEnabled = pgNotifyEnabled;
+    }
+
+    /**
+     * Registers interest in the given payments. Updates are buffered until
+     * the subscription's stream is consumed.
+     */
+    public PaymentStatusSubscription subscribe(Set<Long> ids) {
+        PaymentStatusSubscription subscription = new PaymentStatusSubscription(ids, this::unsubscribe);
+        for (Long id : subscription.getIds()) {
+            subscriptions.compute(id, (key, subscribers) -> {
+                Set<PaymentStatusSubscription> set = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+                set.add(subscription);
+                return set;
+            });
+        }
+        return subscription;
+    }
+
+    /**
+     * Delivers an update to every subscriber of the payment.
+     */
+    public void publish(PaymentStatusUpdate update) {
+        Set<PaymentStatusSubscription> subscribers = subscriptions.get(update.getId());
+        if (subscribers != null) {
+            subscribers.forEach(subscription -> subscription.onUpdate(update));
+        }
+    }
+
+    void onStatusChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) PaymentStatusChanged event) {
+        if (!pgNotifyEnabled) {
+            publish(new PaymentStatusUpdate(event.getPaymentId(), event.getNewStatus()));
+        }
+    }
+
+    private void unsubscribe(PaymentStatusSubscription subscription) {
+        for (Long id : subscription.getIds()) {
+            subscriptions.computeIfPresent(id, (key, subscribers) -> {
+                subscribers.remove(subscription);
+                return subscribers.isEmpty() ? null : subscribers;
+            });
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.payments.infrastructure.notification;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import com.example.payments.dto.PaymentStatusUpdate;
+
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.operators.multi.processors.UnicastProcessor;
+
+/**
+ * A client's interest in the status of a set of payments.
+ * Live updates are buffered from the moment the subscription is registered,
+ * so none are lost while the current statuses are being read. The stream
+ * completes once every payment has reached a final status.
+ */
+public class PaymentStatusSubscription {
+
+    private final Set<Long> ids;
+    private final Set<Long> pending;
+    private final Set<Long> seen = new HashSet<>();
+    private final UnicastProcessor<PaymentStatusUpdate> processor = UnicastProcessor.create();
+    private final Consumer<PaymentStatusSubscription> onCancel;
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+    private boolean completed;
+
+    PaymentStatusSubscription(Set<Long> ids, Consumer<PaymentStatusSubscription> onCancel) {
+        this.ids = Set.copyOf(ids);
+        this.pending = new HashSet<>(ids);
+        this.onCancel = onCancel;
+    }
+
+    /**
+     * Emits the status read from the source of truth after subscribing,
+     * unless a live update for the same payment already superseded it.
+     */
+    public synchronized void seed(PaymentStatusUpdate current) {
+        if (!seen.contains(current.getId())) {
+            emit(current);
+        }
+    }
+
+    /**
+     * Returns the stream of updates, ending when all payments are final or
+     * the timeout elapses, whichever comes first.
+     */
+    public Multi<PaymentStatusUpdate> stream(Duration timeout) {
+        return processor
+                .select().first(timeout)
+                .onTermination().invoke(this::cancel);
+    }
+
+    /**
+     * Stops receiving updates. Safe to call more than once.
+     */
+    public void cancel() {
+        if (cancelled.compareAndSet(false, true)) {
+            onCancel.accept(this);
+        }
+    }
+
+    Set<Long> getIds() {
+        return ids;
+    }
+
+    synchronized void onUpdate(PaymentStatusUpdate update) {
+        emit(update);
+    }
+
+    private void emit(PaymentStatusUpdate update) {
+        if (completed) {
+            return;
+        }
+        seen.add(update.getId());
+        processor.onNext(update);
+        if (update.isFinalStatus()) {
+            pending.remove(update.getId());
+            if (pending.isEmpty()) {
+                completed = true;
+                processor.onComplete();
+            }
+        }
+    }
+}
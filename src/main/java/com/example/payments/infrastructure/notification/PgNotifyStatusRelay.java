@@ -0,0 +1,189 @@
+package com.example.payments.infrastructure.notification;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import com.example.payments.application.PaymentStatusChanged;
+import com.example.payments.domain.PaymentStatus;
+import com.example.payments.dto.PaymentStatusUpdate;
+
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+
+/**
+ * Relays payment status changes between replicas through PostgreSQL
+ * LISTEN/NOTIFY. The changes of a transaction are collected and published
+ * with a single statement just before it commits, so a bulk update costs one
+ * round trip and is delivered only if it commits. Every replica (including
+ * this one) feeds them into its {@link PaymentStatusHub}.
+ * <p>
+ * A notification carries comma-separated "id:STATUS" entries, split so each
+ * stays under the server's payload limit.
+ * Disabled unless payments.notifications.pg-notify.enabled is true.
+ */
+@ApplicationScoped
+public class PgNotifyStatusRelay {
+
+    static final String CHANNEL = "payment_status";
+
+    private static final Logger LOG = Logger.getLogger(PgNotifyStatusRelay.class);
+    private static final Duration RECONNECT_DELAY = Duration.ofSeconds(5);
+    // Postgres rejects payloads of 8000 bytes or more; entries are ASCII
+    private static final int MAX_PAYLOAD_LENGTH = 7900;
+    private static final Object PENDING_KEY = new Object();
+
+    private final boolean enabled;
+    private final Duration pollInterval;
+    private final DataSource dataSource;
+    private final TransactionSynchronizationRegistry transactions;
+    private final PaymentStatusHub hub;
+
+    private volatile boolean running;
+    private Thread listener;
+
+    @Inject
+    public PgNotifyStatusRelay(
+            @ConfigProperty(name = "payments.notifications.pg-notify.enabled", defaultValue = "false") boolean enabled,
+            @ConfigProperty(name = "payments.notifications.pg-notify.poll-interval", defaultValue = "PT0.5S") Duration pollInterval,
+            DataSource dataSource,
+            TransactionSynchronizationRegistry transactions,
+            PaymentStatusHub hub) {
+        this.enabled = enabled;
+        this.pollInterval = pollInterval;
+        this.dataSource = dataSource;
+        this.transactions = transactions;
+        this.hub = hub;
+    }
+
+    void onStatusChanged(@Observes(during = TransactionPhase.IN_PROGRESS) PaymentStatusChanged event) {
+        if (!enabled) {
+            return;
+        }
+        pendingEntries().add(event.getPaymentId() + ":" + event.getNewStatus().name());
+    }
+
+    // Entries of the current transaction; the first change registers the flush before commit
+    @SuppressWarnings("unchecked")
+    private List<String> pendingEntries() {
+        List<String> pending = (List<String>) transactions.getResource(PENDING_KEY);
+        if (pending == null) {
+            List<String> entries = new ArrayList<>();
+            transactions.putResource(PENDING_KEY, entries);
+            transactions.registerInterposedSynchronization(new Synchronization() {
+                @Override
+                public void beforeCompletion() {
+                    publish(entries);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                }
+            });
+            pending = entries;
+        }
+        return pending;
+    }
+
+    // One round trip for the whole transaction, however many notifications it takes
+    private void publish(List<String> entries) {
+        List<String> payloads = new ArrayList<>();
+        StringBuilder payload = new StringBuilder();
+        for (String entry : entries) {
+            if (payload.length() > 0 && payload.length() + 1 + entry.length() > MAX_PAYLOAD_LENGTH) {
+                payloads.add(payload.toString());
+                payload.setLength(0);
+            }
+            if (payload.length() > 0) {
+                payload.append(',');
+            }
+            payload.append(entry);
+        }
+        payloads.add(payload.toString());
+
+        // Inside the transaction, so this is the connection it is using
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement statement = connection.prepareStatement(
+                        "SELECT pg_notify(?, payload) FROM unnest(?) AS payload")) {
+            statement.setString(1, CHANNEL);
+            statement.setArray(2, connection.createArrayOf("text", payloads.toArray()));
+            statement.execute();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not publish payment status changes on " + CHANNEL, e);
+        }
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        listener = Thread.ofPlatform().daemon().name("payment-status-listener").start(this::listen);
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            // Holds one pooled connection for as long as the application runs
+            try (Connection connection = dataSource.getConnection();
+                    Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + CHANNEL);
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollInterval.toMillis());
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            for (String entry : notification.getParameter().split(",")) {
+                                dispatch(entry);
+                            }
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                LOG.warnf(e, "Lost LISTEN connection on %s, reconnecting in %s", CHANNEL, RECONNECT_DELAY);
+                try {
+                    Thread.sleep(RECONNECT_DELAY);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void dispatch(String entry) {
+        int separator = entry.indexOf(':');
+        try {
+            Long id = Long.valueOf(entry.substring(0, separator));
+            PaymentStatus status = PaymentStatus.valueOf(entry.substring(separator + 1));
+            hub.publish(new PaymentStatusUpdate(id, status));
+        } catch (RuntimeException e) {
+            LOG.warnf("Ignoring malformed %s notification entry: %s", CHANNEL, entry);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.payments.infrastructure.outbox;
+
+import java.time.LocalDateTime;
+
+/**
+ * Payment event handed to an {@link OutboxSink}.
+ *
+ * @param sequence  outbox ID, increasing in commit order for a given payment
+ * @param paymentId the payment the event is about
+ * @param type      event type, e.g. PaymentCreated
+ * @param payload   event body as JSON
+ * @param createdAt when the event was written to the outbox
+ */
+public record OutboxMessage(long sequence, long paymentId, String type, String payload, LocalDateTime createdAt) {
+
+    static OutboxMessage of(OutboxEvent event) {
+        return new OutboxMessage(event.getId(), event.getPaymentId(), event.getEventType(), event.getPayload(),
+                event.getCreatedAt());
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.payments.infrastructure.outbox;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.runtime.StartupEvent;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Drains the payment outbox into the {@link OutboxSink}.
+ * <p>
+ * payments.outbox.relay.parallelism workers each own a slot of payments
+ * (payment ID modulo the number of workers), so events of one payment are
+ * published in order. A worker takes the slot's advisory lock, reads a batch
+ * in id order, publishes it, waits for the sink to accept it and deletes it
+ * in the same transaction. The same slot on another replica fails to take
+ * the lock and waits for the next poll instead of publishing later events of
+ * the same payments first, so every replica must use the same parallelism.
+ * Because a worker waits for each batch, at most parallelism x batch-size
+ * events are in flight; a failing sink makes the worker back off
+ * exponentially up to payments.outbox.relay.max-backoff.
+ * <p>
+ * Metrics: payments.outbox.published and payments.outbox.failures
+ * (counters), payments.outbox.lag (time from outbox insert to publication),
+ * payments.outbox.pending and payments.outbox.oldest.age.seconds (gauges,
+ * refreshed every payments.outbox.relay.metrics-interval).
+ */
+@ApplicationScoped
+public class OutboxRelay {
+
+    private static final Logger LOG = Logger.getLogger(OutboxRelay.class);
+
+    // Arbitrary base key of the per-slot advisory locks, held for the whole batch
+    private static final long SLOT_LOCK = 0x4F5554424F580000L;
+
+    private static final String NEXT_BATCH = """
+            SELECT * FROM payment_outbox
+            WHERE MOD(payment_id, :slots) = :slot
+            ORDER BY id
+            LIMIT :limit""";
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final int parallelism;
+    private final Duration pollInterval;
+    private final Duration publishTimeout;
+    private final Duration maxBackoff;
+    // Advisory locks are PostgreSQL only; the single-process H2 tests need none
+    private final boolean slotLocks;
+    private final OutboxSink sink;
+    private final EntityManager entityManager;
+
+    private final MeterRegistry meterRegistry;
+    private final Counter failures;
+    private final Timer lag;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong oldestAgeSeconds = new AtomicLong();
+
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    @Inject
+    public OutboxRelay(
+            @ConfigProperty(name = "payments.outbox.relay.enabled", defaultValue = "true") boolean enabled,
+            @ConfigProperty(name = "payments.outbox.relay.batch-size", defaultValue = "500") int batchSize,
+            @ConfigProperty(name = "payments.outbox.relay.parallelism", defaultValue = "2") int parallelism,
+            @ConfigProperty(name = "payments.outbox.relay.poll-interval", defaultValue = "PT0.5S") Duration pollInterval,
+            @ConfigProperty(name = "payments.outbox.relay.publish-timeout", defaultValue = "PT10S") Duration publishTimeout,
+            @ConfigProperty(name = "payments.outbox.relay.max-backoff", defaultValue = "PT30S") Duration maxBackoff,
+            @ConfigProperty(name = "quarkus.datasource.db-kind") String dbKind,
+            OutboxSink sink,
+            EntityManager entityManager,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.parallelism = parallelism;
+        this.pollInterval = pollInterval;
+        this.publishTimeout = publishTimeout;
+        this.maxBackoff = maxBackoff;
+        this.slotLocks = "postgresql".equals(dbKind);
+        this.sink = sink;
+        this.entityManager = entityManager;
+        this.meterRegistry = meterRegistry;
+        this.failures = meterRegistry.counter("payments.outbox.failures");
+        this.lag = Timer.builder("payments.outbox.lag")
+                .description("Time from outbox insert to publication")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        meterRegistry.gauge("payments.outbox.pending", pending);
+        meterRegistry.gauge("payments.outbox.oldest.age.seconds", oldestAgeSeconds);
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        for (int slot = 0; slot < parallelism; slot++) {
+            int workerSlot = slot;
+            workers.add(Thread.ofPlatform().daemon().name("payment-outbox-relay-" + slot)
+                    .start(() -> drainLoop(workerSlot)));
+        }
+    }
+
+    void onStop(@Observes ShutdownEvent event) {
+        running = false;
+        workers.forEach(Thread::interrupt);
+    }
+
+    @Scheduled(identity = "payment-outbox-metrics",
+            every = "${payments.outbox.relay.metrics-interval:10s}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void refreshLagMetrics() {
+        if (!enabled) {
+            return;
+        }
+        Object[] row = QuarkusTransaction.requiringNew().call(() -> (Object[]) entityManager
+                .createQuery("select count(e), min(e.createdAt) from OutboxEvent e")
+                .getSingleResult());
+        pending.set(((Number) row[0]).longValue());
+        LocalDateTime oldest = (LocalDateTime) row[1];
+        oldestAgeSeconds.set(oldest == null ? 0 : Math.max(0, Duration.between(oldest, LocalDateTime.now()).toSeconds()));
+    }
+
+    /**
+     * Publishes and deletes one batch of the given slot.
+     *
+     * @return number of events published
+     */
+    public int drainOnce(int slot) {
+        return QuarkusTransaction.requiringNew().call(() -> {
+            // Row locks alone would let two replicas take different events of one payment
+            if (slotLocks && !(Boolean) entityManager.createNativeQuery("SELECT pg_try_advisory_xact_lock(:key)")
+                    .setParameter("key", SLOT_LOCK + slot)
+                    .getSingleResult()) {
+                return 0;
+            }
+
+            @SuppressWarnings("unchecked")
+            List<OutboxEvent> events = entityManager.createNativeQuery(NEXT_BATCH, OutboxEvent.class)
+                    .setParameter("slots", parallelism)
+                    .setParameter("slot", slot)
+                    .setParameter("limit", batchSize)
+                    .getResultList();
+            if (events.isEmpty()) {
+                return 0;
+            }
+
+            List<OutboxMessage> messages = events.stream().map(OutboxMessage::of).toList();
+            // The slot stays locked while the sink works; on failure or timeout the transaction rolls back
+            sink.publish(messages).toCompletableFuture().get(publishTimeout.toMillis(), TimeUnit.MILLISECONDS);
+
+            entityManager.createQuery("delete from OutboxEvent e where e.id in :ids")
+                    .setParameter("ids", events.stream().map(OutboxEvent::getId).toList())
+                    .executeUpdate();
+
+            LocalDateTime now = LocalDateTime.now();
+            for (OutboxMessage message : messages) {
+                lag.record(Duration.between(message.createdAt(), now));
+                meterRegistry.counter("payments.outbox.published", "type", message.type()).increment();
+            }
+            return messages.size();
+        });
+    }
+
+    private void drainLoop(int slot) {
+        Duration backoff = pollInterval;
+        while (running) {
+            try {
+                int published = drainOnce(slot);
+                backoff = pollInterval;
+                if (published < batchSize) {
+                    // Caught up; a full batch means more is waiting, so go again right away
+                    Thread.sleep(pollInterval);
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                failures.increment();
+                LOG.warnf(e, "Outbox slot %d failed to publish, retrying in %s", slot, backoff);
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+                backoff = backoff.multipliedBy(2).compareTo(maxBackoff) > 0 ? maxBackoff : backoff.multipliedBy(2);
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.payments.infrastructure.outbox;
+
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Destination of the events drained from the outbox by {@link OutboxRelay}.
+ * Built-in sinks are selected at build time with payments.outbox.sink
+ * ({@code file} or {@code memory}); for a message broker, set another value
+ * and provide an application-scoped bean implementing this interface.
+ */
+public interface OutboxSink {
+
+    /**
+     * Publishes a batch of events in order. The returned stage completes once
+     * the destination has accepted every event; until then the relay takes
+     * no further batch, which is what bounds the load on a slow destination.
+     * A failed stage leaves the batch in the outbox to be published again, so
+     * delivery is at least once.
+     *
+     * @param messages events ordered by sequence
+     * @return stage completing when the batch is accepted
+     */
+    CompletionStage<Void> publish(List<OutboxMessage> messages);
+}
@@ -0,0 +1,131 @@
+package com.example.payments.infrastructure.outbox;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import com.example.payments.application.PaymentCreated;
+import com.example.payments.application.PaymentStatusChanged;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+
+/**
+ * Records payment events in the outbox inside the transaction that changes
+ * the payment, so an event is stored if and only if the change commits.
+ * <p>
+ * The events of a transaction are collected and inserted just before it
+ * commits, in multi-row statements that leave the id to the column default.
+ * Ids are therefore taken while the transaction still holds the lock on the
+ * payments it changed, and the events of one payment get increasing ids in
+ * commit order whichever replica writes them.
+ */
+@ApplicationScoped
+public class OutboxWriter {
+
+    static final String PAYMENT_CREATED = "PaymentCreated";
+    static final String PAYMENT_STATUS_CHANGED = "PaymentStatusChanged";
+
+    // 4 parameters per row, well under the driver's limit of 32767 per statement
+    private static final int ROWS_PER_STATEMENT = 1000;
+    private static final Object PENDING_KEY = new Object();
+
+    private final DataSource dataSource;
+    private final TransactionSynchronizationRegistry transactions;
+    private final ObjectMapper objectMapper;
+
+    @Inject
+    public OutboxWriter(DataSource dataSource, TransactionSynchronizationRegistry transactions,
+            ObjectMapper objectMapper) {
+        this.dataSource = dataSource;
+        this.transactions = transactions;
+        this.objectMapper = objectMapper;
+    }
+
+    void onCreated(@Observes(during = TransactionPhase.IN_PROGRESS) PaymentCreated event) {
+        write(event.getPayment().getId(), PAYMENT_CREATED, objectMapper.valueToTree(event.getPayment()));
+    }
+
+    void onStatusChanged(@Observes(during = TransactionPhase.IN_PROGRESS) PaymentStatusChanged event) {
+        ObjectNode payload = objectMapper.createObjectNode()
+                .put("id", event.getPaymentId())
+                .put("status", event.getNewStatus().name());
+        if (event.getPreviousStatus() != null) {
+            payload.put("previousStatus", event.getPreviousStatus().name());
+        }
+        write(event.getPaymentId(), PAYMENT_STATUS_CHANGED, payload);
+    }
+
+    private void write(Long paymentId, String type, ObjectNode payload) {
+        try {
+            pendingRows().add(new Row(paymentId, type, objectMapper.writeValueAsString(payload), LocalDateTime.now()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + type + " event of payment " + paymentId, e);
+        }
+    }
+
+    // Rows of the current transaction; the first event registers the insert before commit
+    @SuppressWarnings("unchecked")
+    private List<Row> pendingRows() {
+        List<Row> pending = (List<Row>) transactions.getResource(PENDING_KEY);
+        if (pending == null) {
+            List<Row> rows = new ArrayList<>();
+            transactions.putResource(PENDING_KEY, rows);
+            transactions.registerInterposedSynchronization(new Synchronization() {
+                @Override
+                public void beforeCompletion() {
+                    insert(rows);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                }
+            });
+            pending = rows;
+        }
+        return pending;
+    }
+
+    private void insert(List<Row> rows) {
+        // Inside the transaction, so this is the connection it is using
+        try (Connection connection = dataSource.getConnection()) {
+            for (int from = 0; from < rows.size(); from += ROWS_PER_STATEMENT) {
+                List<Row> chunk = rows.subList(from, Math.min(from + ROWS_PER_STATEMENT, rows.size()));
+                try (PreparedStatement statement = connection.prepareStatement(insertSql(chunk.size()))) {
+                    int parameter = 1;
+                    for (Row row : chunk) {
+                        statement.setLong(parameter++, row.paymentId());
+                        statement.setString(parameter++, row.type());
+                        statement.setString(parameter++, row.payload());
+                        statement.setTimestamp(parameter++, Timestamp.valueOf(row.createdAt()));
+                    }
+                    statement.executeUpdate();
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not write " + rows.size() + " payment events to the outbox", e);
+        }
+    }
+
+    private static String insertSql(int rows) {
+        return "INSERT INTO payment_outbox (payment_id, event_type, payload, created_at) VALUES "
+                + String.join(", ", Collections.nCopies(rows, "(?, ?, ?, ?)"));
+    }
+
+    private record Row(Long paymentId, String type, String payload, LocalDateTime createdAt) {
+    }
+}
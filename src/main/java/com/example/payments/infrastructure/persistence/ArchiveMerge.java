@@ -0,0 +1,73 @@
+package com.example.payments.infrastructure.persistence;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import com.example.payments.domain.Payment;
+import com.example.payments.dto.PaymentResponse;
+import com.example.payments.exception.InvalidPageException;
+import com.example.payments.infrastructure.archive.PaymentArchive;
+
+/**
+ * Combines rows of the payments table with rows of the {@link PaymentArchive},
+ * for the blocking and the reactive repository alike.
+ */
+final class ArchiveMerge {
+
+    private ArchiveMerge() {
+    }
+
+    /**
+     * Rejects an offset page that would hold more than maxMergeWindow rows of
+     * each tier in memory. Both tiers are sorted, so the page lies within the
+     * first offset + limit rows of each; past the window only keyset pages
+     * keep memory bounded.
+     */
+    static void checkWindow(int offset, int limit, int maxMergeWindow) {
+        if (offset + limit > maxMergeWindow) {
+            throw new InvalidPageException(String.format(
+                    "Offset pagination over archived payments reaches the first %d rows only, use the cursor parameter",
+                    maxMergeWindow));
+        }
+    }
+
+    /**
+     * Merges two lists sorted by the given order and returns [offset, offset + limit).
+     * A payment in both tiers (its segment is not settled yet) is taken from the hot one.
+     */
+    static <T> List<T> merge(List<T> hot, List<T> archived, Comparator<? super T> order, int offset, int limit) {
+        List<T> merged = new ArrayList<>(Math.min(hot.size() + archived.size(), offset + limit));
+        int h = 0;
+        int a = 0;
+        while (merged.size() < offset + limit && (h < hot.size() || a < archived.size())) {
+            if (a == archived.size()) {
+                merged.add(hot.get(h++));
+            } else if (h == hot.size()) {
+                merged.add(archived.get(a++));
+            } else {
+                int comparison = order.compare(hot.get(h), archived.get(a));
+                if (comparison == 0) {
+                    a++;
+                } else if (comparison < 0) {
+                    merged.add(hot.get(h++));
+                } else {
+                    merged.add(archived.get(a++));
+                }
+            }
+        }
+        return offset >= merged.size() ? List.of() : merged.subList(offset, merged.size());
+    }
+
+    /**
+     * Rebuilds an archived payment as an entity that is never persisted.
+     */
+    static Payment toDetachedEntity(PaymentResponse archived) {
+        Payment payment = new Payment(archived.getReference(), archived.getCustomerId(), archived.getAmount(),
+                archived.getCurrency(), archived.getMethod());
+        payment.setId(archived.getId());
+        payment.setStatus(archived.getStatus());
+        payment.setCreatedAt(archived.getCreatedAt());
+        return payment;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.payments.infrastructure.persistence;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.example.payments.domain.Currency;
+import com.example.payments.domain.PaymentStatus;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+/**
+ * Row of customer_payment_daily_totals: count and amount of a customer's
+ * payments created on one day, per currency and status.
+ */
+@Entity
+@Table(name = "customer_payment_daily_totals")
+@IdClass(CustomerDailyTotalEntry.Key.class)
+public class CustomerDailyTotalEntry {
+
+    @Id
+    @Column(name = "customer_id")
+    private String customerId;
+
+    @Id
+    @Column(name = "created_on")
+    private LocalDate createdOn;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private Currency currency;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private PaymentStatus status;
+
+    @Column(name = "payment_count", nullable = false)
+    private long paymentCount;
+
+    @Column(name = "total_amount", nullable = false, precision = 24, scale = 4)
+    private BigDecimal totalAmount;
+
+    public record Key(String customerId, LocalDate createdOn, Currency currency, PaymentStatus status) {
+    }
+
+    public CustomerDailyTotalEntry() {
+    }
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public LocalDate getCreatedOn() {
+        return createdOn;
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    public PaymentStatus getStatus() {
+        return status;
+    }
+
+    public long getPaymentCount() {
+        return paymentCount;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+}
@@ -0,0 +1,470 @@
+package com.example.payments.infrastructure.persistence;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+
+import com.example.payments.domain.Currency;
+import com.example.payments.domain.PaymentStatus;
+import com.example.payments.dto.CustomerDailyPaymentTotal;
+import com.example.payments.dto.CustomerPaymentTotal;
+import com.example.payments.dto.PaymentResponse;
+import com.example.payments.infrastructure.archive.PaymentArchive;
+import com.example.payments.infrastructure.repository.CustomerSummaryRepository;
+
+import io.micrometer.core.annotation.Timed;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+/**
+ * JPA implementation of the customer summary repository, on the
+ * customer_payment_daily_totals and customer_payment_totals tables.
+ * Adjustments are applied as upserts adding a delta, so concurrent
+ * transactions never read-modify-write a summary row.
+ * <p>
+ * A rebuild never locks the tables either. It reads the payments, the
+ * archive and the summary rows from one REPEATABLE READ snapshot, in which
+ * every payment write is either fully visible or not at all, and applies
+ * the difference customer batch by customer batch as one more delta, in
+ * short transactions of its own. Writes committed after the snapshot add
+ * their deltas on top, so nothing is lost or counted twice. Summary rows of
+ * days before the oldest attached partition are kept: those payments were
+ * detached from the payments table and cannot be recounted.
+ */
+@ApplicationScoped
+public class CustomerSummaryJpaRepository implements CustomerSummaryRepository {
+
+    // Rows per multi-row upsert; bounds both bind parameters and distinct statement strings
+    private static final int UPSERT_CHUNK_SIZE = 100;
+
+    // Summary keys of archived payments aggregated in memory before they are staged
+    private static final int REBUILD_FLUSH_SIZE = 10_000;
+
+    // Customers whose summaries a rebuild corrects per write transaction
+    private static final int REBUILD_CUSTOMER_BATCH = 500;
+
+    // Arbitrary key of the advisory lock that keeps replicas from rebuilding at the same time
+    private static final long REBUILD_LOCK = 0x53554D4D41525953L;
+
+    private static final String OLDEST_ATTACHED_PARTITION = """
+            SELECT MIN(CAST(c.relname AS TEXT))
+            FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = CAST('payments' AS REGCLASS) AND NOT i.inhdetachpending""";
+
+    // Dropped with the rebuild's transaction
+    private static final String CREATE_ARCHIVE_TOTALS = """
+            CREATE TEMPORARY TABLE customer_payment_rebuild_archive (
+                customer_id VARCHAR(255) NOT NULL,
+                created_on DATE NOT NULL,
+                currency VARCHAR(255) NOT NULL,
+                status VARCHAR(255) NOT NULL,
+                payment_count BIGINT NOT NULL,
+                total_amount DECIMAL(24, 4) NOT NULL,
+                PRIMARY KEY (customer_id, created_on, currency, status)
+            ) ON COMMIT DROP""";
+
+    private static final String STAGE_ARCHIVE = """
+            INSERT INTO customer_payment_rebuild_archive
+                (customer_id, created_on, currency, status, payment_count, total_amount)
+            VALUES %s
+            ON CONFLICT (customer_id, created_on, currency, status) DO UPDATE
+            SET payment_count = customer_payment_rebuild_archive.payment_count + excluded.payment_count,
+                total_amount = customer_payment_rebuild_archive.total_amount + excluded.total_amount""";
+
+    // Next customers with payments, archived payments or summary rows, in key order
+    private static final String NEXT_CUSTOMERS = """
+            SELECT customer_id FROM (
+                (SELECT DISTINCT customer_id FROM payments
+                 WHERE customer_id > :after ORDER BY customer_id LIMIT :limit)
+                UNION
+                (SELECT DISTINCT customer_id FROM customer_payment_rebuild_archive
+                 WHERE customer_id > :after ORDER BY customer_id LIMIT :limit)
+                UNION
+                (SELECT DISTINCT customer_id FROM customer_payment_daily_totals
+                 WHERE customer_id > :after ORDER BY customer_id LIMIT :limit)
+                UNION
+                (SELECT DISTINCT customer_id FROM customer_payment_totals
+                 WHERE customer_id > :after ORDER BY customer_id LIMIT :limit)
+            ) customers
+            ORDER BY customer_id
+            LIMIT :limit""";
+
+    // What the daily rows from rebuiltFrom on should hold minus what they hold; days
+    // before it belong to detached partitions and are left as they are
+    private static final String DAILY_CORRECTIONS = """
+            SELECT customer_id, created_on - DATE '1970-01-01', currency, status,
+                   SUM(payment_count), SUM(total_amount)
+            FROM (
+                SELECT customer_id, CAST(created_at AS DATE) AS created_on, currency, status,
+                       COUNT(*) AS payment_count, SUM(amount) AS total_amount
+                FROM payments
+                WHERE customer_id > :after AND customer_id <= :last
+                GROUP BY customer_id, CAST(created_at AS DATE), currency, status
+                UNION ALL
+                SELECT customer_id, created_on, currency, status, payment_count, total_amount
+                FROM customer_payment_rebuild_archive
+                WHERE customer_id > :after AND customer_id <= :last
+                UNION ALL
+                SELECT customer_id, created_on, currency, status, -payment_count, -total_amount
+                FROM customer_payment_daily_totals
+                WHERE customer_id > :after AND customer_id <= :last AND created_on >= :rebuiltFrom
+            ) deltas
+            GROUP BY customer_id, created_on, currency, status
+            HAVING SUM(payment_count) <> 0 OR SUM(total_amount) <> 0""";
+
+    // Same for the all-time rows, which keep the kept days' daily rows
+    private static final String TOTAL_CORRECTIONS = """
+            SELECT customer_id, currency, status, SUM(payment_count), SUM(total_amount)
+            FROM (
+                SELECT customer_id, currency, status, COUNT(*) AS payment_count, SUM(amount) AS total_amount
+                FROM payments
+                WHERE customer_id > :after AND customer_id <= :last
+                GROUP BY customer_id, currency, status
+                UNION ALL
+                SELECT customer_id, currency, status, payment_count, total_amount
+                FROM customer_payment_rebuild_archive
+                WHERE customer_id > :after AND customer_id <= :last
+                UNION ALL
+                SELECT customer_id, currency, status, payment_count, total_amount
+                FROM customer_payment_daily_totals
+                WHERE customer_id > :after AND customer_id <= :last AND created_on < :rebuiltFrom
+                UNION ALL
+                SELECT customer_id, currency, status, -payment_count, -total_amount
+                FROM customer_payment_totals
+                WHERE customer_id > :after AND customer_id <= :last
+            ) deltas
+            GROUP BY customer_id, currency, status
+            HAVING SUM(payment_count) <> 0 OR SUM(total_amount) <> 0""";
+
+    private static final String UPSERT_DAILY = """
+            insert into CustomerDailyTotalEntry (customerId, createdOn, currency, status, paymentCount, totalAmount)
+            values %s
+            on conflict (customerId, createdOn, currency, status) do update
+            set paymentCount = paymentCount + excluded.paymentCount, totalAmount = totalAmount + excluded.totalAmount""";
+
+    private static final String UPSERT_TOTAL = """
+            insert into CustomerTotalEntry (customerId, currency, status, paymentCount, totalAmount)
+            values %s
+            on conflict (customerId, currency, status) do update
+            set paymentCount = paymentCount + excluded.paymentCount, totalAmount = totalAmount + excluded.totalAmount""";
+
+    // Every writer upserts in this order, so transactions touching the same rows cannot deadlock
+    private static final Comparator<CustomerDailyTotalEntry.Key> DAILY_ORDER = Comparator
+            .comparing(CustomerDailyTotalEntry.Key::customerId)
+            .thenComparing(CustomerDailyTotalEntry.Key::createdOn)
+            .thenComparing(CustomerDailyTotalEntry.Key::currency)
+            .thenComparing(CustomerDailyTotalEntry.Key::status);
+    private static final Comparator<CustomerTotalEntry.Key> TOTAL_ORDER = Comparator
+            .comparing(CustomerTotalEntry.Key::customerId)
+            .thenComparing(CustomerTotalEntry.Key::currency)
+            .thenComparing(CustomerTotalEntry.Key::status);
+
+    private final EntityManager entityManager;
+    private final PaymentArchive archive;
+
+    @Inject
+    public CustomerSummaryJpaRepository(EntityManager entityManager, PaymentArchive archive) {
+        this.entityManager = entityManager;
+        this.archive = archive;
+    }
+
+    @Override
+    @Timed(value = "payments.repository", extraTags = { "method", "addPayments" })
+    public void addPayments(Collection<PaymentResponse> payments) {
+        Deltas deltas = new Deltas();
+        payments.forEach(payment -> deltas.add(payment, payment.getStatus(), 1));
+        apply(deltas);
+    }
+
+    @Override
+    @Timed(value = "payments.repository", extraTags = { "method", "movePayments" })
+    public void movePayments(Collection<PaymentResponse> payments, PaymentStatus previousStatus) {
+        Objects.requireNonNull(previousStatus, "previousStatus");
+        Deltas deltas = new Deltas();
+        for (PaymentResponse payment : payments) {
+            deltas.add(payment, previousStatus, -1);
+            deltas.add(payment, payment.getStatus(), 1);
+        }
+        apply(deltas);
+    }
+
+    @Override
+    @Timed(value = "payments.repository", extraTags = { "method", "findTotals" })
+    public List<CustomerPaymentTotal> findTotals(String customerId) {
+        return entityManager.createQuery(
+                "select new com.example.payments.dto.CustomerPaymentTotal(e.currency, e.status, e.paymentCount, e.totalAmount)"
+                        + " from CustomerTotalEntry e"
+                        + " where e.customerId = :customerId and e.paymentCount <> 0"
+                        + " order by e.currency, e.status",
+                CustomerPaymentTotal.class)
+                .setParameter("customerId", customerId)
+                .getResultList();
+    }
+
+    @Override
+    @Timed(value = "payments.repository", extraTags = { "method", "findTotalsInRange" })
+    public List<CustomerPaymentTotal> findTotals(String customerId, LocalDate from, LocalDate to) {
+        return entityManager.createQuery(
+                "select new com.example.payments.dto.CustomerPaymentTotal("
+                        + "e.currency, e.status, sum(e.paymentCount), sum(e.totalAmount))"
+                        + " from CustomerDailyTotalEntry e"
+                        + " where e.customerId = :customerId and e.createdOn between :from and :to"
+                        + " group by e.currency, e.status"
+                        + " having sum(e.paymentCount) <> 0"
+                        + " order by e.currency, e.status",
+                CustomerPaymentTotal.class)
+                .setParameter("customerId", customerId)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .getResultList();
+    }
+
+    @Override
+    @Timed(value = "payments.repository", extraTags = { "method", "findDailyTotals" })
+    public List<CustomerDailyPaymentTotal> findDailyTotals(
+            String customerId,
+            LocalDate from,
+            LocalDate to,
+            Currency currency) {
+
+        StringBuilder query = new StringBuilder(
+                "select new com.example.payments.dto.CustomerDailyPaymentTotal("
+                        + "e.createdOn, e.currency, e.status, e.paymentCount, e.totalAmount)"
+                        + " from CustomerDailyTotalEntry e"
+                        + " where e.customerId = :customerId and e.createdOn between :from and :to"
+                        + " and e.paymentCount <> 0");
+        if (currency != null) {
+            query.append(" and e.currency = :currency");
+        }
+        query.append(" order by e.createdOn, e.currency, e.status");
+
+        var typedQuery = entityManager.createQuery(query.toString(), CustomerDailyPaymentTotal.class)
+                .setParameter("customerId", customerId)
+                .setParameter("from", from)
+                .setParameter("to", to);
+        if (currency != null) {
+            typedQuery.setParameter("currency", currency);
+        }
+        return typedQuery.getResultList();
+    }
+
+    @Override
+    @Timed(value = "payments.repository", extraTags = { "method", "rebuild" })
+    public long rebuild() {
+        // Before any other statement, so every read below sees the same snapshot
+        entityManager.createNativeQuery("SET TRANSACTION ISOLATION LEVEL REPEATABLE READ").executeUpdate();
+        Boolean locked = (Boolean) entityManager.createNativeQuery("SELECT pg_try_advisory_xact_lock(:key)")
+                .setParameter("key", REBUILD_LOCK)
+                .getSingleResult();
+        if (!Boolean.TRUE.equals(locked)) {
+            throw new IllegalStateException("Customer summaries are already being rebuilt");
+        }
+        LocalDate rebuiltFrom = oldestAttachedMonth().atDay(1);
+
+        // Segments settled as of the snapshot: their payments are gone from the table read below
+        Set<String> settled = Set.copyOf(entityManager
+                .createQuery("select s.fileName from ArchivedSegment s", String.class)
+                .getResultList());
+        archive.refresh(settled);
+        entityManager.createNativeQuery(CREATE_ARCHIVE_TOTALS).executeUpdate();
+        Deltas archived = new Deltas();
+        archive.forEach(settled, rebuiltFrom.atStartOfDay(), payment -> {
+            archived.add(payment, payment.getStatus(), 1);
+            if (archived.daily.size() >= REBUILD_FLUSH_SIZE) {
+                stage(archived);
+                archived.clear();
+            }
+        });
+        stage(archived);
+
+        long corrected = 0;
+        String after = "";
+        List<String> customers;
+        while (!(customers = nextCustomers(after)).isEmpty()) {
+            String last = customers.get(customers.size() - 1);
+            Deltas corrections = corrections(after, last, rebuiltFrom);
+            // Added on top of whatever writers committed since the snapshot, like their own deltas
+            QuarkusTransaction.requiringNew().run(() -> apply(corrections));
+            corrected += corrections.daily.size() + corrections.totals.size();
+            after = last;
+        }
+        return corrected;
+    }
+
+    // Months before the oldest attached partition were detached; their payments are out of reach
+    private YearMonth oldestAttachedMonth() {
+        Object oldest = entityManager.createNativeQuery(OLDEST_ATTACHED_PARTITION).getSingleResult();
+        Matcher matcher = PaymentPartitionMaintainer.PARTITION_NAME.matcher(oldest == null ? "" : oldest.toString());
+        if (!matcher.matches()) {
+            throw new IllegalStateException("The payments table has no attached monthly partition");
+        }
+        return YearMonth.parse(matcher.group(1), PaymentPartitionMaintainer.PARTITION_MONTH);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> nextCustomers(String after) {
+        return entityManager.createNativeQuery(NEXT_CUSTOMERS)
+                .setParameter("after", after)
+                .setParameter("limit", REBUILD_CUSTOMER_BATCH)
+                .getResultList();
+    }
+
+    // Snapshot totals of the customers in (after, last] subtracted from their payments
+    @SuppressWarnings("unchecked")
+    private Deltas corrections(String after, String last, LocalDate rebuiltFrom) {
+        Deltas corrections = new Deltas();
+        List<Object[]> daily = entityManager.createNativeQuery(DAILY_CORRECTIONS)
+                .setParameter("after", after)
+                .setParameter("last", last)
+                .setParameter("rebuiltFrom", rebuiltFrom)
+                .getResultList();
+        for (Object[] row : daily) {
+            corrections.daily.computeIfAbsent(new CustomerDailyTotalEntry.Key((String) row[0],
+                    LocalDate.ofEpochDay(((Number) row[1]).longValue()), Currency.valueOf((String) row[2]),
+                    PaymentStatus.valueOf((String) row[3])), key -> new Delta())
+                    .add(((Number) row[4]).longValue(), (BigDecimal) row[5]);
+        }
+        List<Object[]> totals = entityManager.createNativeQuery(TOTAL_CORRECTIONS)
+                .setParameter("after", after)
+                .setParameter("last", last)
+                .setParameter("rebuiltFrom", rebuiltFrom)
+                .getResultList();
+        for (Object[] row : totals) {
+            corrections.totals.computeIfAbsent(new CustomerTotalEntry.Key((String) row[0],
+                    Currency.valueOf((String) row[1]), PaymentStatus.valueOf((String) row[2])), key -> new Delta())
+                    .add(((Number) row[3]).longValue(), (BigDecimal) row[4]);
+        }
+        return corrections;
+    }
+
+    // Archived payments per summary row, added to the rebuild's temporary table
+    private void stage(Deltas deltas) {
+        List<Map.Entry<CustomerDailyTotalEntry.Key, Delta>> daily = nonZero(deltas.daily);
+        for (int start = 0; start < daily.size(); start += UPSERT_CHUNK_SIZE) {
+            List<Map.Entry<CustomerDailyTotalEntry.Key, Delta>> chunk = daily.subList(start,
+                    Math.min(start + UPSERT_CHUNK_SIZE, daily.size()));
+            Query query = entityManager.createNativeQuery(STAGE_ARCHIVE.formatted(
+                    values(chunk.size(), ":customerId%1$d, :createdOn%1$d, :currency%1$d, :status%1$d")));
+            for (int i = 0; i < chunk.size(); i++) {
+                CustomerDailyTotalEntry.Key key = chunk.get(i).getKey();
+                query.setParameter("customerId" + i, key.customerId())
+                        .setParameter("createdOn" + i, key.createdOn())
+                        .setParameter("currency" + i, key.currency().name())
+                        .setParameter("status" + i, key.status().name());
+                setDelta(query, i, chunk.get(i).getValue());
+            }
+            query.executeUpdate();
+        }
+    }
+
+    private void apply(Deltas deltas) {
+        List<Map.Entry<CustomerDailyTotalEntry.Key, Delta>> daily = nonZero(deltas.daily);
+        for (int start = 0; start < daily.size(); start += UPSERT_CHUNK_SIZE) {
+            List<Map.Entry<CustomerDailyTotalEntry.Key, Delta>> chunk = daily.subList(start,
+                    Math.min(start + UPSERT_CHUNK_SIZE, daily.size()));
+            Query query = entityManager.createQuery(UPSERT_DAILY.formatted(
+                    values(chunk.size(), ":customerId%1$d, :createdOn%1$d, :currency%1$d, :status%1$d")));
+            for (int i = 0; i < chunk.size(); i++) {
+                CustomerDailyTotalEntry.Key key = chunk.get(i).getKey();
+                query.setParameter("customerId" + i, key.customerId())
+                        .setParameter("createdOn" + i, key.createdOn())
+                        .setParameter("currency" + i, key.currency())
+                        .setParameter("status" + i, key.status());
+                setDelta(query, i, chunk.get(i).getValue());
+            }
+            query.executeUpdate();
+        }
+
+        List<Map.Entry<CustomerTotalEntry.Key, Delta>> totals = nonZero(deltas.totals);
+        for (int start = 0; start < totals.size(); start += UPSERT_CHUNK_SIZE) {
+            List<Map.Entry<CustomerTotalEntry.Key, Delta>> chunk = totals.subList(start,
+                    Math.min(start + UPSERT_CHUNK_SIZE, totals.size()));
+            Query query = entityManager.createQuery(UPSERT_TOTAL.formatted(
+                    values(chunk.size(), ":customerId%1$d, :currency%1$d, :status%1$d")));
+            for (int i = 0; i < chunk.size(); i++) {
+                CustomerTotalEntry.Key key = chunk.get(i).getKey();
+                query.setParameter("customerId" + i, key.customerId())
+                        .setParameter("currency" + i, key.currency())
+                        .setParameter("status" + i, key.status());
+                setDelta(query, i, chunk.get(i).getValue());
+            }
+            query.executeUpdate();
+        }
+    }
+
+    private static <K> List<Map.Entry<K, Delta>> nonZero(Map<K, Delta> deltas) {
+        // Deltas that cancel out leave nothing to write
+        List<Map.Entry<K, Delta>> entries = new ArrayList<>();
+        for (Map.Entry<K, Delta> entry : deltas.entrySet()) {
+            if (entry.getValue().count != 0 || entry.getValue().amount.signum() != 0) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    // (:customerId0, ..., :count0, :amount0), (:customerId1, ...), ...
+    private static String values(int rows, String keyParameters) {
+        StringBuilder values = new StringBuilder();
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                values.append(", ");
+            }
+            values.append('(').append(keyParameters.formatted(i))
+                    .append(", :count").append(i)
+                    .append(", :amount").append(i)
+                    .append(')');
+        }
+        return values.toString();
+    }
+
+    private static void setDelta(Query query, int row, Delta delta) {
+        query.setParameter("count" + row, delta.count)
+                .setParameter("amount" + row, delta.amount);
+    }
+
+    /** Changes to apply, keyed and ordered by summary row. */
+    private static final class Deltas {
+
+        private final Map<CustomerDailyTotalEntry.Key, Delta> daily = new TreeMap<>(DAILY_ORDER);
+        private final Map<CustomerTotalEntry.Key, Delta> totals = new TreeMap<>(TOTAL_ORDER);
+
+        void add(PaymentResponse payment, PaymentStatus status, int sign) {
+            BigDecimal amount = sign < 0 ? payment.getAmount().negate() : payment.getAmount();
+            daily.computeIfAbsent(new CustomerDailyTotalEntry.Key(payment.getCustomerId(),
+                    payment.getCreatedAt().toLocalDate(), payment.getCurrency(), status), key -> new Delta())
+                    .add(sign, amount);
+            totals.computeIfAbsent(new CustomerTotalEntry.Key(payment.getCustomerId(),
+                    payment.getCurrency(), status), key -> new Delta())
+                    .add(sign, amount);
+        }
+
+        void clear() {
+            daily.clear();
+            totals.clear();
+        }
+    }
+
+    private static final class Delta {
+
+        private long count;
+        private BigDecimal amount = BigDecimal.ZERO;
+
+        void add(long count, BigDecimal amount) {
+            this.count += count;
+            this.amount = this.amount.add(amount);
+        }
+    }
+}
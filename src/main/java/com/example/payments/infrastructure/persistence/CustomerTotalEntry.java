@@ -0,0 +1,68 @@
+package com.example.payments.infrastructure.persistence;
+
+import java.math.BigDecimal;
+
+import com.example.payments.domain.Currency;
+import com.example.payments.domain.PaymentStatus;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+/**
+ * Row of customer_payment_totals: all-time count and amount of a customer's
+ * payments per currency and status.
+ */
+@Entity
+@Table(name = "customer_payment_totals")
+@IdClass(CustomerTotalEntry.Key.class)
+public class CustomerTotalEntry {
+
+    @Id
+    @Column(name = "customer_id")
+    private String customerId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private Currency currency;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private PaymentStatus status;
+
+    @Column(name = "payment_count", nullable = false)
+    private long paymentCount;
+
+    @Column(name = "total_amount", nullable = false, precision = 24, scale = 4)
+    private BigDecimal totalAmount;
+
+    public record Key(String customerId, Currency currency, PaymentStatus status) {
+    }
+
+    public CustomerTotalEntry() {
+    }
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    public PaymentStatus getStatus() {
+        return status;
+    }
+
+    public long getPaymentCount() {
+        return paymentCount;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+}
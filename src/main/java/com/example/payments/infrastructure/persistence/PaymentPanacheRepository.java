@@ -1,17 +1,56 @@
 package com.example.payments.infrastructure.persistence;
 
+import java.math.BigDecimal;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.hibernate.FlushMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.query.SelectionQuery;
+
+import com.example.payments.domain.Currency;
 import com.example.payments.domain.Payment;
+import com.example.payments.domain.PaymentMethod;
 import com.example.payments.domain.PaymentStatus;
+import com.example.payments.domain.PaymentStatusSnapshot;
+import com.example.payments.dto.PagedResponse;
+import com.example.payments.dto.PaymentResponse;
+import com.example.payments.exception.DuplicateReferenceException;
+import com.example.payments.infrastructure.archive.PaymentArchive;
 import com.example.payments.infrastructure.repository.PaymentRepository;
 
+import io.micrometer.core.annotation.Timed;
+import io.quarkus.hibernate.orm.panache.PanacheQuery;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
+import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceException;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
 
 /**
  * Panache implementation of the payment repository.
@@ -20,28 +59,156 @@ import jakarta.enterprise.context.ApplicationScoped;
 @ApplicationScoped
 public class PaymentPanacheRepository implements PaymentRepository, PanacheRepository<Payment> {
 
+    // Stable ordering shared by offset and keyset pagination
+    private static final Sort CREATED_AT_ID = Sort.by("createdAt").and("id");
+    private static final Comparator<PaymentResponse> CREATED_AT_ID_ORDER = Comparator
+            .comparing(PaymentResponse::getCreatedAt)
+            .thenComparing(PaymentResponse::getId);
+
+    // Claims the reference and inserts the payment in one statement; a taken reference
+    // inserts nothing and leaves the transaction usable (see V1.10.0)
+    private static final String INSERT_IF_ABSENT = """
+            WITH claim AS (
+                INSERT INTO payment_references (reference, payment_id, created_at)
+                VALUES (:reference, :id, :createdAt)
+                ON CONFLICT (reference) DO NOTHING
+                RETURNING payment_id
+            )
+            INSERT INTO payments (id, reference, customer_id, amount, currency, method, status, created_at, version)
+            SELECT payment_id, :reference, :customerId, :amount, :currency, :method, :status, :createdAt, 0
+            FROM claim
+            RETURNING id""";
+
+    // Top plan node of EXPLAIN output, e.g. "Seq Scan on payments  (cost=0.00..35.50 rows=2550 width=0)"
+    private static final Pattern PLAN_ROWS = Pattern.compile("rows=(\\d+)");
+
+    // The Flyway schema on PostgreSQL claims references in payment_references; the H2 test
+    // schema comes from Hibernate, with a plain unique constraint and no RETURNING
+    @Inject
+    @ConfigProperty(name = "quarkus.datasource.db-kind")
+    String dbKind;
+
+    // Rows read through it are never attached to a persistence context
+    @Inject
+    StatelessSession statelessSession;
+
+    // Cold tier holding archived final-status payments
+    @Inject
+    PaymentArchive archive;
+
+    // Deepest row an offset page may reach while it is merged with the archive
+    @Inject
+    @ConfigProperty(name = "payments.archive.max-merge-window", defaultValue = "10000")
+    int maxMergeWindow;
+
     @Override
+    @Timed(value = "payments.repository", extraTags = { "method", "save" })
     public Payment save(Payment payment) {
         if (payment.getId() == null) {
             persist(payment);
-        } else {
+        } else if (!getEntityManager().contains(payment)) {
+            // Managed entities are already tracked; only detached ones need merging
             payment = getEntityManager().merge(payment);
         }
         return payment;
     }
 
     @Override
+    @Timed(value = "payments.repository", extraTags = { "method", "saveAll" })
+    public List<Payment> saveAll(List<Payment> payments) {
+        // Sequence IDs are allocated in memory, so these inserts are sent as JDBC batches on flush
+        try {
+            persist(payments);
+            flush();
+            return payments;
+        } catch (PersistenceException e) {
+            if (isReferenceConflict(e)) {
+                throw new DuplicateReferenceException(payments.size());
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    @Timed(value = "payments.repository", extraTags = { "method", "insertIfAbsent" })
+    public Optional<Payment> insertIfAbsent(Payment payment) {
+        if (isPostgres()) {
+            Long id = nextId(payment);
+            List<?> inserted = getEntityManager().createNativeQuery(INSERT_IF_ABSENT)
+                    .setParameter("id", id)
+                    .setParameter("reference", payment.getReference())
+                    .setParameter("customerId", payment.getCustomerId())
+                    .setParameter("amount", payment.getAmount())
+                    .setParameter("currency", payment.getCurrency().name())
+                    .setParameter("method", payment.getMethod().name())
+                    .setParameter("status", payment.getStatus().name())
+                    .setParameter("createdAt", payment.getCreatedAt())
+                    .getResultList();
+            if (inserted.isEmpty()) {
+                return Optional.empty();
+            }
+            payment.setId(id);
+            return Optional.of(payment);
+        }
+        try {
+            persist(payment);
+            flush();
+            return Optional.of(payment);
+        } catch (PersistenceException e) {
+            if (isReferenceConflict(e)) {
+                return Optional.empty();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    @Timed(value = "payments.repository", extraTags = { "method", "findPaymentById" })
     public Optional<Payment> findPaymentById(Long id) {
-        return find("id", id).firstResultOptional();
+        return find("id", id).<Payment>firstResultOptional()
+                .or(() -> archive.findById(id).map(ArchiveMerge::toDetachedEntity));
     }
 
     @Override
+    @Timed(value = "payments.repository", extraTags = { "method", "findResponseById" })
+    public Optional<PaymentResponse> findResponseById(Long id) {
+        return readOnly(find("id", id).project(PaymentResponse.class))
+                .<PaymentResponse>firstResultOptional()
+                .or(() -> archive.findById(id));
+    }
+
+    @Override
+    @Timed(value = "payments.repository", extraTags = { "method", "findResponsesByIds" })
+    public List<PaymentResponse> findResponsesByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return readOnly(find("id in ?1", ids).project(PaymentResponse.class)).list();
+    }
+
+    @Override
+    @Timed(value = "payments.repository", extraTags = { "method", "existsByReference" })
     public boolean existsByReference(String reference) {
         return count("reference", reference) > 0;
     }
 
     @Override
-    public List<Payment> findByFilters(
+    @Timed(value = "payments.repository", extraTags = { "method", "findExistingReferences" })
+    public Set<String> findExistingReferences(Collection<String> references) {
+        if (references.isEmpty()) {
+            return Set.of();
+        }
+        // Claims cover detached partitions and archived payments too, and are a single
+        // primary key lookup per reference instead of one per partition
+        return new HashSet<>(getEntityManager()
+                .createQuery("select r.reference from PaymentReference r where r.reference in :references", String.class)
+                .setParameter("references", references)
+                .getResultList());
+    }
+
+    @Override
+    @Timed(value = "payments.repository", extraTags = { "method", "findByFilters" })
+    public List<PaymentResponse> findByFilters(
             PaymentStatus status,
             String customerId,
             LocalDateTime from,
@@ -49,40 +216,323 @@ public class PaymentPanacheRepository implements PaymentRepository, PanacheRepos
             int page,
             int size) {
 
-        StringBuilder query = new StringBuilder("1=1");
+        return findRange(status, customerId, from, to, PagedResponse.offset(page, size), size);
+    }
+
+    @Override
+    @Timed(value = "payments.repository", extraTags = { "method", "findSliceByFilters" })
+    public List<PaymentResponse> findSliceByFilters(
+            PaymentStatus status,
+            String customerId,
+            LocalDateTime from,
+            LocalDateTime to,
+            int offset,
+            int limit) {
+
+        return findRange(status, customerId, from, to, offset, limit);
+    }
+
+    @Override
+    @Timed(value = "payments.repository", extraTags = { "method", "findByFiltersAfter" })
+    public List<PaymentResponse> findByFiltersAfter(
+            PaymentStatus status,
+            String customerId,
+            LocalDateTime from,
+            LocalDateTime to,
+            LocalDateTime afterCreatedAt,
+            Long afterId,
+            int limit) {
+
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder query = buildFilterQuery(status, customerId, from, to, params);
+
+        if (afterCreatedAt != null && afterId != null) {
+            // Row-value comparison lets Postgres seek on the (created_at, id) index; the
+            // implied lower bound on createdAt is spelled out so partitions can be pruned
+            query.append(" AND (createdAt, id) > (:afterCreatedAt, :afterId) AND createdAt >= :afterCreatedAt");
+            params.put("afterCreatedAt", afterCreatedAt);
+            params.put("afterId", afterId);
+        }
+
+        List<PaymentResponse> hot = readOnly(find(query.toString(), CREATED_AT_ID, params).project(PaymentResponse.class))
+                .range(0, limit - 1)
+                .list();
+        if (!archive.mayContain(from, to)) {
+            return hot;
+        }
+        return ArchiveMerge.merge(hot, archive.find(status, customerId, from, to, afterCreatedAt, afterId, limit),
+                CREATED_AT_ID_ORDER, 0, limit);
+    }
+
+    @Override
+    @Timed(value = "payments.repository", extraTags = { "method", "forEachByFilters" })
+    public void forEachByFilters(
+            PaymentStatus status,
+            String customerId,
+            LocalDateTime from,
+            LocalDateTime to,
+            int fetchSize,
+            Consumer<Payment> action) {
+
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder query = buildFilterQuery(status, customerId, from, to, params);
+
+        SelectionQuery<Payment> selection = statelessSession
+                .createSelectionQuery("from Payment where " + query + " order by createdAt, id", Payment.class)
+                .setFetchSize(fetchSize);
+        params.forEach(selection::setParameter);
+
+        // With autocommit off and a fetch size, the Postgres driver reads through a cursor
+        try (ScrollableResults<Payment> rows = selection.scroll(ScrollMode.FORWARD_ONLY)) {
+            while (rows.next()) {
+                action.accept(rows.get());
+            }
+        }
+    }
+
+    @Override
+    @Timed(value = "payments.repository", extraTags = { "method", "findReferencesAfter" })
+    public List<String> findReferencesAfter(String after, int limit) {
+        // Keyset over the primary key of payment_references: every page is a short index range scan
+        TypedQuery<String> query = getEntityManager().createQuery("select r.reference from PaymentReference r"
+                + (after == null ? "" : " where r.reference > :after")
+                + " order by r.reference", String.class);
+        if (after != null) {
+            query.setParameter("after", after);
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    @Timed(value = "payments.repository", extraTags = { "method", "countReferences" })
+    public long countReferences() {
+        return getEntityManager()
+                .createQuery("select count(r) from PaymentReference r", Long.class)
+                .getSingleResult();
+    }
+
+    @Override
+    @Timed(value = "payments.repository", extraTags = { "method", "countByFilters" })
+    public long countByFilters(
+            PaymentStatus status,
+            String customerId,
+            LocalDateTime from,
+            LocalDateTime to) {
+
+        Map<String, Object> params = new HashMap<>();
+        StringBuilder query = buildFilterQuery(status, customerId, from, to, params);
+
+        long archived = archive.isEmpty() ? 0 : archive.count(status, customerId, from, to);
+        return count(query.toString(), params) + archived;
+    }
+
+    @Override
+    @Timed(value = "payments.repository", extraTags = { "method", "estimateByFilters" })
+    public long estimateByFilters(
+            PaymentStatus status,
+            String customerId,
+            LocalDateTime from,
+            LocalDateTime to) {
+
+        // Planner statistics are only reachable through native SQL
+        StringBuilder sql = new StringBuilder("EXPLAIN SELECT 1 FROM payments WHERE 1=1");
         Map<String, Object> params = new HashMap<>();
 
         if (status != null) {
-            query.append(" AND status = :status");
-            params.put("status", status);
+            sql.append(" AND status = :status");
+            params.put("status", status.name());
         }
         if (customerId != null && !customerId.isBlank()) {
-            query.append(" AND customerId = :customerId");
+            sql.append(" AND customer_id = :customerId");
             params.put("customerId", customerId);
         }
         if (from != null) {
-            query.append(" AND createdAt >= :from");
+            sql.append(" AND created_at >= :from");
             params.put("from", from);
         }
         if (to != null) {
-            query.append(" AND createdAt <= :to");
+            sql.append(" AND created_at <= :to");
             params.put("to", to);
         }
 
-        return find(query.toString(), params)
-                .page(page, size)
+        Query query = getEntityManager().createNativeQuery(sql.toString(), String.class);
+        params.forEach(query::setParameter);
+
+        String topNode = (String) query.getResultList().get(0);
+        Matcher matcher = PLAN_ROWS.matcher(topNode);
+        return matcher.find() ? Long.parseLong(matcher.group(1)) : 0L;
+    }
+
+    @Override
+    @Timed(value = "payments.repository", extraTags = { "method", "lockStatuses" })
+    public List<PaymentStatusSnapshot> lockStatuses(Collection<Long> ids, Collection<String> references) {
+        StringBuilder query = new StringBuilder(
+                "select new com.example.payments.domain.PaymentStatusSnapshot(p.id, p.reference, p.status)"
+                        + " from Payment p where 1=0");
+        Map<String, Object> params = new HashMap<>();
+
+        if (!ids.isEmpty()) {
+            query.append(" or p.id in :ids");
+            params.put("ids", ids);
+        }
+        if (!references.isEmpty()) {
+            query.append(" or p.reference in :references");
+            params.put("references", references);
+        }
+        if (params.isEmpty()) {
+            return List.of();
+        }
+
+        var typedQuery = getEntityManager()
+                .createQuery(query.toString(), PaymentStatusSnapshot.class)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE);
+        params.forEach(typedQuery::setParameter);
+        return typedQuery.getResultList();
+    }
+
+    @Override
+    @Timed(value = "payments.repository", extraTags = { "method", "updateStatuses" })
+    public int updateStatuses(Collection<Long> ids, Set<PaymentStatus> allowedSources, PaymentStatus newStatus) {
+        if (ids.isEmpty() || allowedSources.isEmpty()) {
+            return 0;
+        }
+        return getEntityManager()
+                .createQuery("update Payment p set p.status = :newStatus, p.version = p.version + 1"
+                        + " where p.id in :ids and p.status in :allowedSources")
+                .setParameter("newStatus", newStatus)
+                .setParameter("ids", ids)
+                .setParameter("allowedSources", allowedSources)
+                .executeUpdate();
+    }
+
+    @Override
+    @Timed(value = "payments.repository", extraTags = { "method", "updateStatusIfAllowed" })
+    @SuppressWarnings("unchecked")
+    public Optional<PaymentResponse> updateStatusIfAllowed(Long id, Set<PaymentStatus> allowedSources, PaymentStatus newStatus) {
+        if (allowedSources.isEmpty()) {
+            return Optional.empty();
+        }
+        if (!isPostgres()) {
+            return updateStatuses(List.of(id), allowedSources, newStatus) == 0
+                    ? Optional.empty()
+                    : findResponseById(id);
+        }
+        // The guard and the read are one statement, so a miss is the only case needing another query
+        List<Object[]> rows = getEntityManager()
+                .createNativeQuery("UPDATE payments SET status = :newStatus, version = version + 1"
+                        + " WHERE id = :id AND status IN (:allowedSources)"
+                        + " RETURNING id, reference, customer_id, amount, currency, method, status, created_at")
+                .setParameter("newStatus", newStatus.name())
+                .setParameter("id", id)
+                .setParameter("allowedSources", allowedSources.stream().map(Enum::name).toList())
+                .getResultList();
+        return rows.stream().findFirst().map(PaymentPanacheRepository::toResponse);
+    }
+
+    @Override
+    @Timed(value = "payments.repository", extraTags = { "method", "findArchivable" })
+    public List<PaymentResponse> findArchivable(
+            LocalDateTime createdBefore,
+            LocalDateTime afterCreatedAt,
+            Long afterId,
+            int limit) {
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("finalStatuses", Arrays.stream(PaymentStatus.values())
+                .filter(Payment::isFinalStatus)
+                .collect(Collectors.toSet()));
+        params.put("createdBefore", createdBefore);
+        StringBuilder query = new StringBuilder("status in :finalStatuses and createdAt < :createdBefore");
+        if (afterCreatedAt != null && afterId != null) {
+            query.append(" and (createdAt, id) > (:afterCreatedAt, :afterId) and createdAt >= :afterCreatedAt");
+            params.put("afterCreatedAt", afterCreatedAt);
+            params.put("afterId", afterId);
+        }
+        return readOnly(find(query.toString(), CREATED_AT_ID, params).project(PaymentResponse.class))
+                .range(0, limit - 1)
                 .list();
     }
 
     @Override
-    public long countByFilters(
+    @Timed(value = "payments.repository", extraTags = { "method", "deleteByIds" })
+    public int deleteByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return (int) delete("id in ?1", ids);
+    }
+
+    // Hot rows first, then archived rows only when a segment may hold some in range
+    private List<PaymentResponse> findRange(
             PaymentStatus status,
             String customerId,
             LocalDateTime from,
-            LocalDateTime to) {
+            LocalDateTime to,
+            int offset,
+            int limit) {
 
-        StringBuilder query = new StringBuilder("1=1");
         Map<String, Object> params = new HashMap<>();
+        StringBuilder query = buildFilterQuery(status, customerId, from, to, params);
+        PanacheQuery<PaymentResponse> hot = readOnly(find(query.toString(), CREATED_AT_ID, params)
+                .project(PaymentResponse.class));
+
+        if (!archive.mayContain(from, to)) {
+            return hot.range(offset, offset + limit - 1).list();
+        }
+        ArchiveMerge.checkWindow(offset, limit, maxMergeWindow);
+        return ArchiveMerge.merge(hot.range(0, offset + limit - 1).list(),
+                archive.find(status, customerId, from, to, null, null, offset + limit),
+                CREATED_AT_ID_ORDER, offset, limit);
+    }
+
+    // Columns in RETURNING order; the driver may hand timestamps back as java.sql.Timestamp
+    private static PaymentResponse toResponse(Object[] row) {
+        Object createdAt = row[7];
+        return new PaymentResponse(((Number) row[0]).longValue(), (String) row[1], (String) row[2],
+                (BigDecimal) row[3], Currency.valueOf((String) row[4]), PaymentMethod.valueOf((String) row[5]),
+                PaymentStatus.valueOf((String) row[6]),
+                createdAt instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) createdAt);
+    }
+
+    private boolean isPostgres() {
+        return "postgresql".equals(dbKind);
+    }
+
+    // Same pooled-lo allocation as persist(), so native inserts do not take a sequence block each
+    private Long nextId(Payment payment) {
+        SharedSessionContractImplementor session = getEntityManager().unwrap(SharedSessionContractImplementor.class);
+        BeforeExecutionGenerator generator = (BeforeExecutionGenerator) session
+                .getEntityPersister(null, payment)
+                .getGenerator();
+        return (Long) generator.generate(session, payment, null, EventType.INSERT);
+    }
+
+    // Projections are not managed, so there is nothing to dirty-check; skip the auto-flush check too
+    private static <T> PanacheQuery<T> readOnly(PanacheQuery<T> query) {
+        return query
+                .withHint(HibernateHints.HINT_READ_ONLY, true)
+                .withHint(HibernateHints.HINT_FLUSH_MODE, FlushMode.MANUAL);
+    }
+
+    private static boolean isReferenceConflict(Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                String constraint = violation.getConstraintName();
+                return constraint != null
+                        && constraint.toLowerCase(Locale.ROOT).contains(Payment.REFERENCE_CONSTRAINT);
+            }
+        }
+        return false;
+    }
+
+    private StringBuilder buildFilterQuery(
+            PaymentStatus status,
+            String customerId,
+            LocalDateTime from,
+            LocalDateTime to,
+            Map<String, Object> params) {
+
+        StringBuilder query = new StringBuilder("1=1");
 
         if (status != null) {
             query.append(" AND status = :status");
@@ -101,6 +551,6 @@ public class PaymentPanacheRepository implements PaymentRepository, PanacheRepos
             params.put("to", to);
         }
 
-        return count(query.toString(), params);
+        return query;
     }
 }
@@ -0,0 +1,147 @@
+package com.example.payments.infrastructure.persistence;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Keeps the monthly partitions of the payments table in shape: creates the
+ * upcoming months ahead of time and, when a retention is configured, detaches
+ * months older than it. Runs at startup and then on a fixed interval.
+ * Disabled unless payments.partitions.maintenance.enabled is true.
+ */
+@ApplicationScoped
+public class PaymentPartitionMaintainer {
+
+    private static final Logger LOG = Logger.getLogger(PaymentPartitionMaintainer.class);
+
+    // Partition names written by ensure_payment_partitions, e.g. payments_p2025_01
+    static final Pattern PARTITION_NAME = Pattern.compile("payments_p(\\d{4}_\\d{2})");
+    static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private static final String ATTACHED_PARTITIONS = """
+            SELECT c.relname, i.inhdetachpending
+            FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = 'payments'::regclass""";
+
+    private final boolean enabled;
+    private final int monthsAhead;
+    private final Optional<Integer> detachAfterMonths;
+    private final DataSource dataSource;
+
+    @Inject
+    public PaymentPartitionMaintainer(
+            @ConfigProperty(name = "payments.partitions.maintenance.enabled", defaultValue = "false") boolean enabled,
+            @ConfigProperty(name = "payments.partitions.months-ahead", defaultValue = "3") int monthsAhead,
+            @ConfigProperty(name = "payments.partitions.detach-after-months") Optional<Integer> detachAfterMonths,
+            DataSource dataSource) {
+        this.enabled = enabled;
+        this.monthsAhead = monthsAhead;
+        this.detachAfterMonths = detachAfterMonths;
+        this.dataSource = dataSource;
+    }
+
+    @Scheduled(identity = "payment-partition-maintenance",
+            every = "${payments.partitions.maintenance.interval:6h}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void maintain() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            ensureUpcomingPartitions();
+            if (detachAfterMonths.isPresent()) {
+                detachPartitionsBefore(YearMonth.now().minusMonths(detachAfterMonths.get()));
+            }
+        } catch (SQLException e) {
+            LOG.warnf(e, "Payment partition maintenance failed, retrying on the next run");
+        }
+    }
+
+    /**
+     * Creates the partitions from the current month up to
+     * payments.partitions.months-ahead months from now.
+     */
+    public int ensureUpcomingPartitions() throws SQLException {
+        LocalDateTime now = LocalDateTime.now();
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement statement = connection.prepareStatement("SELECT ensure_payment_partitions(?, ?)")) {
+            statement.setTimestamp(1, Timestamp.valueOf(now));
+            statement.setTimestamp(2, Timestamp.valueOf(now.plusMonths(monthsAhead)));
+            try (ResultSet result = statement.executeQuery()) {
+                result.next();
+                int created = result.getInt(1);
+                if (created > 0) {
+                    LOG.infof("Created %d payment partitions", created);
+                }
+                return created;
+            }
+        }
+    }
+
+    /**
+     * Detaches every monthly partition that ends before the given month. The
+     * detached tables keep their data under the same name, ready to be
+     * archived or dropped; their references stay claimed in payment_references.
+     *
+     * @return names of the partitions detached by this call
+     */
+    public List<String> detachPartitionsBefore(YearMonth month) throws SQLException {
+        List<String> detached = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection()) {
+            // DETACH ... CONCURRENTLY cannot run inside a transaction block
+            connection.setAutoCommit(true);
+            for (Partition partition : attachedPartitions(connection)) {
+                String name = partition.name();
+                Matcher matcher = PARTITION_NAME.matcher(name);
+                if (!matcher.matches() || !YearMonth.parse(matcher.group(1), PARTITION_MONTH).isBefore(month)) {
+                    continue;
+                }
+                try (Statement statement = connection.createStatement()) {
+                    // CONCURRENTLY only takes a SHARE UPDATE EXCLUSIVE lock, so inserts and
+                    // updates on the other partitions keep going. A detach interrupted
+                    // half-way leaves the partition pending and is completed with FINALIZE.
+                    statement.execute("ALTER TABLE payments DETACH PARTITION " + name
+                            + (partition.detachPending() ? " FINALIZE" : " CONCURRENTLY"));
+                }
+                detached.add(name);
+                LOG.infof("Detached payment partition %s", name);
+            }
+        }
+        return detached;
+    }
+
+    private static List<Partition> attachedPartitions(Connection connection) throws SQLException {
+        List<Partition> partitions = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+                ResultSet result = statement.executeQuery(ATTACHED_PARTITIONS)) {
+            while (result.next()) {
+                partitions.add(new Partition(result.getString(1), result.getBoolean(2)));
+            }
+        }
+        return partitions;
+    }
+
+    private record Partition(String name, boolean detachPending) {
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.payments.infrastructure.persistence;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Row of payment_references: the claim on a reference, inserted by the
+ * statement creating a single payment or else by a trigger on every insert
+ * into payments. Claims outlive detached partitions and archiving, so this is
+ * the complete set of references ever used. Read only; H2 test schemas have
+ * no trigger, so there it stays empty and duplicates surface as constraint
+ * violations on payments instead.
+ */
+@Entity
+@Immutable
+@Table(name = "payment_references")
+public class PaymentReference {
+
+    @Id
+    private String reference;
+
+    @Column(name = "payment_id", nullable = false)
+    private Long paymentId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public PaymentReference() {
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public Long getPaymentId() {
+        return paymentId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,255 @@
+package com.example.payments.infrastructure.persistence;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import com.example.payments.domain.Currency;
+import com.example.payments.domain.Payment;
+import com.example.payments.domain.PaymentMethod;
+import com.example.payments.domain.PaymentStatus;
+import com.example.payments.dto.PaymentResponse;
+import com.example.payments.infrastructure.archive.PaymentArchive;
+import com.example.payments.infrastructure.repository.ReactivePaymentRepository;
+
+import io.micrometer.core.annotation.Timed;
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import io.vertx.mutiny.sqlclient.Pool;
+import io.vertx.mutiny.sqlclient.Row;
+import io.vertx.mutiny.sqlclient.RowSet;
+import io.vertx.mutiny.sqlclient.Tuple;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Reactive PostgreSQL implementation of the payment reads, using the
+ * Vert.x SQL client. Statements run on the event loop with no thread held
+ * per request. Reads fall through to the {@link PaymentArchive} like the
+ * blocking repository; segment reads touch files, so they run on the worker
+ * pool. Enabled with {@code payments.execution-mode=reactive}.
+ */
+@ApplicationScoped
+@IfBuildProperty(name = "payments.execution-mode", stringValue = "reactive")
+public class PgReactivePaymentRepository implements ReactivePaymentRepository {
+
+    private static final String COLUMNS = "id, reference, customer_id, amount, currency, method, status, created_at";
+
+    // Top plan node of EXPLAIN output, e.g. "Seq Scan on payments  (cost=0.00..35.50 rows=2550 width=0)"
+    private static final Pattern PLAN_ROWS = Pattern.compile("rows=(\\d+)");
+
+    // Same ordering as the hot queries, used to merge in archived payments
+    private static final Comparator<Payment> CREATED_AT_ID_ORDER = Comparator
+            .comparing(Payment::getCreatedAt)
+            .thenComparing(Payment::getId);
+
+    private final Pool client;
+    private final PaymentArchive archive;
+    private final int maxMergeWindow;
+
+    @Inject
+    public PgReactivePaymentRepository(
+            Pool client,
+            PaymentArchive archive,
+            @ConfigProperty(name = "payments.archive.max-merge-window", defaultValue = "10000") int maxMergeWindow) {
+        this.client = client;
+        this.archive = archive;
+        this.maxMergeWindow = maxMergeWindow;
+    }
+
+    @Override
+    @Timed(value = "payments.repository", extraTags = { "method", "findPaymentById" })
+    public Uni<Optional<Payment>> findPaymentById(Long id) {
+        return client.preparedQuery("SELECT " + COLUMNS + " FROM payments WHERE id = $1")
+                .execute(Tuple.of(id))
+                .map(rows -> toPayments(rows).stream().findFirst())
+                .chain(found -> found.isPresent()
+                        ? Uni.createFrom().item(found)
+                        : onWorker(() -> archive.findById(id).map(ArchiveMerge::toDetachedEntity)));
+    }
+
+    @Override
+    @Timed(value = "payments.repository", extraTags = { "method", "findSliceByFilters" })
+    public Uni<List<Payment>> findSliceByFilters(
+            PaymentStatus status,
+            String customerId,
+            LocalDateTime from,
+            LocalDateTime to,
+            int offset,
+            int limit) {
+
+        if (!archive.mayContain(from, to)) {
+            return findHotSlice(status, customerId, from, to, offset, limit);
+        }
+        ArchiveMerge.checkWindow(offset, limit, maxMergeWindow);
+        return Uni.combine().all()
+                .unis(findHotSlice(status, customerId, from, to, 0, offset + limit),
+                        onWorker(() -> archive.find(status, customerId, from, to, null, null, offset + limit)))
+                .asTuple()
+                .map(result -> ArchiveMerge.merge(result.getItem1(), toEntities(result.getItem2()),
+                        CREATED_AT_ID_ORDER, offset, limit));
+    }
+
+    @Override
+    @Timed(value = "payments.repository", extraTags = { "method", "findByFiltersAfter" })
+    public Uni<List<Payment>> findByFiltersAfter(
+            PaymentStatus status,
+            String customerId,
+            LocalDateTime from,
+            LocalDateTime to,
+            LocalDateTime afterCreatedAt,
+            Long afterId,
+            int limit) {
+
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT " + COLUMNS + " FROM payments");
+        appendFilters(sql, params, status, customerId, from, to);
+        if (afterCreatedAt != null && afterId != null) {
+            params.add(afterCreatedAt);
+            params.add(afterId);
+            sql.append(" AND (created_at, id) > ($").append(params.size() - 1)
+                    .append(", $").append(params.size()).append(')')
+                    // Implied by the row comparison, but partition pruning only understands plain bounds
+                    .append(" AND created_at >= $").append(params.size() - 1);
+        }
+        params.add(limit);
+        sql.append(" ORDER BY created_at, id LIMIT $").append(params.size());
+
+        Uni<List<Payment>> hot = client.preparedQuery(sql.toString())
+                .execute(Tuple.from(params))
+                .map(PgReactivePaymentRepository::toPayments);
+        if (!archive.mayContain(from, to)) {
+            return hot;
+        }
+        return Uni.combine().all()
+                .unis(hot, onWorker(() -> archive.find(status, customerId, from, to, afterCreatedAt, afterId, limit)))
+                .asTuple()
+                .map(result -> ArchiveMerge.merge(result.getItem1(), toEntities(result.getItem2()),
+                        CREATED_AT_ID_ORDER, 0, limit));
+    }
+
+    @Override
+    @Timed(value = "payments.repository", extraTags = { "method", "countByFilters" })
+    public Uni<Long> countByFilters(
+            PaymentStatus status,
+            String customerId,
+            LocalDateTime from,
+            LocalDateTime to) {
+
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM payments");
+        appendFilters(sql, params, status, customerId, from, to);
+
+        Uni<Long> hot = client.preparedQuery(sql.toString())
+                .execute(Tuple.from(params))
+                .map(rows -> rows.iterator().next().getLong(0));
+        if (archive.isEmpty()) {
+            return hot;
+        }
+        return Uni.combine().all()
+                .unis(hot, onWorker(() -> archive.count(status, customerId, from, to)))
+                .asTuple()
+                .map(result -> result.getItem1() + result.getItem2());
+    }
+
+    @Override
+    @Timed(value = "payments.repository", extraTags = { "method", "estimateByFilters" })
+    public Uni<Long> estimateByFilters(
+            PaymentStatus status,
+            String customerId,
+            LocalDateTime from,
+            LocalDateTime to) {
+
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("EXPLAIN SELECT 1 FROM payments");
+        appendFilters(sql, params, status, customerId, from, to);
+
+        return client.preparedQuery(sql.toString())
+                .execute(Tuple.from(params))
+                .map(rows -> {
+                    Matcher matcher = PLAN_ROWS.matcher(rows.iterator().next().getString(0));
+                    return matcher.find() ? Long.parseLong(matcher.group(1)) : 0L;
+                });
+    }
+
+    private Uni<List<Payment>> findHotSlice(
+            PaymentStatus status,
+            String customerId,
+            LocalDateTime from,
+            LocalDateTime to,
+            int offset,
+            int limit) {
+
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT " + COLUMNS + " FROM payments");
+        appendFilters(sql, params, status, customerId, from, to);
+        params.add(limit);
+        params.add(offset);
+        sql.append(" ORDER BY created_at, id LIMIT $").append(params.size() - 1)
+                .append(" OFFSET $").append(params.size());
+
+        return client.preparedQuery(sql.toString())
+                .execute(Tuple.from(params))
+                .map(PgReactivePaymentRepository::toPayments);
+    }
+
+    private static void appendFilters(
+            StringBuilder sql,
+            List<Object> params,
+            PaymentStatus status,
+            String customerId,
+            LocalDateTime from,
+            LocalDateTime to) {
+
+        sql.append(" WHERE 1=1");
+        if (status != null) {
+            params.add(status.name());
+            sql.append(" AND status = $").append(params.size());
+        }
+        if (customerId != null && !customerId.isBlank()) {
+            params.add(customerId);
+            sql.append(" AND customer_id = $").append(params.size());
+        }
+        if (from != null) {
+            params.add(from);
+            sql.append(" AND created_at >= $").append(params.size());
+        }
+        if (to != null) {
+            params.add(to);
+            sql.append(" AND created_at <= $").append(params.size());
+        }
+    }
+
+    private static <T> Uni<T> onWorker(Supplier<T> read) {
+        return Uni.createFrom().item(read).runSubscriptionOn(Infrastructure.getDefaultWorkerPool());
+    }
+
+    private static List<Payment> toEntities(List<PaymentResponse> archived) {
+        return archived.stream().map(ArchiveMerge::toDetachedEntity).toList();
+    }
+
+    private static List<Payment> toPayments(RowSet<Row> rows) {
+        List<Payment> payments = new ArrayList<>(rows.rowCount());
+        for (Row row : rows) {
+            Payment payment = new Payment();
+            payment.setId(row.getLong("id"));
+            payment.setReference(row.getString("reference"));
+            payment.setCustomerId(row.getString("customer_id"));
+            payment.setAmount(row.getBigDecimal("amount"));
+            payment.setCurrency(Currency.valueOf(row.getString("currency")));
+            payment.setMethod(PaymentMethod.valueOf(row.getString("method")));
+            payment.setStatus(PaymentStatus.valueOf(row.getString("status")));
+            payment.setCreatedAt(row.getLocalDateTime("created_at"));
+            payments.add(payment);
+        }
+        return payments;
+    }
+}
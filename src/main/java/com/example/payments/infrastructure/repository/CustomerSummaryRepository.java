@@ -0,0 +1,86 @@
+package com.example.payments.infrastructure.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+import com.example.payments.domain.Currency;
+import com.example.payments.domain.PaymentStatus;
+import com.example.payments.dto.CustomerDailyPaymentTotal;
+import com.example.payments.dto.CustomerPaymentTotal;
+import com.example.payments.dto.PaymentResponse;
+
+/**
+ * Port (interface) for the per-customer payment summaries.
+ * Summaries are adjusted by the transactions that create payments or change
+ * their status, so reads never aggregate payments.
+ */
+public interface CustomerSummaryRepository {
+
+        /**
+         * Adds newly created payments to the summaries of their customers.
+         * Must be called in the transaction that inserts them.
+         * 
+         * @param payments the created payments
+         */
+        void addPayments(Collection<PaymentResponse> payments);
+
+        /**
+         * Moves payments that changed status from the totals of their
+         * previous status to those of their current one. Must be called in
+         * the transaction that updates them.
+         * 
+         * @param payments       the payments, with their new status
+         * @param previousStatus the status the payments had before
+         */
+        void movePayments(Collection<PaymentResponse> payments, PaymentStatus previousStatus);
+
+        /**
+         * Returns the all-time totals of a customer per currency and status.
+         * 
+         * @param customerId the customer ID
+         * @return totals ordered by currency and status, empty for unknown
+         *         customers
+         */
+        List<CustomerPaymentTotal> findTotals(String customerId);
+
+        /**
+         * Returns the totals of a customer per currency and status for the
+         * payments created between two days, both inclusive. Reads one row
+         * per day, currency and status in range.
+         * 
+         * @param customerId the customer ID
+         * @param from       first creation day
+         * @param to         last creation day
+         * @return totals ordered by currency and status
+         */
+        List<CustomerPaymentTotal> findTotals(String customerId, LocalDate from, LocalDate to);
+
+        /**
+         * Returns the totals of a customer per creation day, currency and
+         * status between two days, both inclusive.
+         * 
+         * @param customerId the customer ID
+         * @param from       first creation day
+         * @param to         last creation day
+         * @param currency   filter by currency (nullable)
+         * @return totals ordered by day, currency and status
+         */
+        List<CustomerDailyPaymentTotal> findDailyTotals(
+                        String customerId,
+                        LocalDate from,
+                        LocalDate to,
+                        Currency currency);
+
+        /**
+         * Recomputes every summary from the payments table and the archive,
+         * without blocking payment writes. Days before the oldest attached
+         * partition keep their summary rows. Must be called as the first
+         * statement of a transaction, which only reads; corrections are
+         * committed in transactions of their own. Fails if another rebuild
+         * is running.
+         * 
+         * @return number of summary rows corrected
+         */
+        long rebuild();
+}
@@ -1,15 +1,22 @@
 package com.example.payments.infrastructure.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import com.example.payments.domain.Payment;
 import com.example.payments.domain.PaymentStatus;
+import com.example.payments.domain.PaymentStatusSnapshot;
+import com.example.payments.dto.PaymentResponse;
+import com.example.payments.exception.DuplicateReferenceException;
 
 /**
  * Port (interface) for payment persistence operations.
  * This abstracts the persistence mechanism from the domain.
+ * Reads by ID and filtered listings cover archived payments as well.
  */
 public interface PaymentRepository {
 
@@ -22,13 +29,54 @@ public interface PaymentRepository {
         Payment save(Payment payment);
 
         /**
-         * Finds a payment by its ID.
+         * Saves new payments using JDBC batch inserts.
+         * 
+         * @param payments the new payments to insert
+         * @return the saved payments with generated IDs
+         * @throws DuplicateReferenceException if one of the references is
+         *         already taken; the current transaction must be rolled back
+         */
+        List<Payment> saveAll(List<Payment> payments);
+
+        /**
+         * Inserts a new payment unless its reference is already taken, with a
+         * single INSERT ... ON CONFLICT (reference) DO NOTHING. A taken
+         * reference inserts nothing and the transaction stays usable; only on
+         * the H2 test schema does it fail the flush and need a rollback.
+         * 
+         * @param payment the new payment to insert
+         * @return the inserted payment with generated ID, or empty if the
+         *         reference already exists
+         */
+        Optional<Payment> insertIfAbsent(Payment payment);
+
+        /**
+         * Finds a payment by its ID, in the payments table or the archive.
+         * Archived payments are returned as detached entities.
          * 
          * @param id the payment ID
          * @return the payment if found
          */
         Optional<Payment> findPaymentById(Long id);
 
+        /**
+         * Reads a payment by its ID straight into its response form, without
+         * loading a managed entity.
+         * 
+         * @param id the payment ID
+         * @return the payment if found
+         */
+        Optional<PaymentResponse> findResponseById(Long id);
+
+        /**
+         * Reads payments of the payments table by ID straight into their
+         * response form. Archived payments are not included.
+         * 
+         * @param ids the payment IDs
+         * @return the payments found, in no particular order
+         */
+        List<PaymentResponse> findResponsesByIds(Collection<Long> ids);
+
         /**
          * Checks if a payment with the given reference exists.
          * 
@@ -38,7 +86,18 @@ public interface PaymentRepository {
         boolean existsByReference(String reference);
 
         /**
-         * Finds payments with optional filters and pagination.
+         * Returns which of the given references already exist, in a single query.
+         * Covers every reference ever claimed, including those of archived
+         * payments and detached partitions.
+         * 
+         * @param references the payment references to check
+         * @return the subset of references that already exist
+         */
+        Set<String> findExistingReferences(Collection<String> references);
+
+        /**
+         * Finds payments with optional filters and pagination. Rows are
+         * projected into responses; no entities are loaded.
          * 
          * @param status     filter by status (nullable)
          * @param customerId filter by customer ID (nullable)
@@ -48,7 +107,7 @@ public interface PaymentRepository {
          * @param size       page size
          * @return list of matching payments
          */
-        List<Payment> findByFilters(
+        List<PaymentResponse> findByFilters(
                         PaymentStatus status,
                         String customerId,
                         LocalDateTime from,
@@ -56,6 +115,91 @@ public interface PaymentRepository {
                         int page,
                         int size);
 
+        /**
+         * Finds payments with optional filters starting at an arbitrary row
+         * offset. Used to fetch one row past the page to detect a next page
+         * without counting. Rows are projected into responses.
+         *
+         * @param status     filter by status (nullable)
+         * @param customerId filter by customer ID (nullable)
+         * @param from       filter by creation date from (nullable)
+         * @param to         filter by creation date to (nullable)
+         * @param offset     number of rows to skip
+         * @param limit      maximum number of rows to return
+         * @return list of matching payments
+         */
+        List<PaymentResponse> findSliceByFilters(
+                        PaymentStatus status,
+                        String customerId,
+                        LocalDateTime from,
+                        LocalDateTime to,
+                        int offset,
+                        int limit);
+
+        /**
+         * Finds payments with optional filters using keyset pagination.
+         * Results are ordered by (createdAt, id) and start strictly after the
+         * given position, so deep pages cost the same as the first one. Rows
+         * are projected into responses.
+         *
+         * @param status         filter by status (nullable)
+         * @param customerId     filter by customer ID (nullable)
+         * @param from           filter by creation date from (nullable)
+         * @param to             filter by creation date to (nullable)
+         * @param afterCreatedAt creation date of the last row already seen
+         *                       (nullable for the first page)
+         * @param afterId        ID of the last row already seen (nullable for
+         *                       the first page)
+         * @param limit          maximum number of rows to return
+         * @return list of matching payments
+         */
+        List<PaymentResponse> findByFiltersAfter(
+                        PaymentStatus status,
+                        String customerId,
+                        LocalDateTime from,
+                        LocalDateTime to,
+                        LocalDateTime afterCreatedAt,
+                        Long afterId,
+                        int limit);
+
+        /**
+         * Streams every payment in the payments table matching the filters,
+         * ordered by (createdAt, id), from a server-side cursor. Archived
+         * payments are not included. Rows are not attached to a
+         * persistence context, so memory use stays constant regardless of how
+         * many rows match. Must be called inside a transaction.
+         *
+         * @param status     filter by status (nullable)
+         * @param customerId filter by customer ID (nullable)
+         * @param from       filter by creation date from (nullable)
+         * @param to         filter by creation date to (nullable)
+         * @param fetchSize  rows fetched from the database per round trip
+         * @param action     called once per matching payment
+         */
+        void forEachByFilters(
+                        PaymentStatus status,
+                        String customerId,
+                        LocalDateTime from,
+                        LocalDateTime to,
+                        int fetchSize,
+                        Consumer<Payment> action);
+
+        /**
+         * Returns the next references claimed in payment_references, in
+         * reference order. Claims are never removed, so they cover archived
+         * payments and detached partitions too.
+         *
+         * @param after last reference of the previous page, null for the first
+         * @param limit maximum number of references returned
+         * @return the references after the given one
+         */
+        List<String> findReferencesAfter(String after, int limit);
+
+        /**
+         * Counts the references claimed in payment_references.
+         */
+        long countReferences();
+
         /**
          * Counts payments matching the filters (for pagination).
          * 
@@ -70,4 +214,81 @@ public interface PaymentRepository {
                         String customerId,
                         LocalDateTime from,
                         LocalDateTime to);
+
+        /**
+         * Estimates how many payments match the filters from planner
+         * statistics, without scanning the matching rows.
+         *
+         * @param status     filter by status (nullable)
+         * @param customerId filter by customer ID (nullable)
+         * @param from       filter by creation date from (nullable)
+         * @param to         filter by creation date to (nullable)
+         * @return estimated count of matching payments
+         */
+        long estimateByFilters(
+                        PaymentStatus status,
+                        String customerId,
+                        LocalDateTime from,
+                        LocalDateTime to);
+
+        /**
+         * Reads the current status of the payments matching any of the given
+         * IDs or references and locks their rows until the transaction ends.
+         *
+         * @param ids        payment IDs (may be empty)
+         * @param references payment references (may be empty)
+         * @return status snapshots of the payments that exist
+         */
+        List<PaymentStatusSnapshot> lockStatuses(Collection<Long> ids, Collection<String> references);
+
+        /**
+         * Moves the given payments to a new status with a single set-based
+         * UPDATE, guarded so only rows still in one of the allowed source
+         * statuses change, and increments their version. With a single ID this
+         * is a compare-and-set: a concurrent change makes it update nothing.
+         *
+         * @param ids            payment IDs to update
+         * @param allowedSources statuses a row must currently have to change
+         * @param newStatus      the target status
+         * @return number of rows updated
+         */
+        int updateStatuses(Collection<Long> ids, Set<PaymentStatus> allowedSources, PaymentStatus newStatus);
+
+        /**
+         * Moves a payment to a new status with a single guarded UPDATE that
+         * returns the changed row, so it only changes if its current status is
+         * one of the allowed sources, and needs no read afterwards (the H2 test
+         * schema, which has no RETURNING, reads the row back).
+         *
+         * @param id             the payment ID
+         * @param allowedSources statuses the payment must currently have
+         * @param newStatus      the target status
+         * @return the updated payment, or empty if it does not exist or was
+         *         not in an allowed status
+         */
+        Optional<PaymentResponse> updateStatusIfAllowed(Long id, Set<PaymentStatus> allowedSources, PaymentStatus newStatus);
+
+        /**
+         * Returns payments in a final status created before the given date,
+         * ordered by (createdAt, id), as candidates for archiving.
+         *
+         * @param createdBefore  exclusive upper bound on the creation date
+         * @param afterCreatedAt creation date of the last payment already returned, or null
+         * @param afterId        ID of the last payment already returned, or null
+         * @param limit          maximum number of payments to return
+         * @return payments that can be archived
+         */
+        List<PaymentResponse> findArchivable(
+                        LocalDateTime createdBefore,
+                        LocalDateTime afterCreatedAt,
+                        Long afterId,
+                        int limit);
+
+        /**
+         * Deletes the given payments from the payments table.
+         *
+         * @param ids payment IDs to delete
+         * @return number of rows deleted
+         */
+        int deleteByIds(Collection<Long> ids);
 }
@@ -0,0 +1,102 @@
+package com.example.payments.infrastructure.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import com.example.payments.domain.Payment;
+import com.example.payments.domain.PaymentStatus;
+
+import io.smallrye.mutiny.Uni;
+
+/**
+ * Non-blocking port for the payment reads on the hot request paths. Mirrors
+ * {@link PaymentRepository}; results are delivered asynchronously without
+ * holding a thread while the database works. Writes go through
+ * {@link PaymentRepository}, in the same transaction as the summaries and
+ * outbox events they cause.
+ */
+public interface ReactivePaymentRepository {
+
+        /**
+         * Finds a payment by its ID.
+         * 
+         * @param id the payment ID
+         * @return the payment if found
+         */
+        Uni<Optional<Payment>> findPaymentById(Long id);
+
+        /**
+         * Finds payments with optional filters starting at an arbitrary row
+         * offset, ordered by (createdAt, id).
+         *
+         * @param status     filter by status (nullable)
+         * @param customerId filter by customer ID (nullable)
+         * @param from       filter by creation date from (nullable)
+         * @param to         filter by creation date to (nullable)
+         * @param offset     number of rows to skip
+         * @param limit      maximum number of rows to return
+         * @return list of matching payments
+         */
+        Uni<List<Payment>> findSliceByFilters(
+                        PaymentStatus status,
+                        String customerId,
+                        LocalDateTime from,
+                        LocalDateTime to,
+                        int offset,
+                        int limit);
+
+        /**
+         * Finds payments with optional filters using keyset pagination.
+         *
+         * @param status         filter by status (nullable)
+         * @param customerId     filter by customer ID (nullable)
+         * @param from           filter by creation date from (nullable)
+         * @param to             filter by creation date to (nullable)
+         * @param afterCreatedAt creation date of the last row already seen
+         *                       (nullable for the first page)
+         * @param afterId        ID of the last row already seen (nullable for
+         *                       the first page)
+         * @param limit          maximum number of rows to return
+         * @return list of matching payments
+         */
+        Uni<List<Payment>> findByFiltersAfter(
+                        PaymentStatus status,
+                        String customerId,
+                        LocalDateTime from,
+                        LocalDateTime to,
+                        LocalDateTime afterCreatedAt,
+                        Long afterId,
+                        int limit);
+
+        /**
+         * Counts payments matching the filters.
+         *
+         * @param status     filter by status (nullable)
+         * @param customerId filter by customer ID (nullable)
+         * @param from       filter by creation date from (nullable)
+         * @param to         filter by creation date to (nullable)
+         * @return total count of matching payments
+         */
+        Uni<Long> countByFilters(
+                        PaymentStatus status,
+                        String customerId,
+                        LocalDateTime from,
+                        LocalDateTime to);
+
+        /**
+         * Estimates how many payments match the filters from planner
+         * statistics.
+         *
+         * @param status     filter by status (nullable)
+         * @param customerId filter by customer ID (nullable)
+         * @param from       filter by creation date from (nullable)
+         * @param to         filter by creation date to (nullable)
+         * @return estimated count of matching payments
+         */
+        Uni<Long> estimateByFilters(
+                        PaymentStatus status,
+                        String customerId,
+                        LocalDateTime from,
+                        LocalDateTime to);
+}
@@ -0,0 +1,101 @@
+package com.example.payments.infrastructure.rest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import com.example.payments.application.CustomerSummaryService;
+import com.example.payments.infrastructure.cache.PaymentReferenceFilter;
+
+import io.quarkus.vertx.http.ManagementInterface;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+/**
+ * Maintenance operations, served on the management interface
+ * (quarkus.management.port) instead of the public API. Every request must
+ * carry "Authorization: Bearer " followed by payments.admin.token; without a
+ * token configured the routes are not registered at all.
+ * <p>
+ * POST /admin/customer-summaries/rebuild starts {@link CustomerSummaryService#rebuild()}
+ * in the background: 202 when started, 409 while one is already running on
+ * this replica. The rebuild itself refuses to run on two replicas at once.
+ * <p>
+ * POST /admin/reference-filter/rebuild reloads this replica's
+ * {@link PaymentReferenceFilter}: 202 when started, 409 while a reload is
+ * running or the filter is disabled.
+ */
+@ApplicationScoped
+public class AdminRoutes {
+
+    private static final Logger LOG = Logger.getLogger(AdminRoutes.class);
+
+    private final Optional<String> token;
+    private final CustomerSummaryService summaryService;
+    private final PaymentReferenceFilter referenceFilter;
+
+    private final AtomicBoolean rebuildingSummaries = new AtomicBoolean();
+
+    @Inject
+    public AdminRoutes(
+            @ConfigProperty(name = "payments.admin.token") Optional<String> token,
+            CustomerSummaryService summaryService,
+            PaymentReferenceFilter referenceFilter) {
+        this.token = token.filter(value -> !value.isBlank());
+        this.summaryService = summaryService;
+        this.referenceFilter = referenceFilter;
+    }
+
+    void register(@Observes ManagementInterface managementInterface) {
+        if (token.isEmpty()) {
+            LOG.info("payments.admin.token is not set; admin routes are disabled");
+            return;
+        }
+        Router router = managementInterface.router();
+        router.route("/admin/*").handler(this::authorize);
+        router.post("/admin/customer-summaries/rebuild").handler(this::rebuildSummaries);
+        router.post("/admin/reference-filter/rebuild").handler(this::rebuildReferenceFilter);
+    }
+
+    private void authorize(RoutingContext context) {
+        String authorization = context.request().getHeader(HttpHeaders.AUTHORIZATION);
+        byte[] expected = ("Bearer " + token.orElseThrow()).getBytes(StandardCharsets.UTF_8);
+        // Constant-time, so response times do not leak the token
+        if (authorization != null
+                && MessageDigest.isEqual(authorization.getBytes(StandardCharsets.UTF_8), expected)) {
+            context.next();
+        } else {
+            context.response().setStatusCode(401).end();
+        }
+    }
+
+    private void rebuildSummaries(RoutingContext context) {
+        if (!rebuildingSummaries.compareAndSet(false, true)) {
+            context.response().setStatusCode(409).end();
+            return;
+        }
+        Thread.ofPlatform().daemon().name("customer-summary-rebuild").start(() -> {
+            try {
+                summaryService.rebuild();
+            } catch (RuntimeException e) {
+                LOG.errorf(e, "Customer summary rebuild failed");
+            } finally {
+                rebuildingSummaries.set(false);
+            }
+        });
+        context.response().setStatusCode(202).end();
+    }
+
+    // Loads in the background on its own thread
+    private void rebuildReferenceFilter(RoutingContext context) {
+        context.response().setStatusCode(referenceFilter.rebuild() ? 202 : 409).end();
+    }
+}
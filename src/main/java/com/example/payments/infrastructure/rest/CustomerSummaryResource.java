@@ -0,0 +1,85 @@
+package com.example.payments.infrastructure.rest;
+
+import java.time.LocalDate;
+
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+import com.example.payments.application.CustomerSummaryService;
+import com.example.payments.domain.Currency;
+import com.example.payments.dto.CustomerDailyPaymentTotal;
+import com.example.payments.dto.CustomerPaymentTotal;
+import com.example.payments.dto.CustomerSummaryResponse;
+import com.example.payments.exception.ErrorResponse;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * REST controller for per-customer payment summaries, served from summary
+ * rows maintained as payments are created and change status.
+ */
+@Path("/api/customers")
+@Produces(MediaType.APPLICATION_JSON)
+@Tag(name = "Customers", description = "Per-customer payment summaries")
+public class CustomerSummaryResource {
+
+    private final CustomerSummaryService summaryService;
+
+    @Inject
+    public CustomerSummaryResource(CustomerSummaryService summaryService) {
+        this.summaryService = summaryService;
+    }
+
+    @GET
+    @Path("/{customerId}/summary")
+    @Operation(summary = "Get customer payment totals", description = "Returns the count and amount of the customer's payments per currency and status, "
+            + "all-time or for payments created between from and to (inclusive).")
+    @APIResponses({
+            @APIResponse(responseCode = "200", description = "Customer totals", content = @Content(schema = @Schema(implementation = CustomerSummaryResponse.class))),
+            @APIResponse(responseCode = "400", description = "Invalid date range", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public Response getSummary(
+            @Parameter(description = "Customer ID", required = true) @PathParam("customerId") String customerId,
+
+            @Parameter(description = "First creation day (ISO format, requires to)") @QueryParam("from") LocalDate from,
+
+            @Parameter(description = "Last creation day (ISO format, requires from)") @QueryParam("to") LocalDate to) {
+
+        CustomerSummaryResponse<CustomerPaymentTotal> response = summaryService.summarize(customerId, from, to);
+        return Response.ok(response).build();
+    }
+
+    @GET
+    @Path("/{customerId}/summary/daily")
+    @Operation(summary = "Get customer payment totals per day", description = "Returns the count and amount of the customer's payments per creation day, "
+            + "currency and status between from and to (inclusive).")
+    @APIResponses({
+            @APIResponse(responseCode = "200", description = "Customer totals per day", content = @Content(schema = @Schema(implementation = CustomerSummaryResponse.class))),
+            @APIResponse(responseCode = "400", description = "Invalid date range", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public Response getDailySummary(
+            @Parameter(description = "Customer ID", required = true) @PathParam("customerId") String customerId,
+
+            @Parameter(description = "First creation day (ISO format)", required = true) @QueryParam("from") LocalDate from,
+
+            @Parameter(description = "Last creation day (ISO format)", required = true) @QueryParam("to") LocalDate to,
+
+            @Parameter(description = "Filter by currency") @QueryParam("currency") Currency currency) {
+
+        CustomerSummaryResponse<CustomerDailyPaymentTotal> response = summaryService.summarizeDaily(
+                customerId, from, to, currency);
+        return Response.ok(response).build();
+    }
+}
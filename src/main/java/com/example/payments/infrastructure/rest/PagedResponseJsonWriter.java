@@ -0,0 +1,68 @@
+package com.example.payments.infrastructure.rest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+import org.jboss.resteasy.reactive.server.spi.ResteasyReactiveResourceInfo;
+import org.jboss.resteasy.reactive.server.spi.ServerMessageBodyWriter;
+import org.jboss.resteasy.reactive.server.spi.ServerRequestContext;
+
+import com.example.payments.dto.PagedResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.vertx.core.buffer.Buffer;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Writes pages of payments with {@link PaymentJsonEncoder} instead of
+ * Jackson databind. The item type is erased, so it is checked per page;
+ * pages of anything else are written with the application's ObjectMapper.
+ */
+@Provider
+@Produces(MediaType.APPLICATION_JSON)
+public class PagedResponseJsonWriter implements ServerMessageBodyWriter<PagedResponse<?>> {
+
+    private final ObjectMapper objectMapper;
+
+    @Inject
+    public PagedResponseJsonWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, ResteasyReactiveResourceInfo target, MediaType mediaType) {
+        return type == PagedResponse.class;
+    }
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return type == PagedResponse.class;
+    }
+
+    @Override
+    public void writeResponse(PagedResponse<?> page, Type genericType, ServerRequestContext context) throws IOException {
+        context.serverResponse().end(encode(page).getBytes());
+    }
+
+    @Override
+    public void writeTo(PagedResponse<?> page, Class<?> type, Type genericType, Annotation[] annotations,
+            MediaType mediaType, MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream)
+            throws IOException {
+        entityStream.write(encode(page).getBytes());
+    }
+
+    private Buffer encode(PagedResponse<?> page) throws IOException {
+        if (!PaymentJsonEncoder.isPaymentPage(page)) {
+            return Buffer.buffer(objectMapper.writeValueAsBytes(page));
+        }
+        Buffer buffer = Buffer.buffer(PaymentJsonEncoder.sizeHint(page.getContent() == null ? 0 : page.getContent().size()));
+        PaymentJsonEncoder.writePage(buffer, page);
+        return buffer;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.payments.infrastructure.rest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+import com.example.payments.dto.ExportFormat;
+import com.example.payments.dto.PaymentResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Writes exported payments to the response one row at a time, so memory
+ * use does not depend on how many rows are exported.
+ */
+abstract class PaymentExportWriter {
+
+    protected final OutputStream out;
+
+    protected PaymentExportWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    static PaymentExportWriter create(ExportFormat format, ObjectMapper objectMapper, OutputStream out) {
+        return switch (format) {
+            case NDJSON -> new NdjsonWriter(objectMapper, out);
+            case CSV -> new CsvWriter(out);
+        };
+    }
+
+    /**
+     * Writes anything that precedes the rows (e.g. a CSV header).
+     */
+    void begin() throws IOException {
+    }
+
+    /**
+     * Writes one row. Wraps I/O errors so it can be used as a row callback.
+     */
+    void write(PaymentResponse payment) {
+        try {
+            writeRow(payment);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    protected abstract void writeRow(PaymentResponse payment) throws IOException;
+
+    private static final class NdjsonWriter extends PaymentExportWriter {
+
+        private final ObjectWriter writer;
+
+        NdjsonWriter(ObjectMapper objectMapper, OutputStream out) {
+            super(out);
+            this.writer = objectMapper.writerFor(PaymentResponse.class);
+        }
+
+        @Override
+        protected void writeRow(PaymentResponse payment) throws IOException {
+            out.write(writer.writeValueAsBytes(payment));
+            out.write('\n');
+        }
+    }
+
+    private static final class CsvWriter extends PaymentExportWriter {
+
+        private static final String HEADER = "id,reference,customerId,amount,currency,method,status,createdAt\r\n";
+
+        private final StringBuilder line = new StringBuilder(128);
+
+        CsvWriter(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        void begin() throws IOException {
+            out.write(HEADER.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        protected void writeRow(PaymentResponse payment) throws IOException {
+            line.setLength(0);
+            line.append(payment.getId()).append(',');
+            appendField(payment.getReference()).append(',');
+            appendField(payment.getCustomerId()).append(',');
+            line.append(payment.getAmount().toPlainString()).append(',');
+            line.append(payment.getCurrency()).append(',');
+            line.append(payment.getMethod()).append(',');
+            line.append(payment.getStatus()).append(',');
+            line.append(payment.getCreatedAt()).append("\r\n");
+            out.write(line.toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        // RFC 4180: quote fields containing separators, quotes or line breaks
+        private StringBuilder appendField(String value) {
+            if (value == null) {
+                return line;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                    && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return line.append(value);
+            }
+            return line.append('"').append(value.replace("\"", "\"\"")).append('"');
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package com.example.payments.infrastructure.rest;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import com.example.payments.domain.Currency;
+import com.example.payments.domain.PaymentMethod;
+import com.example.payments.domain.PaymentStatus;
+import com.example.payments.dto.PagedResponse;
+import com.example.payments.dto.PaymentResponse;
+
+import io.vertx.core.buffer.Buffer;
+
+/**
+ * Hand-written JSON encoding of {@link PaymentResponse} and pages of them,
+ * appended straight to a Vert.x buffer. Field names and enum values are
+ * pre-encoded; numbers, amounts and timestamps are written digit by digit,
+ * so a response allocates nothing but its buffer.
+ * <p>
+ * The output is byte-for-byte what the application's ObjectMapper writes:
+ * same property order, nulls written for payments and omitted for pages,
+ * amounts as BigDecimal.toString(), timestamps as ISO_LOCAL_DATE_TIME and
+ * Jackson's string escaping. Rare values (amounts beyond 15 digits,
+ * years beyond 9999) go through the JDK formatters.
+ */
+public final class PaymentJsonEncoder {
+
+    private static final byte[] ID = ascii("{\"id\":");
+    private static final byte[] REFERENCE = ascii(",\"reference\":");
+    private static final byte[] CUSTOMER_ID = ascii(",\"customerId\":");
+    private static final byte[] AMOUNT = ascii(",\"amount\":");
+    private static final byte[] CURRENCY = ascii(",\"currency\":");
+    private static final byte[] METHOD = ascii(",\"method\":");
+    private static final byte[] STATUS = ascii(",\"status\":");
+    private static final byte[] CREATED_AT = ascii(",\"createdAt\":");
+
+    private static final byte[] CONTENT = ascii("\"content\":");
+    private static final byte[] PAGE = ascii("\"page\":");
+    private static final byte[] SIZE = ascii("\"size\":");
+    private static final byte[] TOTAL_ELEMENTS = ascii("\"totalElements\":");
+    private static final byte[] TOTAL_PAGES = ascii("\"totalPages\":");
+    private static final byte[] ESTIMATED_TOTAL_ELEMENTS = ascii("\"estimatedTotalElements\":");
+    private static final byte[] HAS_NEXT = ascii("\"hasNext\":");
+    private static final byte[] NEXT_CURSOR = ascii("\"nextCursor\":");
+
+    private static final byte[] NULL = ascii("null");
+    private static final byte[] TRUE = ascii("true");
+    private static final byte[] FALSE = ascii("false");
+    private static final byte[] UNICODE_ESCAPE = ascii("u00");
+    private static final byte[] HEX = ascii("0123456789ABCDEF");
+
+    private static final byte[][] CURRENCIES = quotedNames(Currency.values());
+    private static final byte[][] METHODS = quotedNames(PaymentMethod.values());
+    private static final byte[][] STATUSES = quotedNames(PaymentStatus.values());
+
+    // Powers of ten exactly representable as doubles and longs
+    private static final int MAX_FAST_DIGITS = 15;
+    private static final long[] LONG_TENS = new long[MAX_FAST_DIGITS + 1];
+    private static final double[] DOUBLE_TENS = new double[MAX_FAST_DIGITS + 1];
+
+    static {
+        LONG_TENS[0] = 1;
+        DOUBLE_TENS[0] = 1;
+        for (int i = 1; i <= MAX_FAST_DIGITS; i++) {
+            LONG_TENS[i] = LONG_TENS[i - 1] * 10;
+            DOUBLE_TENS[i] = DOUBLE_TENS[i - 1] * 10;
+        }
+    }
+
+    private PaymentJsonEncoder() {
+    }
+
+    /**
+     * Bytes to reserve for a buffer holding the given number of payments.
+     */
+    public static int sizeHint(int payments) {
+        return 160 + 224 * payments;
+    }
+
+    /**
+     * @return true if every item of the page is a PaymentResponse (or null),
+     *         so {@link #writePage} can encode it
+     */
+    public static boolean isPaymentPage(PagedResponse<?> page) {
+        if (page.getContent() == null) {
+            return true;
+        }
+        for (Object item : page.getContent()) {
+            if (item != null && item.getClass() != PaymentResponse.class) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static void writePayment(Buffer out, PaymentResponse payment) {
+        if (payment == null) {
+            out.appendBytes(NULL);
+            return;
+        }
+        out.appendBytes(ID);
+        writeLong(out, payment.getId());
+        out.appendBytes(REFERENCE);
+        writeString(out, payment.getReference());
+        out.appendBytes(CUSTOMER_ID);
+        writeString(out, payment.getCustomerId());
+        out.appendBytes(AMOUNT);
+        writeDecimal(out, payment.getAmount());
+        out.appendBytes(CURRENCY);
+        writeEnum(out, CURRENCIES, payment.getCurrency());
+        out.appendBytes(METHOD);
+        writeEnum(out, METHODS, payment.getMethod());
+        out.appendBytes(STATUS);
+        writeEnum(out, STATUSES, payment.getStatus());
+        out.appendBytes(CREATED_AT);
+        writeDateTime(out, payment.getCreatedAt());
+        out.appendByte((byte) '}');
+    }
+
+    /**
+     * Encodes a page whose items are PaymentResponses; see {@link #isPaymentPage}.
+     */
+    @SuppressWarnings("unchecked")
+    public static void writePage(Buffer out, PagedResponse<?> page) {
+        out.appendByte((byte) '{');
+        boolean first = true;
+        List<PaymentResponse> content = (List<PaymentResponse>) page.getContent();
+        if (content != null) {
+            first = field(out, CONTENT, first);
+            out.appendByte((byte) '[');
+            for (int i = 0; i < content.size(); i++) {
+                if (i > 0) {
+                    out.appendByte((byte) ',');
+                }
+                writePayment(out, content.get(i));
+            }
+            out.appendByte((byte) ']');
+        }
+        if (page.getPage() != null) {
+            first = field(out, PAGE, first);
+            writeLong(out, page.getPage());
+        }
+        first = field(out, SIZE, first);
+        writeLong(out, page.getSize());
+        if (page.getTotalElements() != null) {
+            first = field(out, TOTAL_ELEMENTS, first);
+            writeLong(out, page.getTotalElements());
+        }
+        if (page.getTotalPages() != null) {
+            first = field(out, TOTAL_PAGES, first);
+            writeLong(out, page.getTotalPages());
+        }
+        if (page.getEstimatedTotalElements() != null) {
+            first = field(out, ESTIMATED_TOTAL_ELEMENTS, first);
+            writeLong(out, page.getEstimatedTotalElements());
+        }
+        if (page.getHasNext() != null) {
+            first = field(out, HAS_NEXT, first);
+            out.appendBytes(page.getHasNext() ? TRUE : FALSE);
+        }
+        if (page.getNextCursor() != null) {
+            field(out, NEXT_CURSOR, first);
+            writeString(out, page.getNextCursor());
+        }
+        out.appendByte((byte) '}');
+    }
+
+    private static boolean field(Buffer out, byte[] name, boolean first) {
+        if (!first) {
+            out.appendByte((byte) ',');
+        }
+        out.appendBytes(name);
+        return false;
+    }
+
+    private static void writeEnum(Buffer out, byte[][] names, Enum<?> value) {
+        out.appendBytes(value == null ? NULL : names[value.ordinal()]);
+    }
+
+    private static void writeLong(Buffer out, Long value) {
+        if (value == null) {
+            out.appendBytes(NULL);
+        } else {
+            writeLong(out, value.longValue());
+        }
+    }
+
+    private static void writeLong(Buffer out, long value) {
+        if (value == Long.MIN_VALUE) {
+            out.appendBytes(ascii(Long.toString(value)));
+            return;
+        }
+        if (value < 0) {
+            out.appendByte((byte) '-');
+            value = -value;
+        }
+        writeDigits(out, value, digitCount(value));
+    }
+
+    // Writes exactly count digits, zero-padded on the left
+    private static void writeDigits(Buffer out, long value, int count) {
+        long divisor = 1;
+        for (int i = 1; i < count; i++) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            out.appendByte((byte) ('0' + (value / divisor) % 10));
+        }
+    }
+
+    private static int digitCount(long value) {
+        int count = 1;
+        while (value >= 10) {
+            value /= 10;
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Same text as BigDecimal.toString(). Reading the unscaled value through
+     * unscaledValue() would allocate a BigInteger; with at most 15 digits and
+     * scale 0..15, value * 10^scale recovered from doubleValue() is within
+     * 0.5 of it (both steps are correctly rounded), so rounding gives it back.
+     */
+    private static void writeDecimal(Buffer out, BigDecimal value) {
+        if (value == null) {
+            out.appendBytes(NULL);
+            return;
+        }
+        int scale = value.scale();
+        int precision = value.precision();
+        // toString switches to exponent notation when the adjusted exponent is below -6
+        if (precision > MAX_FAST_DIGITS || scale < 0 || scale > MAX_FAST_DIGITS || precision - 1 - scale < -6) {
+            out.appendBytes(ascii(value.toString()));
+            return;
+        }
+        long unscaled = Math.round(value.doubleValue() * DOUBLE_TENS[scale]);
+        if (unscaled < 0) {
+            out.appendByte((byte) '-');
+            unscaled = -unscaled;
+        }
+        writeLong(out, unscaled / LONG_TENS[scale]);
+        if (scale > 0) {
+            out.appendByte((byte) '.');
+            writeDigits(out, unscaled % LONG_TENS[scale], scale);
+        }
+    }
+
+    /**
+     * Same text as DateTimeFormatter.ISO_LOCAL_DATE_TIME: seconds always,
+     * fraction without trailing zeros and omitted when zero.
+     */
+    private static void writeDateTime(Buffer out, LocalDateTime value) {
+        if (value == null) {
+            out.appendBytes(NULL);
+            return;
+        }
+        out.appendByte((byte) '"');
+        int year = value.getYear();
+        if (year < 0 || year > 9999) {
+            out.appendBytes(ascii(value.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)));
+            out.appendByte((byte) '"');
+            return;
+        }
+        writeDigits(out, year, 4);
+        out.appendByte((byte) '-');
+        writeDigits(out, value.getMonthValue(), 2);
+        out.appendByte((byte) '-');
+        writeDigits(out, value.getDayOfMonth(), 2);
+        out.appendByte((byte) 'T');
+        writeDigits(out, value.getHour(), 2);
+        out.appendByte((byte) ':');
+        writeDigits(out, value.getMinute(), 2);
+        out.appendByte((byte) ':');
+        writeDigits(out, value.getSecond(), 2);
+        int nano = value.getNano();
+        if (nano > 0) {
+            int digits = 9;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                digits--;
+            }
+            out.appendByte((byte) '.');
+            writeDigits(out, nano, digits);
+        }
+        out.appendByte((byte) '"');
+    }
+
+    /**
+     * Quoted UTF-8 string with Jackson's default escaping: quote, backslash
+     * and control characters only.
+     */
+    private static void writeString(Buffer out, String value) {
+        if (value == null) {
+            out.appendBytes(NULL);
+            return;
+        }
+        out.appendByte((byte) '"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (c >= 0x20 && c != '"' && c != '\\') {
+                    out.appendByte((byte) c);
+                } else {
+                    writeEscape(out, c);
+                }
+            } else if (c < 0x800) {
+                out.appendByte((byte) (0xC0 | (c >> 6)));
+                out.appendByte((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                out.appendByte((byte) (0xF0 | (codePoint >> 18)));
+                out.appendByte((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                out.appendByte((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                out.appendByte((byte) (0x80 | (codePoint & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                // Unpaired surrogate: not encodable, replaced as String.getBytes does
+                out.appendByte((byte) '?');
+            } else {
+                out.appendByte((byte) (0xE0 | (c >> 12)));
+                out.appendByte((byte) (0x80 | ((c >> 6) & 0x3F)));
+                out.appendByte((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+        out.appendByte((byte) '"');
+    }
+
+    private static void writeEscape(Buffer out, char c) {
+        out.appendByte((byte) '\\');
+        switch (c) {
+            case '"', '\\' -> out.appendByte((byte) c);
+            case '\b' -> out.appendByte((byte) 'b');
+            case '\t' -> out.appendByte((byte) 't');
+            case '\n' -> out.appendByte((byte) 'n');
+            case '\f' -> out.appendByte((byte) 'f');
+            case '\r' -> out.appendByte((byte) 'r');
+            default -> {
+                out.appendBytes(UNICODE_ESCAPE);
+                out.appendByte(HEX[c >> 4]);
+                out.appendByte(HEX[c & 0xF]);
+            }
+        }
+    }
+
+    private static byte[][] quotedNames(Enum<?>[] values) {
+        byte[][] names = new byte[values.length][];
+        for (Enum<?> value : values) {
+            names[value.ordinal()] = ascii('"' + value.name() + '"');
+        }
+        return names;
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
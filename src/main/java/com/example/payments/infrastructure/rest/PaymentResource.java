@@ -1,5 +1,7 @@
 package com.example.payments.infrastructure.rest;
 
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 
 import org.eclipse.microprofile.openapi.annotations.Operation;
@@ -12,15 +14,23 @@ import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
 import org.eclipse.microprofile.openapi.annotations.tags.Tag;
 
 import com.example.payments.application.PaymentService;
-import com.example.payments.domain.Payment;
 import com.example.payments.domain.PaymentStatus;
+import com.example.payments.dto.BatchCreatePaymentRequest;
+import com.example.payments.dto.BatchCreatePaymentResponse;
+import com.example.payments.dto.BulkUpdateStatusRequest;
+import com.example.payments.dto.BulkUpdateStatusResponse;
+import com.example.payments.dto.CountMode;
 import com.example.payments.dto.CreatePaymentRequest;
+import com.example.payments.dto.ExportFormat;
+import com.example.payments.dto.PageCursor;
 import com.example.payments.dto.PagedResponse;
 import com.example.payments.dto.PaymentResponse;
 import com.example.payments.dto.UpdateStatusRequest;
 import com.example.payments.exception.ErrorResponse;
 import com.example.payments.exception.PaymentNotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.quarkus.arc.properties.IfBuildProperty;
 import jakarta.inject.Inject;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
@@ -34,23 +44,33 @@ import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 
 /**
  * REST controller for payment operations.
  * This is the primary adapter in hexagonal architecture.
+ * Methods run on the worker pool; see {@link VirtualThreadPaymentResource}
+ * for the virtual-thread execution mode.
  */
 @Path("/api/payments")
+@IfBuildProperty(name = "payments.execution-mode", stringValue = "worker", enableIfMissing = true)
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 @Tag(name = "Payments", description = "Payment management operations")
 public class PaymentResource {
 
+    // Buffer rows so the export is not written to the socket one row at a time
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
     private final PaymentService paymentService;
+    private final ObjectMapper objectMapper;
 
     @Inject
-    public PaymentResource(PaymentService paymentService) {
+    public PaymentResource(PaymentService paymentService, ObjectMapper objectMapper) {
         this.paymentService = paymentService;
+        this.objectMapper = objectMapper;
     }
 
     @POST
@@ -67,6 +87,21 @@ public class PaymentResource {
         return Response.status(Response.Status.CREATED).entity(response).build();
     }
 
+    @POST
+    @Path("/batch")
+    @Operation(summary = "Create payments in bulk", description = "Creates up to 10000 payments with PENDING status using batched inserts. "
+            + "Each item is reported as CREATED, DUPLICATE, INVALID or FAILED; one bad item does not fail the batch.")
+    @APIResponses({
+            @APIResponse(responseCode = "200", description = "Per-item results", content = @Content(schema = @Schema(implementation = BatchCreatePaymentResponse.class))),
+            @APIResponse(responseCode = "400", description = "Empty or oversized batch", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public Response createPaymentsBatch(
+            @RequestBody(description = "Payments to create", required = true, content = @Content(schema = @Schema(implementation = BatchCreatePaymentRequest.class))) @Valid BatchCreatePaymentRequest request) {
+
+        BatchCreatePaymentResponse response = paymentService.createBatch(request.getItems());
+        return Response.ok(response).build();
+    }
+
     @GET
     @Path("/{id}")
     @Operation(summary = "Get payment by ID", description = "Retrieves a payment by its unique identifier")
@@ -77,16 +112,18 @@ public class PaymentResource {
     public Response getPaymentById(
             @Parameter(description = "Payment ID", required = true) @PathParam("id") Long id) {
 
-        Payment payment = paymentService.findById(id)
+        PaymentResponse payment = paymentService.findById(id)
                 .orElseThrow(() -> new PaymentNotFoundException(id));
 
-        return Response.ok(PaymentResponse.fromEntity(payment)).build();
+        return Response.ok(payment).build();
     }
 
     @GET
-    @Operation(summary = "List payments with filters", description = "Retrieves a paginated list of payments with optional filters")
+    @Operation(summary = "List payments with filters", description = "Retrieves a paginated list of payments with optional filters. "
+            + "Sending the cursor parameter (empty for the first page) switches to keyset pagination, which is recommended for deep crawls such as reconciliation.")
     @APIResponses({
-            @APIResponse(responseCode = "200", description = "Paginated list of payments", content = @Content(schema = @Schema(implementation = PagedResponse.class)))
+            @APIResponse(responseCode = "200", description = "Paginated list of payments", content = @Content(schema = @Schema(implementation = PagedResponse.class))),
+            @APIResponse(responseCode = "400", description = "Invalid cursor or page too deep for offset pagination", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     public Response listPayments(
             @Parameter(description = "Filter by status") @QueryParam("status") PaymentStatus status,
@@ -99,14 +136,72 @@ public class PaymentResource {
 
             @Parameter(description = "Page number (0-indexed)", required = true) @QueryParam("page") @DefaultValue("0") @Min(0) int page,
 
-            @Parameter(description = "Page size", required = true) @QueryParam("size") @DefaultValue("10") @Min(1) int size) {
+            @Parameter(description = "Page size", required = true) @QueryParam("size") @DefaultValue("10") @Min(1) int size,
+
+            @Parameter(description = "Keyset cursor from a previous page's nextCursor (empty for the first page). Takes precedence over page") @QueryParam("cursor") String cursor,
+
+            @Parameter(description = "Total count mode for offset pages: exact, estimate (planner statistics) or none (hasNext only)") @QueryParam("count") @DefaultValue("exact") CountMode count) {
+
+        if (cursor != null) {
+            PageCursor after = cursor.isBlank() ? null : PageCursor.decode(cursor);
+            return Response.ok(paymentService.findAllAfter(
+                    status, customerId, from, to, after, size)).build();
+        }
 
         PagedResponse<PaymentResponse> response = paymentService.findAll(
-                status, customerId, from, to, page, size);
+                status, customerId, from, to, page, size, count);
 
         return Response.ok(response).build();
     }
 
+    @GET
+    @Path("/export")
+    @Produces({ "application/x-ndjson", "text/csv" })
+    @Operation(summary = "Export payments", description = "Streams every payment matching the filters, oldest first, as NDJSON or CSV. "
+            + "Rows are read from a database cursor and written as they arrive, so exports of any size use constant memory.")
+    @APIResponses({
+            @APIResponse(responseCode = "200", description = "Exported payments", content = {
+                    @Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = PaymentResponse.class)),
+                    @Content(mediaType = "text/csv") })
+    })
+    public Response exportPayments(
+            @Parameter(description = "Filter by status") @QueryParam("status") PaymentStatus status,
+
+            @Parameter(description = "Filter by customer ID") @QueryParam("customerId") String customerId,
+
+            @Parameter(description = "Filter by creation date from (ISO format)") @QueryParam("from") LocalDateTime from,
+
+            @Parameter(description = "Filter by creation date to (ISO format)") @QueryParam("to") LocalDateTime to,
+
+            @Parameter(description = "Output format: ndjson or csv") @QueryParam("format") @DefaultValue("ndjson") ExportFormat format) {
+
+        return export(paymentService, objectMapper, status, customerId, from, to, format);
+    }
+
+    // Also serves the export of ReactivePaymentResource, which runs it on the worker pool too
+    static Response export(
+            PaymentService paymentService,
+            ObjectMapper objectMapper,
+            PaymentStatus status,
+            String customerId,
+            LocalDateTime from,
+            LocalDateTime to,
+            ExportFormat format) {
+
+        StreamingOutput body = output -> {
+            OutputStream buffered = new BufferedOutputStream(output, EXPORT_BUFFER_SIZE);
+            PaymentExportWriter writer = PaymentExportWriter.create(format, objectMapper, buffered);
+            writer.begin();
+            paymentService.export(status, customerId, from, to, writer::write);
+            buffered.flush();
+        };
+
+        return Response.ok(body, format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"payments." + format.getFileExtension() + "\"")
+                .build();
+    }
+
     @PATCH
     @Path("/{id}/status")
     @Operation(summary = "Update payment status", description = "Updates the status of a payment. Only PENDING payments can be transitioned to APPROVED or REJECTED.")
@@ -124,4 +219,20 @@ public class PaymentResource {
         PaymentResponse response = paymentService.updateStatus(id, request.getStatus());
         return Response.ok(response).build();
     }
+
+    @PATCH
+    @Path("/status")
+    @Operation(summary = "Update the status of many payments", description = "Moves the payments selected by ID and/or reference to the given status with set-based updates. "
+            + "Only PENDING payments are transitioned; the rest are reported as rejected or not found.")
+    @APIResponses({
+            @APIResponse(responseCode = "200", description = "Per-payment outcome", content = @Content(schema = @Schema(implementation = BulkUpdateStatusResponse.class))),
+            @APIResponse(responseCode = "400", description = "Validation error", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public Response bulkUpdatePaymentStatus(
+            @RequestBody(description = "Payments and target status", required = true, content = @Content(schema = @Schema(implementation = BulkUpdateStatusRequest.class))) @Valid BulkUpdateStatusRequest request) {
+
+        BulkUpdateStatusResponse response = paymentService.bulkUpdateStatus(
+                request.getIds(), request.getReferences(), request.getStatus());
+        return Response.ok(response).build();
+    }
 }
@@ -0,0 +1,56 @@
+package com.example.payments.infrastructure.rest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+import org.jboss.resteasy.reactive.server.spi.ResteasyReactiveResourceInfo;
+import org.jboss.resteasy.reactive.server.spi.ServerMessageBodyWriter;
+import org.jboss.resteasy.reactive.server.spi.ServerRequestContext;
+
+import com.example.payments.dto.PaymentResponse;
+
+import io.vertx.core.buffer.Buffer;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Writes single-payment JSON responses with {@link PaymentJsonEncoder}
+ * instead of Jackson databind; being specific to PaymentResponse, it is
+ * picked before the generic Jackson writer.
+ */
+@Provider
+@Produces(MediaType.APPLICATION_JSON)
+public class PaymentResponseJsonWriter implements ServerMessageBodyWriter<PaymentResponse> {
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, ResteasyReactiveResourceInfo target, MediaType mediaType) {
+        return type == PaymentResponse.class;
+    }
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return type == PaymentResponse.class;
+    }
+
+    @Override
+    public void writeResponse(PaymentResponse payment, Type genericType, ServerRequestContext context) {
+        context.serverResponse().end(encode(payment).getBytes());
+    }
+
+    @Override
+    public void writeTo(PaymentResponse payment, Class<?> type, Type genericType, Annotation[] annotations,
+            MediaType mediaType, MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream)
+            throws IOException {
+        entityStream.write(encode(payment).getBytes());
+    }
+
+    private static Buffer encode(PaymentResponse payment) {
+        Buffer buffer = Buffer.buffer(PaymentJsonEncoder.sizeHint(1));
+        PaymentJsonEncoder.writePayment(buffer, payment);
+        return buffer;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.payments.infrastructure.rest;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+import org.jboss.resteasy.reactive.RestStreamElementType;
+
+import com.example.payments.application.PaymentService;
+import com.example.payments.domain.PaymentStatus;
+import com.example.payments.dto.PaymentResponse;
+import com.example.payments.dto.PaymentStatusUpdate;
+import com.example.payments.exception.ErrorResponse;
+import com.example.payments.exception.PaymentNotFoundException;
+import com.example.payments.infrastructure.notification.PaymentStatusHub;
+import com.example.payments.infrastructure.notification.PaymentStatusSubscription;
+
+import io.smallrye.common.annotation.Blocking;
+import io.smallrye.mutiny.Multi;
+import jakarta.inject.Inject;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+
+/**
+ * Server-sent events stream of payment status changes, so clients can wait
+ * for a final status with one request instead of polling.
+ */
+@Path("/api/payments/status-events")
+@Tag(name = "Payments", description = "Payment management operations")
+public class PaymentStatusStreamResource {
+
+    private final PaymentService paymentService;
+    private final PaymentStatusHub hub;
+    private final Duration maxTimeout;
+
+    @Inject
+    public PaymentStatusStreamResource(
+            PaymentService paymentService,
+            PaymentStatusHub hub,
+            @ConfigProperty(name = "payments.notifications.max-stream-timeout", defaultValue = "PT5M") Duration maxTimeout) {
+        this.paymentService = paymentService;
+        this.hub = hub;
+        this.maxTimeout = maxTimeout;
+    }
+
+    @GET
+    @Blocking
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    @Operation(summary = "Stream payment status changes", description = "Emits the current status of each payment, then every change, "
+            + "and completes once all payments are APPROVED or REJECTED or the timeout elapses.")
+    @APIResponses({
+            @APIResponse(responseCode = "200", description = "Stream of status updates", content = @Content(mediaType = MediaType.SERVER_SENT_EVENTS, schema = @Schema(implementation = PaymentStatusUpdate.class))),
+            @APIResponse(responseCode = "400", description = "Invalid parameters", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @APIResponse(responseCode = "404", description = "Payment not found", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public Multi<PaymentStatusUpdate> streamStatus(
+            @Parameter(description = "Payment IDs to watch (up to 100)", required = true) @QueryParam("id") @NotEmpty @Size(max = 100) List<Long> ids,
+            @Parameter(description = "Seconds to wait before closing the stream (capped by server configuration)") @QueryParam("timeout") @Min(1) Integer timeoutSeconds) {
+
+        Set<Long> watched = new LinkedHashSet<>(ids);
+        // Subscribe before reading so no change between the read and the subscription is missed
+        PaymentStatusSubscription subscription = hub.subscribe(watched);
+        try {
+            // From the database: a cached PENDING entry could predate a change already missed
+            Map<Long, PaymentStatus> statuses = paymentService.findCurrentByIds(watched).stream()
+                    .collect(Collectors.toMap(PaymentResponse::getId, PaymentResponse::getStatus));
+            for (Long id : watched) {
+                PaymentStatus status = statuses.get(id);
+                if (status == null) {
+                    throw new PaymentNotFoundException(id);
+                }
+                subscription.seed(new PaymentStatusUpdate(id, status));
+            }
+        } catch (RuntimeException e) {
+            subscription.cancel();
+            throw e;
+        }
+
+        Duration timeout = timeoutSeconds == null
+                ? maxTimeout
+                : Duration.ofSeconds(Math.min(timeoutSeconds, maxTimeout.toSeconds()));
+        return subscription.stream(timeout);
+    }
+}
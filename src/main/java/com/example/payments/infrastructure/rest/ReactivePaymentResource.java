@@ -0,0 +1,212 @@
+package com.example.payments.infrastructure.rest;
+
+import java.time.LocalDateTime;
+
+import org.eclipse.microprofile.openapi.annotations.Operation;
+import org.eclipse.microprofile.openapi.annotations.media.Content;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+import org.eclipse.microprofile.openapi.annotations.parameters.Parameter;
+import org.eclipse.microprofile.openapi.annotations.parameters.RequestBody;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponse;
+import org.eclipse.microprofile.openapi.annotations.responses.APIResponses;
+import org.eclipse.microprofile.openapi.annotations.tags.Tag;
+
+import com.example.payments.application.PaymentService;
+import com.example.payments.application.ReactivePaymentService;
+import com.example.payments.domain.PaymentStatus;
+import com.example.payments.dto.BatchCreatePaymentRequest;
+import com.example.payments.dto.BatchCreatePaymentResponse;
+import com.example.payments.dto.BulkUpdateStatusRequest;
+import com.example.payments.dto.BulkUpdateStatusResponse;
+import com.example.payments.dto.CountMode;
+import com.example.payments.dto.CreatePaymentRequest;
+import com.example.payments.dto.ExportFormat;
+import com.example.payments.dto.PageCursor;
+import com.example.payments.dto.PagedResponse;
+import com.example.payments.dto.PaymentResponse;
+import com.example.payments.dto.UpdateStatusRequest;
+import com.example.payments.exception.ErrorResponse;
+import com.example.payments.exception.PaymentNotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.smallrye.common.annotation.Blocking;
+import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.PATCH;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * The payment endpoints served on the event loop, enabled at build time
+ * with {@code payments.execution-mode=reactive}. Single-payment and listing
+ * requests go through {@link ReactivePaymentService}; reads hold no thread
+ * while the database works, while creation and status changes run their
+ * transaction on the worker pool. Batch, bulk status and export requests
+ * are long-running and transactional, so they run on the worker pool
+ * through the blocking {@link PaymentService}.
+ */
+@Path("/api/payments")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+@Tag(name = "Payments", description = "Payment management operations")
+@IfBuildProperty(name = "payments.execution-mode", stringValue = "reactive")
+public class ReactivePaymentResource {
+
+    private final ReactivePaymentService reactivePaymentService;
+    private final PaymentService paymentService;
+    private final ObjectMapper objectMapper;
+
+    @Inject
+    public ReactivePaymentResource(
+            ReactivePaymentService reactivePaymentService,
+            PaymentService paymentService,
+            ObjectMapper objectMapper) {
+        this.reactivePaymentService = reactivePaymentService;
+        this.paymentService = paymentService;
+        this.objectMapper = objectMapper;
+    }
+
+    @POST
+    @Operation(summary = "Create a new payment", description = "Creates a new payment with PENDING status. The status field is ignored if sent.")
+    @APIResponses({
+            @APIResponse(responseCode = "201", description = "Payment created successfully", content = @Content(schema = @Schema(implementation = PaymentResponse.class))),
+            @APIResponse(responseCode = "400", description = "Validation error", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @APIResponse(responseCode = "409", description = "Duplicate reference", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public Uni<Response> createPayment(
+            @RequestBody(description = "Payment data", required = true, content = @Content(schema = @Schema(implementation = CreatePaymentRequest.class))) @Valid CreatePaymentRequest request) {
+
+        return reactivePaymentService.create(request)
+                .map(response -> Response.status(Response.Status.CREATED).entity(response).build());
+    }
+
+    @POST
+    @Path("/batch")
+    @Blocking
+    @Operation(summary = "Create payments in bulk", description = "Creates up to 10000 payments with PENDING status using batched inserts. "
+            + "Each item is reported as CREATED, DUPLICATE, INVALID or FAILED; one bad item does not fail the batch.")
+    @APIResponses({
+            @APIResponse(responseCode = "200", description = "Per-item results", content = @Content(schema = @Schema(implementation = BatchCreatePaymentResponse.class))),
+            @APIResponse(responseCode = "400", description = "Empty or oversized batch", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public Response createPaymentsBatch(
+            @RequestBody(description = "Payments to create", required = true, content = @Content(schema = @Schema(implementation = BatchCreatePaymentRequest.class))) @Valid BatchCreatePaymentRequest request) {
+
+        return Response.ok(paymentService.createBatch(request.getItems())).build();
+    }
+
+    @GET
+    @Path("/{id}")
+    @Operation(summary = "Get payment by ID", description = "Retrieves a payment by its unique identifier")
+    @APIResponses({
+            @APIResponse(responseCode = "200", description = "Payment found", content = @Content(schema = @Schema(implementation = PaymentResponse.class))),
+            @APIResponse(responseCode = "404", description = "Payment not found", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public Uni<PaymentResponse> getPaymentById(
+            @Parameter(description = "Payment ID", required = true) @PathParam("id") Long id) {
+
+        return reactivePaymentService.findById(id)
+                .map(payment -> payment.orElseThrow(() -> new PaymentNotFoundException(id)));
+    }
+
+    @GET
+    @Operation(summary = "List payments with filters", description = "Retrieves a paginated list of payments with optional filters. "
+            + "Sending the cursor parameter (empty for the first page) switches to keyset pagination, which is recommended for deep crawls such as reconciliation.")
+    @APIResponses({
+            @APIResponse(responseCode = "200", description = "Paginated list of payments", content = @Content(schema = @Schema(implementation = PagedResponse.class))),
+            @APIResponse(responseCode = "400", description = "Invalid cursor or page too deep for offset pagination", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public Uni<PagedResponse<PaymentResponse>> listPayments(
+            @Parameter(description = "Filter by status") @QueryParam("status") PaymentStatus status,
+
+            @Parameter(description = "Filter by customer ID") @QueryParam("customerId") String customerId,
+
+            @Parameter(description = "Filter by creation date from (ISO format)") @QueryParam("from") LocalDateTime from,
+
+            @Parameter(description = "Filter by creation date to (ISO format)") @QueryParam("to") LocalDateTime to,
+
+            @Parameter(description = "Page number (0-indexed)", required = true) @QueryParam("page") @DefaultValue("0") @Min(0) int page,
+
+            @Parameter(description = "Page size", required = true) @QueryParam("size") @DefaultValue("10") @Min(1) int size,
+
+            @Parameter(description = "Keyset cursor from a previous page's nextCursor (empty for the first page). Takes precedence over page") @QueryParam("cursor") String cursor,
+
+            @Parameter(description = "Total count mode for offset pages: exact, estimate (planner statistics) or none (hasNext only)") @QueryParam("count") @DefaultValue("exact") CountMode count) {
+
+        if (cursor != null) {
+            PageCursor after = cursor.isBlank() ? null : PageCursor.decode(cursor);
+            return reactivePaymentService.findAllAfter(status, customerId, from, to, after, size);
+        }
+
+        return reactivePaymentService.findAll(status, customerId, from, to, page, size, count);
+    }
+
+    @GET
+    @Path("/export")
+    @Blocking
+    @Produces({ "application/x-ndjson", "text/csv" })
+    @Operation(summary = "Export payments", description = "Streams every payment matching the filters, oldest first, as NDJSON or CSV. "
+            + "Rows are read from a database cursor and written as they arrive, so exports of any size use constant memory.")
+    @APIResponses({
+            @APIResponse(responseCode = "200", description = "Exported payments", content = {
+                    @Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = PaymentResponse.class)),
+                    @Content(mediaType = "text/csv") })
+    })
+    public Response exportPayments(
+            @Parameter(description = "Filter by status") @QueryParam("status") PaymentStatus status,
+
+            @Parameter(description = "Filter by customer ID") @QueryParam("customerId") String customerId,
+
+            @Parameter(description = "Filter by creation date from (ISO format)") @QueryParam("from") LocalDateTime from,
+
+            @Parameter(description = "Filter by creation date to (ISO format)") @QueryParam("to") LocalDateTime to,
+
+            @Parameter(description = "Output format: ndjson or csv") @QueryParam("format") @DefaultValue("ndjson") ExportFormat format) {
+
+        return PaymentResource.export(paymentService, objectMapper, status, customerId, from, to, format);
+    }
+
+    @PATCH
+    @Path("/{id}/status")
+    @Operation(summary = "Update payment status", description = "Updates the status of a payment. Only PENDING payments can be transitioned to APPROVED or REJECTED.")
+    @APIResponses({
+            @APIResponse(responseCode = "200", description = "Status updated successfully", content = @Content(schema = @Schema(implementation = PaymentResponse.class))),
+            @APIResponse(responseCode = "400", description = "Validation error", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @APIResponse(responseCode = "404", description = "Payment not found", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @APIResponse(responseCode = "409", description = "Invalid status transition", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public Uni<PaymentResponse> updatePaymentStatus(
+            @Parameter(description = "Payment ID", required = true) @PathParam("id") Long id,
+
+            @RequestBody(description = "New status", required = true, content = @Content(schema = @Schema(implementation = UpdateStatusRequest.class))) @Valid UpdateStatusRequest request) {
+
+        return reactivePaymentService.updateStatus(id, request.getStatus());
+    }
+
+    @PATCH
+    @Path("/status")
+    @Blocking
+    @Operation(summary = "Update the status of many payments", description = "Moves the payments selected by ID and/or reference to the given status with set-based updates. "
+            + "Only PENDING payments are transitioned; the rest are reported as rejected or not found.")
+    @APIResponses({
+            @APIResponse(responseCode = "200", description = "Per-payment outcome", content = @Content(schema = @Schema(implementation = BulkUpdateStatusResponse.class))),
+            @APIResponse(responseCode = "400", description = "Validation error", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    public Response bulkUpdatePaymentStatus(
+            @RequestBody(description = "Payments and target status", required = true, content = @Content(schema = @Schema(implementation = BulkUpdateStatusRequest.class))) @Valid BulkUpdateStatusRequest request) {
+
+        return Response.ok(paymentService.bulkUpdateStatus(
+                request.getIds(), request.getReferences(), request.getStatus())).build();
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.payments.infrastructure.rest;
+
+import com.example.payments.application.PaymentService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.quarkus.arc.properties.IfBuildProperty;
+import io.smallrye.common.annotation.RunOnVirtualThread;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+
+/**
+ * The payment endpoints of {@link PaymentResource}, run on a virtual thread
+ * per request instead of the worker pool. Enabled at build time with
+ * {@code payments.execution-mode=virtual-threads}. Concurrency is then
+ * bounded by the datasource pool rather than by the worker thread count.
+ */
+@Path("/api/payments")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
+@IfBuildProperty(name = "payments.execution-mode", stringValue = "virtual-threads")
+public class VirtualThreadPaymentResource extends PaymentResource {
+
+    @Inject
+    public VirtualThreadPaymentResource(PaymentService paymentService, ObjectMapper objectMapper) {
+        super(paymentService, objectMapper);
+    }
+}
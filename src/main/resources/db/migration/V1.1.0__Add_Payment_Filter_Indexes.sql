@@ -0,0 +1,21 @@
+-- Indexes for the filter combinations accepted by GET /api/payments.
+-- Every listing is ordered by (created_at, id) so that both offset and
+-- keyset (cursor) pages can be read straight off an index.
+--
+-- Built CONCURRENTLY so payment writes keep flowing during the migration,
+-- which therefore runs outside a transaction (see the .sql.conf file). If a
+-- build fails it leaves an INVALID index behind: drop it and re-run.
+
+-- No filter, from/to only, and cursor seeks. Also serves wide created_at
+-- range scans, so no separate BRIN index is kept.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_payments_created_at_id ON payments (created_at, id);
+
+-- customerId (+ from/to)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_payments_customer_created_at_id ON payments (customer_id, created_at, id);
+
+-- customerId + status (+ from/to)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_payments_customer_status_created_at_id ON payments (customer_id, status, created_at, id);
+
+-- status (+ from/to), including status = PENDING, so a partial index on the
+-- PENDING rows would add write cost without serving anything new
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_payments_status_created_at_id ON payments (status, created_at, id);
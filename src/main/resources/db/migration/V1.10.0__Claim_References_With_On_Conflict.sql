@@ -0,0 +1,20 @@
+-- Single-payment creation claims its reference itself, in the same statement
+-- as the insert:
+--
+--   WITH claim AS (INSERT INTO payment_references ... ON CONFLICT (reference)
+--                  DO NOTHING RETURNING payment_id)
+--   INSERT INTO payments ... SELECT ... FROM claim RETURNING id
+--
+-- so a taken reference inserts nothing instead of failing and aborting the
+-- transaction. The trigger now leaves a claim made for the same payment alone;
+-- every other insert path still fails with the uk_payment_reference violation.
+CREATE OR REPLACE FUNCTION claim_payment_reference() RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM 1 FROM payment_references WHERE reference = NEW.reference AND payment_id = NEW.id;
+    IF NOT FOUND THEN
+        INSERT INTO payment_references (reference, payment_id, created_at)
+        VALUES (NEW.reference, NEW.id, NEW.created_at);
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,12 @@
+-- IDENTITY forces an immediate INSERT per persist and disables Hibernate
+-- insert batching. Replace it with a sequence whose increment matches the
+-- entity's allocationSize (50), so IDs are handed out in memory in blocks.
+ALTER TABLE payments ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE payments_id_seq INCREMENT BY 50 OWNED BY payments.id;
+
+-- Start past every existing ID, leaving room for a full block below the first value
+SELECT setval('payments_id_seq', COALESCE((SELECT MAX(id) FROM payments), 0) + 50);
+
+-- Keep plain SQL inserts working; each nextval reserves a distinct block
+ALTER TABLE payments ALTER COLUMN id SET DEFAULT nextval('payments_id_seq');
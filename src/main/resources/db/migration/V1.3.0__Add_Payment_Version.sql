@@ -0,0 +1,3 @@
+-- Optimistic locking: every status change bumps the version, so a
+-- read-modify-write based on a stale row can be detected
+ALTER TABLE payments ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
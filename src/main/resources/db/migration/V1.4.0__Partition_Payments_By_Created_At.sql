@@ -0,0 +1,105 @@
+-- Monthly range partitions on created_at. Filters on from/to (and cursor
+-- seeks) only touch the partitions in range, and old months can be detached
+-- and archived as a whole instead of being deleted row by row.
+--
+-- The data is copied in this migration's transaction, which blocks writes
+-- until it commits: run it in a maintenance window on large tables.
+
+-- The sequence survives the old table being dropped
+ALTER SEQUENCE payments_id_seq OWNED BY NONE;
+
+ALTER TABLE payments RENAME TO payments_unpartitioned;
+ALTER TABLE payments_unpartitioned RENAME CONSTRAINT payments_pkey TO payments_unpartitioned_pkey;
+
+-- Unique constraints on a partitioned table must include the partition key,
+-- so the primary key is (id, created_at) and reference uniqueness moves to
+-- payment_references below
+CREATE TABLE payments (
+    id BIGINT NOT NULL DEFAULT nextval('payments_id_seq'),
+    reference VARCHAR(255) NOT NULL,
+    customer_id VARCHAR(255) NOT NULL,
+    amount DECIMAL(19, 4) NOT NULL,
+    currency VARCHAR(255) NOT NULL,
+    method VARCHAR(255) NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Creates the missing monthly partitions (payments_pYYYY_MM) covering
+-- [from_ts, to_ts] and returns how many were created. There is no default
+-- partition: it would have to be scanned on every new partition and it rules
+-- out DETACH PARTITION ... CONCURRENTLY.
+CREATE FUNCTION ensure_payment_partitions(from_ts TIMESTAMP, to_ts TIMESTAMP) RETURNS INTEGER AS $$
+DECLARE
+    month_start TIMESTAMP := date_trunc('month', from_ts);
+    partition_name TEXT;
+    created INTEGER := 0;
+BEGIN
+    -- Replicas running this at the same time must not race on CREATE TABLE
+    PERFORM pg_advisory_xact_lock(hashtext('ensure_payment_partitions'));
+
+    WHILE month_start <= to_ts LOOP
+        partition_name := 'payments_p' || to_char(month_start, 'YYYY_MM');
+        IF to_regclass(partition_name) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I PARTITION OF payments FOR VALUES FROM (%L) TO (%L)',
+                    partition_name, month_start, month_start + INTERVAL '1 month');
+            created := created + 1;
+        END IF;
+        month_start := month_start + INTERVAL '1 month';
+    END LOOP;
+
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT ensure_payment_partitions(
+        COALESCE((SELECT MIN(created_at) FROM payments_unpartitioned), now()),
+        now() + INTERVAL '3 months');
+
+INSERT INTO payments (id, reference, customer_id, amount, currency, method, status, created_at, version)
+SELECT id, reference, customer_id, amount, currency, method, status, created_at, version
+FROM payments_unpartitioned;
+
+DROP TABLE payments_unpartitioned;
+
+ALTER SEQUENCE payments_id_seq OWNED BY payments.id;
+
+-- Global reference uniqueness: one row per reference ever inserted. Rows stay
+-- when their partition is detached or archived, so a reference is never reused.
+CREATE TABLE payment_references (
+    reference VARCHAR(255) NOT NULL,
+    payment_id BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    CONSTRAINT uk_payment_reference PRIMARY KEY (reference)
+);
+
+INSERT INTO payment_references (reference, payment_id, created_at)
+SELECT reference, id, created_at FROM payments;
+
+-- Every insert path (JPA, reactive client, bulk SQL) claims its reference
+-- here; a duplicate fails with the same uk_payment_reference violation as before
+CREATE FUNCTION claim_payment_reference() RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO payment_references (reference, payment_id, created_at)
+    VALUES (NEW.reference, NEW.id, NEW.created_at);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_payments_claim_reference
+    BEFORE INSERT ON payments
+    FOR EACH ROW EXECUTE FUNCTION claim_payment_reference();
+
+-- Same indexes as V1.1.0, now created on every partition
+CREATE INDEX idx_payments_created_at_id ON payments (created_at, id);
+CREATE INDEX idx_payments_customer_created_at_id ON payments (customer_id, created_at, id);
+CREATE INDEX idx_payments_customer_status_created_at_id ON payments (customer_id, status, created_at, id);
+CREATE INDEX idx_payments_status_created_at_id ON payments (status, created_at, id);
+
+-- Lookups by reference (batch duplicate checks, bulk status updates by reference)
+CREATE INDEX idx_payments_reference ON payments (reference);
+
+ANALYZE payments;
+ANALYZE payment_references;
@@ -0,0 +1,18 @@
+-- Transactional outbox: one row per payment event, inserted in the same
+-- transaction as the payment change and deleted once the relay has
+-- published it. The id doubles as the publication order, so it is taken one
+-- at a time by the column default when the row is inserted rather than in
+-- blocks cached by each replica: events of a payment are inserted while its
+-- row is locked, so their ids follow commit order.
+CREATE SEQUENCE payment_outbox_id_seq INCREMENT BY 1;
+
+CREATE TABLE payment_outbox (
+    id BIGINT NOT NULL DEFAULT nextval('payment_outbox_id_seq'),
+    payment_id BIGINT NOT NULL,
+    event_type VARCHAR(64) NOT NULL,
+    payload VARCHAR(4000) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (id)
+);
+
+ALTER SEQUENCE payment_outbox_id_seq OWNED BY payment_outbox.id;
@@ -0,0 +1,39 @@
+-- Per-customer aggregates served by GET /api/customers/{customerId}/summary.
+-- Rows are adjusted by the transaction that creates a payment or changes its
+-- status, so reads never aggregate payments. Archiving does not touch them.
+--
+-- customer_payment_daily_totals: one row per customer, creation day, currency
+-- and status; ranged summaries read at most one row per day in range.
+CREATE TABLE customer_payment_daily_totals (
+    customer_id VARCHAR(255) NOT NULL,
+    created_on DATE NOT NULL,
+    currency VARCHAR(255) NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    payment_count BIGINT NOT NULL,
+    total_amount DECIMAL(24, 4) NOT NULL,
+    PRIMARY KEY (customer_id, created_on, currency, status)
+);
+
+-- customer_payment_totals: all-time totals per customer, currency and status,
+-- so the unbounded summary costs the same for any history size
+CREATE TABLE customer_payment_totals (
+    customer_id VARCHAR(255) NOT NULL,
+    currency VARCHAR(255) NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    payment_count BIGINT NOT NULL,
+    total_amount DECIMAL(24, 4) NOT NULL,
+    PRIMARY KEY (customer_id, currency, status)
+);
+
+-- Backfill from the payments table. Archived payments are not visible here;
+-- with payments.archive.enabled run POST /admin/customer-summaries/rebuild
+-- on the management interface.
+INSERT INTO customer_payment_daily_totals (customer_id, created_on, currency, status, payment_count, total_amount)
+SELECT customer_id, CAST(created_at AS DATE), currency, status, COUNT(*), SUM(amount)
+FROM payments
+GROUP BY customer_id, CAST(created_at AS DATE), currency, status;
+
+INSERT INTO customer_payment_totals (customer_id, currency, status, payment_count, total_amount)
+SELECT customer_id, currency, status, SUM(payment_count), SUM(total_amount)
+FROM customer_payment_daily_totals
+GROUP BY customer_id, currency, status;
@@ -0,0 +1,11 @@
+-- Archive segments whose payments have been deleted from the payments table.
+-- The archiver inserts the row in the transaction that deletes them, so a
+-- segment file without a row (published, or left behind by a crash) still has
+-- its payments in the hot table; readers do not count those twice, and the
+-- next archiver run finishes the move.
+CREATE TABLE payment_archive_segments (
+    file_name VARCHAR(255) NOT NULL,
+    row_count INTEGER NOT NULL,
+    settled_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (file_name)
+);
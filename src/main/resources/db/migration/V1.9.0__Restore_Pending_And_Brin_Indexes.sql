@@ -0,0 +1,15 @@
+-- Restores the two indexes V1.1.0 stopped creating, as partitioned indexes so
+-- every current partition gets one and ensure_payment_partitions() adds them
+-- to the partitions it creates.
+--
+-- A partitioned index cannot be built CONCURRENTLY: each partition is locked
+-- against writes while its copy is built. Both builds are cheap (one scan per
+-- partition, small outputs), but run this in a quiet period on large tables.
+
+-- status = PENDING (+ from/to): the small, hot subset polled by dashboards,
+-- a fraction of the size of (status, created_at, id)
+CREATE INDEX IF NOT EXISTS idx_payments_pending_created_at_id ON payments (created_at, id)
+    WHERE status = 'PENDING';
+
+-- Wide created_at range scans over the append-only history (reporting, retention)
+CREATE INDEX IF NOT EXISTS brin_payments_created_at ON payments USING BRIN (created_at);
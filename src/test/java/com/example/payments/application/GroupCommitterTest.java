@@ -0,0 +1,118 @@
+package com.example.payments.application;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@DisplayName("Group Committer Tests")
+class GroupCommitterTest {
+
+    private final DistributionSummary groupSize = DistributionSummary.builder("test.group.size")
+            .register(new SimpleMeterRegistry());
+
+    private GroupCommitter<Integer, Integer> committer;
+
+    @AfterEach
+    void tearDown() {
+        if (committer != null) {
+            committer.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Coalesces concurrent submissions and hands each caller its own result")
+    void coalescesConcurrentSubmissions() {
+        List<Integer> groupSizes = new CopyOnWriteArrayList<>();
+        committer = committer(Duration.ofMillis(200), group -> {
+            groupSizes.add(group.size());
+            group.forEach(request -> request.complete(request.item() * 2));
+        });
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        try (ExecutorService callers = Executors.newFixedThreadPool(10)) {
+            for (int item = 0; item < 10; item++) {
+                int submitted = item;
+                results.add(CompletableFuture.supplyAsync(() -> {
+                    await(start);
+                    return committer.submit(submitted);
+                }, callers));
+            }
+            start.countDown();
+
+            assertEquals(IntStream.range(0, 10).mapToObj(item -> item * 2).toList(),
+                    results.stream().map(CompletableFuture::join).toList());
+        }
+        assertEquals(10, groupSizes.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(groupSizes.size() < 10, "Expected shared groups, got " + groupSizes);
+        assertTrue(groupSizes.stream().allMatch(size -> size <= 4), "Groups exceed the maximum: " + groupSizes);
+    }
+
+    @Test
+    @DisplayName("Fails only the requests the flush failed")
+    void failsOnlyFailedRequests() {
+        committer = committer(Duration.ZERO, group -> group.forEach(request -> {
+            if (request.item() % 2 == 0) {
+                request.complete(request.item());
+            } else {
+                request.fail(new IllegalArgumentException("odd " + request.item()));
+            }
+        }));
+
+        assertEquals(2, committer.submit(2));
+        IllegalArgumentException failure = assertThrows(IllegalArgumentException.class, () -> committer.submit(3));
+        assertEquals("odd 3", failure.getMessage());
+    }
+
+    @Test
+    @DisplayName("Fails every pending request when the flush throws or leaves it pending")
+    void failsPendingRequests() {
+        committer = committer(Duration.ZERO, group -> {
+            if (group.get(0).item() == 1) {
+                throw new IllegalStateException("database down");
+            }
+        });
+
+        assertEquals("database down", assertThrows(IllegalStateException.class, () -> committer.submit(1)).getMessage());
+        assertEquals("Item was not flushed", assertThrows(IllegalStateException.class, () -> committer.submit(2)).getMessage());
+    }
+
+    @Test
+    @DisplayName("Rejects submissions after close")
+    void rejectsSubmissionsAfterClose() {
+        committer = committer(Duration.ZERO, group -> group.forEach(request -> request.complete(request.item())));
+        committer.close();
+
+        assertThrows(IllegalStateException.class, () -> committer.submit(1));
+    }
+
+    private GroupCommitter<Integer, Integer> committer(
+            Duration maxWait, Consumer<List<GroupCommitter.Request<Integer, Integer>>> flush) {
+        return new GroupCommitter<>("test-group-commit", 1, 4, maxWait, 100, flush, groupSize);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
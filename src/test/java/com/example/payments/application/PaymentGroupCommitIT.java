@@ -0,0 +1,150 @@
+package com.example.payments.application;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.payments.domain.Currency;
+import com.example.payments.domain.Payment;
+import com.example.payments.domain.PaymentMethod;
+import com.example.payments.dto.CreatePaymentRequest;
+import com.example.payments.dto.PaymentResponse;
+import com.example.payments.exception.DuplicateReferenceException;
+import com.example.payments.infrastructure.repository.PaymentRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+
+/**
+ * Group-commit creates through the service: duplicates and failures inside
+ * one group are reported to their own caller, and every other caller gets
+ * the payment that was committed for it.
+ */
+@QuarkusTest
+@TestProfile(PaymentGroupCommitIT.GroupCommitProfile.class)
+class PaymentGroupCommitIT {
+
+    @Inject
+    PaymentService paymentService;
+
+    @Inject
+    PaymentRepository paymentRepository;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Reports duplicates per caller and creates the rest of the group")
+    void reportsDuplicatesPerCaller() {
+        // Stored behind the service's back: the reference filter has not seen it,
+        // so the group's batch insert hits the unique constraint
+        QuarkusTransaction.requiringNew().run(() -> paymentRepository.save(new Payment(
+                "GC-STORED", "CUST-GC", new BigDecimal("10.00"), Currency.COP, PaymentMethod.CARD)));
+
+        List<CompletableFuture<PaymentResponse>> results = submitConcurrently(
+                "GC-NEW-1", "GC-REPEATED", "GC-STORED", "GC-REPEATED", "GC-NEW-2");
+
+        assertEquals(5.0, meterRegistry.get("payments.group-commit.size").summary().max(),
+                "All creates should share one group");
+        assertCreated(results.get(0), "GC-NEW-1");
+        assertCreated(results.get(4), "GC-NEW-2");
+        assertDuplicate(results.get(2));
+
+        List<CompletableFuture<PaymentResponse>> repeated = List.of(results.get(1), results.get(3));
+        assertEquals(1, repeated.stream().filter(result -> !result.isCompletedExceptionally()).count(),
+                "Exactly one call with a repeated reference creates the payment");
+        repeated.stream().filter(CompletableFuture::isCompletedExceptionally).forEach(this::assertDuplicate);
+        repeated.stream().filter(result -> !result.isCompletedExceptionally())
+                .forEach(result -> assertCreated(result, "GC-REPEATED"));
+    }
+
+    @Test
+    @DisplayName("Fails the callers of a group whose insert failed without reporting conflicts")
+    void failsCallersOfFailedGroup() {
+        // Longer than the reference column: the batch insert fails with a data error
+        String tooLong = "GC-" + "X".repeat(300);
+
+        List<CompletableFuture<PaymentResponse>> results = submitConcurrently(
+                "GC-FAILED", tooLong, "GC-FAILED");
+
+        for (CompletableFuture<PaymentResponse> result : results) {
+            CompletionException failure = assertThrows(CompletionException.class, result::join);
+            assertInstanceOf(IllegalStateException.class, failure.getCause(),
+                    "Nothing was stored, so no caller is told its reference is taken");
+        }
+        assertFalse(paymentRepository.existsByReference("GC-FAILED"));
+    }
+
+    private List<CompletableFuture<PaymentResponse>> submitConcurrently(String... references) {
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<PaymentResponse>> results = new ArrayList<>();
+        try (ExecutorService callers = Executors.newFixedThreadPool(references.length)) {
+            for (String reference : references) {
+                results.add(CompletableFuture.supplyAsync(() -> {
+                    await(start);
+                    return paymentService.create(request(reference));
+                }, callers));
+            }
+            start.countDown();
+        }
+        return results;
+    }
+
+    private void assertCreated(CompletableFuture<PaymentResponse> result, String reference) {
+        PaymentResponse payment = result.join();
+        assertEquals(reference, payment.getReference());
+        assertTrue(paymentService.findById(payment.getId()).isPresent(), "Created payments are committed");
+    }
+
+    private void assertDuplicate(CompletableFuture<PaymentResponse> result) {
+        CompletionException failure = assertThrows(CompletionException.class, result::join);
+        assertInstanceOf(DuplicateReferenceException.class, failure.getCause());
+    }
+
+    private static CreatePaymentRequest request(String reference) {
+        CreatePaymentRequest request = new CreatePaymentRequest();
+        request.setReference(reference);
+        request.setCustomerId("CUST-GC");
+        request.setAmount(new BigDecimal("25.00"));
+        request.setCurrency(Currency.COP);
+        request.setMethod(PaymentMethod.CARD);
+        return request;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static class GroupCommitProfile implements QuarkusTestProfile {
+
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            // One flusher waiting long enough for every concurrent create to join its group
+            return Map.of(
+                    "payments.group-commit.enabled", "true",
+                    "payments.group-commit.flushers", "1",
+                    "payments.group-commit.max-batch-size", "10",
+                    "payments.group-commit.max-wait", "PT1S");
+        }
+    }
+}
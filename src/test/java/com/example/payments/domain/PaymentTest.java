@@ -3,6 +3,7 @@ package com.example.payments.domain;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.math.BigDecimal;
+import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -113,6 +114,15 @@ class PaymentTest {
                 payment.transitionTo(PaymentStatus.REJECTED);
             });
         }
+
+        @Test
+        @DisplayName("checkTransition validates without an entity")
+        void checkTransitionValidatesWithoutEntity() {
+            assertDoesNotThrow(() -> Payment.checkTransition(PaymentStatus.PENDING, PaymentStatus.APPROVED));
+            assertThrows(InvalidStatusTransitionException.class, () -> {
+                Payment.checkTransition(PaymentStatus.APPROVED, PaymentStatus.REJECTED);
+            });
+        }
     }
 
     @Nested
@@ -147,4 +157,35 @@ class PaymentTest {
             assertFalse(payment.canTransitionTo(PaymentStatus.REJECTED));
         }
     }
+
+    @Nested
+    @DisplayName("statusesAllowedToTransitionTo method")
+    class StatusesAllowedToTransitionTo {
+
+        @Test
+        @DisplayName("Only PENDING can move to APPROVED or REJECTED")
+        void onlyPendingCanMoveToFinalStates() {
+            assertEquals(Set.of(PaymentStatus.PENDING), Payment.statusesAllowedToTransitionTo(PaymentStatus.APPROVED));
+            assertEquals(Set.of(PaymentStatus.PENDING), Payment.statusesAllowedToTransitionTo(PaymentStatus.REJECTED));
+        }
+
+        @Test
+        @DisplayName("Nothing can move to PENDING")
+        void nothingCanMoveToPending() {
+            assertTrue(Payment.statusesAllowedToTransitionTo(PaymentStatus.PENDING).isEmpty());
+        }
+
+        @Test
+        @DisplayName("Agrees with canTransitionTo for every pair of statuses")
+        void agreesWithCanTransitionTo() {
+            for (PaymentStatus from : PaymentStatus.values()) {
+                for (PaymentStatus to : PaymentStatus.values()) {
+                    Payment candidate = new Payment("REF-X", "CUST-X", BigDecimal.ONE, Currency.USD, PaymentMethod.CARD);
+                    candidate.setStatus(from);
+                    assertEquals(candidate.canTransitionTo(to),
+                            Payment.statusesAllowedToTransitionTo(to).contains(from));
+                }
+            }
+        }
+    }
 }
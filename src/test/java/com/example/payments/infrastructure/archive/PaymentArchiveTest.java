@@ -0,0 +1,191 @@
+package com.example.payments.infrastructure.archive;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.payments.domain.Currency;
+import com.example.payments.domain.PaymentMethod;
+import com.example.payments.domain.PaymentStatus;
+import com.example.payments.dto.PaymentResponse;
+
+@DisplayName("Payment Archive Tests")
+class PaymentArchiveTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @TempDir
+    Path directory;
+
+    private PaymentArchive archive;
+
+    @BeforeEach
+    void setUp() {
+        archive = new PaymentArchive(directory.toString(), 4);
+    }
+
+    @Nested
+    @DisplayName("Segment format")
+    class SegmentFormat {
+
+        @Test
+        @DisplayName("Round trip keeps every column")
+        void roundTripKeepsEveryColumn() throws Exception {
+            PaymentResponse payment = new PaymentResponse(42L, "PAY-42", "CUST-1", new BigDecimal("150000.1234"),
+                    Currency.USD, PaymentMethod.PSE, PaymentStatus.REJECTED, LocalDateTime.of(2024, 3, 5, 10, 15, 30, 123456000));
+            PaymentResponse huge = new PaymentResponse(7L, "PAY-7", "CUST-2", new BigDecimal("123456789012345678.5000"),
+                    Currency.COP, PaymentMethod.CARD, PaymentStatus.APPROVED, LocalDateTime.of(1969, 12, 31, 23, 59, 59));
+            Path file = directory.resolve("test" + PaymentSegment.FILE_SUFFIX);
+
+            PaymentSegment.Info written = PaymentSegment.write(file, List.of(payment, huge));
+            PaymentSegment segment = PaymentSegment.read(file);
+
+            assertEquals(written, PaymentSegment.readInfo(file));
+            assertEquals(2, written.rowCount());
+            assertEquals(7L, written.minId());
+            assertEquals(42L, written.maxId());
+            assertSamePayment(payment, segment.findById(42L).orElseThrow());
+            assertSamePayment(huge, segment.findById(7L).orElseThrow());
+            assertTrue(segment.findById(8L).isEmpty());
+        }
+
+        @Test
+        @DisplayName("Rejects files that are not segments")
+        void rejectsFilesThatAreNotSegments() throws Exception {
+            Path file = Files.writeString(directory.resolve("other" + PaymentSegment.FILE_SUFFIX), "not a segment");
+
+            assertThrows(java.io.IOException.class, () -> PaymentSegment.readInfo(file));
+        }
+    }
+
+    @Nested
+    @DisplayName("Queries")
+    class Queries {
+
+        @BeforeEach
+        void archivePayments() throws Exception {
+            // Two segments with interleaved creation dates: ids 1..50 on even hours, 51..100 on odd hours
+            archive.append(LongStream.rangeClosed(1, 50).mapToObj(id -> payment(id, (id - 1) * 2)).toList());
+            archive.append(LongStream.rangeClosed(51, 100).mapToObj(id -> payment(id, (id - 51) * 2 + 1)).toList());
+        }
+
+        @Test
+        @DisplayName("Finds by ID across segments")
+        void findsByIdAcrossSegments() {
+            assertEquals(7L, archive.findById(7L).orElseThrow().getId());
+            assertEquals(77L, archive.findById(77L).orElseThrow().getId());
+            assertTrue(archive.findById(101L).isEmpty());
+        }
+
+        @Test
+        @DisplayName("Lists in (createdAt, id) order across segments")
+        void listsInCreatedAtOrder() {
+            List<PaymentResponse> first = archive.find(null, null, null, null, null, null, 4);
+
+            assertEquals(List.of(1L, 51L, 2L, 52L), first.stream().map(PaymentResponse::getId).toList());
+        }
+
+        @Test
+        @DisplayName("Continues after a cursor")
+        void continuesAfterCursor() {
+            PaymentResponse last = archive.find(null, null, null, null, null, null, 4).get(3);
+
+            List<PaymentResponse> next = archive.find(null, null, null, null, last.getCreatedAt(), last.getId(), 2);
+
+            assertEquals(List.of(3L, 53L), next.stream().map(PaymentResponse::getId).toList());
+        }
+
+        @Test
+        @DisplayName("Filters and counts by customer, status and date range")
+        void filtersAndCounts() {
+            LocalDateTime from = START.plusHours(10);
+            LocalDateTime to = START.plusHours(19);
+            settleAll();
+
+            List<PaymentResponse> rejected = archive.find(PaymentStatus.REJECTED, "CUST-0", from, to, null, null, 100);
+
+            assertTrue(rejected.stream().allMatch(p -> p.getStatus() == PaymentStatus.REJECTED
+                    && p.getCustomerId().equals("CUST-0")
+                    && !p.getCreatedAt().isBefore(from) && !p.getCreatedAt().isAfter(to)));
+            assertEquals(rejected.size(), archive.count(PaymentStatus.REJECTED, "CUST-0", from, to));
+            assertEquals(10, archive.count(null, null, from, to));
+            assertEquals(100, archive.count(null, null, null, null));
+            assertEquals(0, archive.count(null, "CUST-UNKNOWN", null, null));
+        }
+
+        @Test
+        @DisplayName("Unsettled segments are read but not counted")
+        void unsettledSegmentsAreReadButNotCounted() throws Exception {
+            settleAll();
+            PaymentSegment.Info extra = archive.append(List.of(payment(500L, 0)));
+
+            assertEquals(List.of(extra), archive.unsettled());
+            assertEquals(List.of(500L), archive.ids(extra));
+            assertTrue(archive.findById(500L).isPresent());
+            assertEquals(100, archive.count(null, null, null, null));
+            List<Long> visited = new ArrayList<>();
+            archive.forEach(payment -> visited.add(payment.getId()));
+            assertFalse(visited.contains(500L));
+
+            archive.settled(extra);
+
+            assertTrue(archive.unsettled().isEmpty());
+            assertEquals(101, archive.count(null, null, null, null));
+        }
+
+        @Test
+        @DisplayName("Refresh picks up segments already on disk")
+        void refreshPicksUpSegmentsOnDisk() {
+            PaymentArchive reopened = new PaymentArchive(directory.toString(), 4);
+            assertTrue(reopened.isEmpty());
+
+            reopened.refresh(Set.of());
+
+            assertEquals(2, reopened.unsettled().size());
+            assertEquals(0, reopened.count(null, null, null, null));
+
+            reopened.refresh(fileNames(reopened.unsettled()));
+
+            assertTrue(reopened.unsettled().isEmpty());
+            assertEquals(100, reopened.count(null, null, null, null));
+        }
+
+        private void settleAll() {
+            archive.unsettled().forEach(archive::settled);
+        }
+    }
+
+    private static Set<String> fileNames(List<PaymentSegment.Info> infos) {
+        return infos.stream().map(info -> info.path().getFileName().toString()).collect(Collectors.toSet());
+    }
+
+    private static PaymentResponse payment(long id, long hour) {
+        return new PaymentResponse(id, "PAY-" + id, "CUST-" + (id % 3), new BigDecimal("100.50"), Currency.COP,
+                PaymentMethod.CARD, id % 2 == 0 ? PaymentStatus.APPROVED : PaymentStatus.REJECTED, START.plusHours(hour));
+    }
+
+    private static void assertSamePayment(PaymentResponse expected, PaymentResponse actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getReference(), actual.getReference());
+        assertEquals(expected.getCustomerId(), actual.getCustomerId());
+        assertEquals(0, expected.getAmount().compareTo(actual.getAmount()));
+        assertEquals(expected.getCurrency(), actual.getCurrency());
+        assertEquals(expected.getMethod(), actual.getMethod());
+        assertEquals(expected.getStatus(), actual.getStatus());
+        assertEquals(expected.getCreatedAt(), actual.getCreatedAt());
+    }
+}
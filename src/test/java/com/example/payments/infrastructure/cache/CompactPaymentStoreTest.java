@@ -0,0 +1,176 @@
+package com.example.payments.infrastructure.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.payments.domain.Currency;
+import com.example.payments.domain.PaymentMethod;
+import com.example.payments.domain.PaymentStatus;
+import com.example.payments.dto.PaymentResponse;
+
+@DisplayName("Compact Payment Store Tests")
+class CompactPaymentStoreTest {
+
+    private static final long NOW = 1_000_000_000L;
+    private static final long NEVER = NOW + Long.MAX_VALUE;
+
+    @Test
+    @DisplayName("Decodes exactly the payment that was stored")
+    void roundTripsPayments() {
+        CompactPaymentStore store = new CompactPaymentStore(10, 10);
+        PaymentResponse payment = new PaymentResponse(7L, "PAY-Ñ-2024-007", "CUST-1", new BigDecimal("-150000.25"),
+                Currency.USD, PaymentMethod.TRANSFER, PaymentStatus.REJECTED,
+                LocalDateTime.of(1969, 12, 31, 23, 59, 59, 123_456_000));
+
+        assertTrue(store.put(payment, NEVER, NOW));
+        PaymentResponse decoded = store.get(7L, NOW);
+
+        assertEquals(payment.getId(), decoded.getId());
+        assertEquals(payment.getReference(), decoded.getReference());
+        assertEquals(payment.getCustomerId(), decoded.getCustomerId());
+        assertEquals(payment.getAmount(), decoded.getAmount());
+        assertEquals(2, decoded.getAmount().scale());
+        assertEquals(payment.getCurrency(), decoded.getCurrency());
+        assertEquals(payment.getMethod(), decoded.getMethod());
+        assertEquals(payment.getStatus(), decoded.getStatus());
+        assertEquals(payment.getCreatedAt(), decoded.getCreatedAt());
+        assertNull(store.get(8L, NOW));
+    }
+
+    @Test
+    @DisplayName("Replaces, removes and reuses records")
+    void replacesAndRemoves() {
+        CompactPaymentStore store = new CompactPaymentStore(3, 10);
+        for (long id = 1; id <= 3; id++) {
+            store.put(payment(id, PaymentStatus.PENDING), NEVER, NOW);
+        }
+        store.put(payment(2, PaymentStatus.APPROVED), NEVER, NOW);
+        assertEquals(PaymentStatus.APPROVED, store.get(2L, NOW).getStatus());
+        assertEquals(3, store.size());
+
+        store.remove(2L);
+        assertNull(store.get(2L, NOW));
+        store.put(payment(4, PaymentStatus.PENDING), NEVER, NOW);
+
+        assertEquals(3, store.size());
+        assertEquals(0, store.evictions());
+        assertNotNull(store.get(1L, NOW));
+        assertNotNull(store.get(3L, NOW));
+        assertNotNull(store.get(4L, NOW));
+    }
+
+    @Test
+    @DisplayName("Evicts the first record not read since the last sweep")
+    void evictsWithClock() {
+        CompactPaymentStore store = new CompactPaymentStore(3, 10);
+        for (long id = 1; id <= 3; id++) {
+            store.put(payment(id, PaymentStatus.APPROVED), NEVER, NOW);
+        }
+        store.get(1L, NOW);
+        store.get(3L, NOW);
+
+        store.put(payment(4, PaymentStatus.APPROVED), NEVER, NOW);
+
+        assertNull(store.get(2L, NOW));
+        assertNotNull(store.get(1L, NOW));
+        assertNotNull(store.get(3L, NOW));
+        assertNotNull(store.get(4L, NOW));
+        assertEquals(1, store.evictions());
+    }
+
+    @Test
+    @DisplayName("Stops serving expired records and evicts them first")
+    void expiresRecords() {
+        CompactPaymentStore store = new CompactPaymentStore(3, 10);
+        store.put(payment(1, PaymentStatus.APPROVED), NEVER, NOW);
+        store.put(payment(2, PaymentStatus.PENDING), NOW + 10, NOW);
+        store.put(payment(3, PaymentStatus.APPROVED), NEVER, NOW);
+        assertNotNull(store.get(1L, NOW + 5));
+        assertNotNull(store.get(2L, NOW + 5));
+        assertNotNull(store.get(3L, NOW + 5));
+
+        assertNull(store.get(2L, NOW + 10));
+        store.put(payment(4, PaymentStatus.APPROVED), NEVER, NOW + 20);
+
+        assertEquals(1, store.evictions());
+        assertNotNull(store.get(1L, NOW + 20));
+        assertNotNull(store.get(3L, NOW + 20));
+        assertNotNull(store.get(4L, NOW + 20));
+    }
+
+    @Test
+    @DisplayName("Keeps lookups working across many inserts and removals")
+    void keepsIndexConsistent() {
+        CompactPaymentStore store = new CompactPaymentStore(1_000, 100);
+        for (long id = 1; id <= 5_000; id++) {
+            store.put(payment(id * 1_024, PaymentStatus.APPROVED), NEVER, NOW);
+            if (id % 3 == 0) {
+                store.remove((id - 1) * 1_024);
+            }
+        }
+        long found = 0;
+        for (long id = 1; id <= 5_000; id++) {
+            PaymentResponse payment = store.get(id * 1_024, NOW);
+            if (payment != null) {
+                assertEquals(id * 1_024, payment.getId());
+                found++;
+            }
+        }
+        assertEquals(store.size(), found);
+        assertTrue(store.size() <= 1_000);
+    }
+
+    @Test
+    @DisplayName("Rejects payments that do not fit the record layout")
+    void rejectsUnrepresentablePayments() {
+        CompactPaymentStore store = new CompactPaymentStore(10, 1);
+        PaymentResponse longReference = payment(1, PaymentStatus.PENDING);
+        longReference.setReference("R".repeat(CompactPaymentStore.MAX_REFERENCE_BYTES + 1));
+        PaymentResponse hugeAmount = payment(2, PaymentStatus.PENDING);
+        hugeAmount.setAmount(new BigDecimal("1234567890123456789012.34"));
+        PaymentResponse nanos = payment(3, PaymentStatus.PENDING);
+        nanos.setCreatedAt(nanos.getCreatedAt().withNano(1));
+
+        assertTrue(store.put(payment(5, PaymentStatus.PENDING), NEVER, NOW));
+        assertFalse(store.put(longReference, NEVER, NOW));
+        assertFalse(store.put(hugeAmount, NEVER, NOW));
+        assertFalse(store.put(nanos, NEVER, NOW));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    @DisplayName("Frees customer entries with their last record")
+    void reusesCustomerEntries() {
+        CompactPaymentStore store = new CompactPaymentStore(10, 2);
+        assertTrue(store.put(payment(1, "CUST-A"), NEVER, NOW));
+        assertTrue(store.put(payment(2, "CUST-B"), NEVER, NOW));
+
+        store.remove(1L);
+        assertTrue(store.put(payment(3, "CUST-C"), NEVER, NOW));
+        assertEquals(0, store.evictions());
+
+        // Dictionary full again: the new customer evicts a record, which frees its entry
+        assertTrue(store.put(payment(4, "CUST-D"), NEVER, NOW));
+        assertEquals(1, store.evictions());
+        assertEquals(2, store.size());
+        assertNull(store.get(3L, NOW));
+        assertEquals("CUST-B", store.get(2L, NOW).getCustomerId());
+        assertEquals("CUST-D", store.get(4L, NOW).getCustomerId());
+    }
+
+    private static PaymentResponse payment(long id, PaymentStatus status) {
+        return new PaymentResponse(id, "PAY-" + id, "CUST-1", new BigDecimal("150000.0000"),
+                Currency.COP, PaymentMethod.CARD, status, LocalDateTime.of(2024, 1, 15, 10, 30).plusSeconds(id));
+    }
+
+    private static PaymentResponse payment(long id, String customerId) {
+        PaymentResponse payment = payment(id, PaymentStatus.APPROVED);
+        payment.setCustomerId(customerId);
+        return payment;
+    }
+}
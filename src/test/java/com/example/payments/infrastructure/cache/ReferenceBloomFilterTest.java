@@ -0,0 +1,53 @@
+package com.example.payments.infrastructure.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Reference Bloom Filter Tests")
+class ReferenceBloomFilterTest {
+
+    @Test
+    @DisplayName("Never reports an added reference as absent")
+    void hasNoFalseNegatives() {
+        ReferenceBloomFilter filter = new ReferenceBloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).parallel().forEach(i -> filter.add("REF-" + i));
+
+        assertTrue(IntStream.range(0, 10_000).allMatch(i -> filter.mightContain("REF-" + i)));
+    }
+
+    @Test
+    @DisplayName("Keeps the false-positive rate near the configured one at the expected size")
+    void keepsConfiguredFalsePositiveRate() {
+        ReferenceBloomFilter filter = new ReferenceBloomFilter(100_000, 0.01);
+        IntStream.range(0, 100_000).forEach(i -> filter.add("REF-" + i));
+
+        long falsePositives = IntStream.range(0, 100_000).filter(i -> filter.mightContain("NEW-" + i)).count();
+        assertTrue(falsePositives < 2_000, "Too many false positives: " + falsePositives);
+        assertEquals(0.01, filter.estimatedFalsePositiveRate(), 0.005);
+        assertEquals(100_000, filter.approximateSize(), 5_000);
+    }
+
+    @Test
+    @DisplayName("Sizes the off-heap bit array from the expected references and rate")
+    void sizesFromConfiguration() {
+        ReferenceBloomFilter filter = new ReferenceBloomFilter(1_000_000, 0.01);
+
+        // About 9.6 bits and 7 hash functions per reference for a 1% rate
+        assertEquals(7, filter.hashCount());
+        assertEquals(9_585_024, filter.bitCount());
+        assertEquals(filter.bitCount() / 8, filter.memoryBytes());
+        assertFalse(filter.mightContain("REF-1"));
+        assertEquals(0, filter.estimatedFalsePositiveRate());
+    }
+
+    @Test
+    @DisplayName("Rejects invalid sizing")
+    void rejectsInvalidSizing() {
+        assertThrows(IllegalArgumentException.class, () -> new ReferenceBloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new ReferenceBloomFilter(1_000, 1));
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.payments.infrastructure.outbox;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import io.quarkus.arc.properties.IfBuildProperty;
+import jakarta.enterprise.context.ApplicationScoped;
+
+/**
+ * Keeps published events in memory so tests can assert on them.
+ * Enabled with {@code payments.outbox.sink=memory}.
+ */
+@ApplicationScoped
+@IfBuildProperty(name = "payments.outbox.sink", stringValue = "memory")
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final List<OutboxMessage> messages = new ArrayList<>();
+
+    @Override
+    public synchronized CompletionStage<Void> publish(List<OutboxMessage> batch) {
+        messages.addAll(batch);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Returns a copy of every event published so far, in publication order.
+     */
+    public synchronized List<OutboxMessage> messages() {
+        return List.copyOf(messages);
+    }
+}
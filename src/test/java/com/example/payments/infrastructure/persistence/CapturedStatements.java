@@ -0,0 +1,44 @@
+package com.example.payments.infrastructure.persistence;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import io.quarkus.hibernate.orm.PersistenceUnitExtension;
+import jakarta.enterprise.context.ApplicationScoped;
+
+/**
+ * Records the SQL Hibernate prepares on the calling thread while
+ * {@link #capture} runs, so tests can EXPLAIN the statements the repository
+ * really sends instead of hand-written copies.
+ */
+@PersistenceUnitExtension
+@ApplicationScoped
+public class CapturedStatements implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> CAPTURED = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        List<String> captured = CAPTURED.get();
+        if (captured != null) {
+            captured.add(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Runs the work and returns the statements it prepared, in order.
+     */
+    public List<String> capture(Runnable work) {
+        List<String> captured = new ArrayList<>();
+        CAPTURED.set(captured);
+        try {
+            work.run();
+        } finally {
+            CAPTURED.remove();
+        }
+        return captured;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.payments.infrastructure.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+
+/**
+ * Verifies via EXPLAIN that every filter combination accepted by
+ * GET /api/payments is served by an index.
+ * Sequential scans are disabled for the session, so a "Seq Scan" in the plan
+ * means no index can serve the query at all.
+ */
+@QuarkusTest
+@TestProfile(PostgresTestProfile.class)
+@EnabledIfSystemProperty(named = "postgres.tests", matches = "true")
+class PaymentIndexUsageIT {
+
+    private static final String RANGE = "created_at >= TIMESTAMP '2024-01-01' AND created_at <= TIMESTAMP '2024-02-01'";
+
+    @Inject
+    EntityManager entityManager;
+
+    static Stream<String> filterCombinations() {
+        List<String> statuses = List.of("status = 'PENDING'", "status = 'APPROVED'");
+        String customer = "customer_id = 'CUST-1'";
+
+        Stream.Builder<String> combinations = Stream.builder();
+        combinations.add("1=1");
+        combinations.add(RANGE);
+        combinations.add(customer);
+        combinations.add(customer + " AND " + RANGE);
+        for (String status : statuses) {
+            combinations.add(status);
+            combinations.add(status + " AND " + RANGE);
+            combinations.add(customer + " AND " + status);
+            combinations.add(customer + " AND " + status + " AND " + RANGE);
+        }
+        return combinations.build();
+    }
+
+    @ParameterizedTest
+    @MethodSource("filterCombinations")
+    @DisplayName("List query uses an index")
+    @Transactional
+    void listQueryUsesIndex(String where) {
+        assertIndexOnly("SELECT * FROM payments WHERE " + where + " ORDER BY created_at, id LIMIT 11");
+    }
+
+    @ParameterizedTest
+    @MethodSource("filterCombinations")
+    @DisplayName("Keyset query uses an index")
+    @Transactional
+    void keysetQueryUsesIndex(String where) {
+        assertIndexOnly("SELECT * FROM payments WHERE " + where
+                + " AND (created_at, id) > (TIMESTAMP '2024-01-15', 42) ORDER BY created_at, id LIMIT 11");
+    }
+
+    @ParameterizedTest
+    @MethodSource("filterCombinations")
+    @DisplayName("Count query uses an index")
+    @Transactional
+    void countQueryUsesIndex(String where) {
+        assertIndexOnly("SELECT count(*) FROM payments WHERE " + where);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void assertIndexOnly(String sql) {
+        entityManager.createNativeQuery("SET LOCAL enable_seqscan = off").executeUpdate();
+
+        List<String> plan = entityManager.createNativeQuery("EXPLAIN " + sql, String.class).getResultList();
+        String planText = plan.stream().collect(Collectors.joining("\n"));
+
+        assertFalse(planText.contains("Seq Scan"), () -> "Sequential scan for: " + sql + "\n" + planText);
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.payments.infrastructure.persistence;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.example.payments.application.PaymentService;
+import com.example.payments.domain.Currency;
+import com.example.payments.domain.Payment;
+import com.example.payments.domain.PaymentMethod;
+import com.example.payments.dto.CreatePaymentRequest;
+import com.example.payments.infrastructure.repository.PaymentRepository;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Insert throughput benchmark for the payment ID strategy.
+ * Compares the entity path as it ran with IDENTITY ids (each persist sent
+ * its INSERT immediately, one round trip per row) with sequence IDs
+ * allocated by the pooled-lo optimizer and sent as JDBC batches, plus the
+ * one-transaction-per-request create path for reference. Results are logged.
+ * Opt-in: {@code -Dpostgres.benchmarks=true} (needs the docker-compose database);
+ * tune with {@code -Dbenchmark.rows} and {@code -Dbenchmark.chunk}.
+ */
+@QuarkusTest
+@TestProfile(PostgresTestProfile.class)
+@EnabledIfSystemProperty(named = "postgres.benchmarks", matches = "true")
+class PaymentInsertBenchmarkIT {
+
+    private static final Logger LOG = Logger.getLogger(PaymentInsertBenchmarkIT.class);
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 20_000);
+    private static final int CHUNK = Integer.getInteger("benchmark.chunk", 500);
+    private static final int REQUEST_ROWS = Math.max(1, ROWS / 10);
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    PaymentRepository paymentRepository;
+
+    @Inject
+    PaymentService paymentService;
+
+    @Test
+    @DisplayName("Inserts/sec: database-generated ids vs pooled-lo sequence batches")
+    void compareInsertThroughput() {
+        // Warm up connections, statement caches and the JIT
+        insertRowByRow(CHUNK);
+        insertBatched(CHUNK);
+
+        double rowByRow = measure(ROWS, this::insertRowByRow);
+        double batched = measure(ROWS, this::insertBatched);
+        double perRequest = measure(REQUEST_ROWS, this::createPerRequest);
+
+        LOG.infof("Payment insert throughput (%d rows, chunks of %d)", ROWS, CHUNK);
+        LOG.infof("  %-48s %10.0f inserts/s", "entity persist, one INSERT per row", rowByRow);
+        LOG.infof("  %-48s %10.0f inserts/s", "pooled-lo sequence, JDBC batch", batched);
+        LOG.infof("  %-48s %10.0f inserts/s", "create() per request (" + REQUEST_ROWS + " rows)", perRequest);
+        LOG.infof("  batched / row-by-row speedup: %.1fx", batched / rowByRow);
+    }
+
+    private double measure(int rows, RowWriter writer) {
+        long start = System.nanoTime();
+        writer.write(rows);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        return rows / seconds;
+    }
+
+    // The baseline entity path: with GenerationType.IDENTITY every persist had to send its
+    // INSERT at once to learn the id, so nothing was batched. Flushing after each persist
+    // reproduces that through the same entity and repository.
+    private void insertRowByRow(int rows) {
+        for (int start = 0; start < rows; start += CHUNK) {
+            int count = Math.min(CHUNK, rows - start);
+            QuarkusTransaction.requiringNew().run(() -> {
+                for (int i = 0; i < count; i++) {
+                    paymentRepository.save(newPayment());
+                    entityManager.flush();
+                }
+            });
+        }
+    }
+
+    private void insertBatched(int rows) {
+        for (int start = 0; start < rows; start += CHUNK) {
+            int count = Math.min(CHUNK, rows - start);
+            QuarkusTransaction.requiringNew().run(() -> {
+                List<Payment> payments = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    payments.add(newPayment());
+                }
+                paymentRepository.saveAll(payments);
+            });
+        }
+    }
+
+    private void createPerRequest(int rows) {
+        for (int i = 0; i < rows; i++) {
+            Payment payment = newPayment();
+            CreatePaymentRequest request = new CreatePaymentRequest();
+            request.setReference(payment.getReference());
+            request.setCustomerId(payment.getCustomerId());
+            request.setAmount(payment.getAmount());
+            request.setCurrency(payment.getCurrency());
+            request.setMethod(payment.getMethod());
+            paymentService.create(request);
+        }
+    }
+
+    private static Payment newPayment() {
+        return new Payment(
+                "BENCH-" + UUID.randomUUID(),
+                "CUST-BENCH",
+                new BigDecimal("100.00"),
+                Currency.COP,
+                PaymentMethod.CARD);
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(int rows);
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.payments.infrastructure.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.example.payments.domain.Currency;
+import com.example.payments.domain.Payment;
+import com.example.payments.domain.PaymentMethod;
+import com.example.payments.infrastructure.repository.PaymentRepository;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Verifies the monthly partitioning of the payments table: the repository's
+ * queries bounded on created_at only visit the partitions in range, and
+ * references stay unique and visible across partitions, detached ones
+ * included. Plans are taken from the statements the repository sends.
+ */
+@QuarkusTest
+@TestProfile(PostgresTestProfile.class)
+@EnabledIfSystemProperty(named = "postgres.tests", matches = "true")
+class PaymentPartitioningIT {
+
+    @Inject
+    EntityManager entityManager;
+
+    @Inject
+    PaymentRepository paymentRepository;
+
+    @Inject
+    CapturedStatements capturedStatements;
+
+    @BeforeEach
+    void createPartitions() {
+        QuarkusTransaction.requiringNew().run(() -> entityManager
+                .createNativeQuery("SELECT ensure_payment_partitions(TIMESTAMP '2024-01-01', TIMESTAMP '2024-03-01')")
+                .getSingleResult());
+    }
+
+    @Test
+    @DisplayName("Range filter only scans the partitions in range")
+    void rangeFilterIsPruned() {
+        LocalDateTime from = LocalDateTime.of(2024, 1, 5, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 1, 20, 0, 0);
+
+        String sql = paymentsQuery(() -> paymentRepository.findByFilters(null, null, from, to, 0, 10));
+        String plan = explain(sql, from, to, 10);
+
+        assertTrue(plan.contains("payments_p2024_01"), plan);
+        assertFalse(plan.contains("payments_p2024_02"), plan);
+        assertFalse(plan.contains("payments_p2024_03"), plan);
+    }
+
+    @Test
+    @DisplayName("Keyset seek skips the partitions before the cursor")
+    void keysetSeekIsPruned() {
+        LocalDateTime afterCreatedAt = LocalDateTime.of(2024, 2, 15, 0, 0);
+
+        String sql = paymentsQuery(() -> paymentRepository.findByFiltersAfter(
+                null, null, null, null, afterCreatedAt, 42L, 11));
+        // The cursor date is bound twice: in the row comparison and in the plain bound
+        String plan = explain(sql, afterCreatedAt, 42L, afterCreatedAt, 11);
+
+        assertFalse(plan.contains("payments_p2024_01"), plan);
+        assertTrue(plan.contains("payments_p2024_02"), plan);
+    }
+
+    @Test
+    @DisplayName("Reference lookups read the claims, not every partition")
+    void referenceLookupReadsClaims() {
+        String sql = capturedStatements.capture(() -> QuarkusTransaction.requiringNew().run(
+                () -> paymentRepository.findExistingReferences(List.of("PART-LOOKUP-1"))))
+                .get(0);
+        String plan = explain(sql, "PART-LOOKUP-1");
+
+        assertTrue(plan.contains("payment_references"), plan);
+        assertFalse(plan.contains("payments_p"), plan);
+    }
+
+    @Test
+    @DisplayName("References of detached partitions are still found")
+    void detachedReferencesAreFound() {
+        LocalDateTime createdAt = LocalDateTime.of(2019, 6, 10, 12, 0);
+        QuarkusTransaction.requiringNew().run(() -> {
+            entityManager.createNativeQuery("SELECT ensure_payment_partitions(:from, :to)")
+                    .setParameter("from", createdAt)
+                    .setParameter("to", createdAt)
+                    .getSingleResult();
+            paymentRepository.insertIfAbsent(payment("PART-DETACHED-1", createdAt));
+        });
+        try {
+            QuarkusTransaction.requiringNew().run(() -> entityManager
+                    .createNativeQuery("ALTER TABLE payments DETACH PARTITION payments_p2019_06")
+                    .executeUpdate());
+
+            Set<String> existing = QuarkusTransaction.requiringNew().call(() -> paymentRepository
+                    .findExistingReferences(List.of("PART-DETACHED-1", "PART-DETACHED-UNUSED")));
+
+            assertEquals(Set.of("PART-DETACHED-1"), existing);
+        } finally {
+            QuarkusTransaction.requiringNew().run(() -> entityManager
+                    .createNativeQuery("DROP TABLE IF EXISTS payments_p2019_06")
+                    .executeUpdate());
+        }
+    }
+
+    @Test
+    @DisplayName("Reference is unique across partitions")
+    void referenceIsUniqueAcrossPartitions() {
+        Optional<Payment> first = QuarkusTransaction.requiringNew().call(() -> paymentRepository
+                .insertIfAbsent(payment("PART-REF-1", LocalDateTime.of(2024, 1, 10, 12, 0))));
+        Optional<Payment> duplicate = QuarkusTransaction.requiringNew().call(() -> {
+            Optional<Payment> result = paymentRepository
+                    .insertIfAbsent(payment("PART-REF-1", LocalDateTime.of(2024, 2, 10, 12, 0)));
+            // ON CONFLICT DO NOTHING leaves the transaction usable
+            assertEquals(Set.of("PART-REF-1"), paymentRepository.findExistingReferences(List.of("PART-REF-1")));
+            return result;
+        });
+
+        assertTrue(first.isPresent());
+        assertTrue(duplicate.isEmpty());
+        long claims = QuarkusTransaction.requiringNew().call(() -> ((Number) entityManager
+                .createNativeQuery("SELECT COUNT(*) FROM payment_references WHERE reference = 'PART-REF-1'")
+                .getSingleResult()).longValue());
+        assertEquals(1L, claims);
+    }
+
+    // The single statement on payments the work sends
+    private String paymentsQuery(Runnable work) {
+        List<String> statements = capturedStatements.capture(() -> QuarkusTransaction.requiringNew().run(work))
+                .stream()
+                .filter(sql -> sql.toLowerCase(Locale.ROOT).contains(" from payments "))
+                .toList();
+        assertEquals(1, statements.size(), statements.toString());
+        return statements.get(0);
+    }
+
+    // EXPLAIN of the statement with its parameters bound, so the planner prunes as it does for the repository
+    private String explain(String sql, Object... parameters) {
+        assertEquals(parameters.length, sql.chars().filter(c -> c == '?').count(), sql);
+        return QuarkusTransaction.requiringNew().call(() -> entityManager.unwrap(Session.class)
+                .doReturningWork(connection -> {
+                    try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                        for (int i = 0; i < parameters.length; i++) {
+                            statement.setObject(i + 1, parameters[i]);
+                        }
+                        StringBuilder plan = new StringBuilder();
+                        try (ResultSet rows = statement.executeQuery()) {
+                            while (rows.next()) {
+                                plan.append(rows.getString(1)).append('\n');
+                            }
+                        }
+                        return plan.toString();
+                    }
+                }));
+    }
+
+    private static Payment payment(String reference, LocalDateTime createdAt) {
+        Payment payment = new Payment(reference, "CUST-PART", new BigDecimal("100.00"), Currency.COP, PaymentMethod.CARD);
+        payment.setCreatedAt(createdAt);
+        return payment;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.payments.infrastructure.persistence;
+
+import java.util.Map;
+
+import io.quarkus.test.junit.QuarkusTestProfile;
+
+/**
+ * Test profile that runs against a real PostgreSQL (the payments_test
+ * database of the docker-compose instance by default) with the Flyway schema
+ * instead of H2. The schema is cleaned first only when the database name ends
+ * in _test, so a {@code -Dpostgres.url} pointing at the application's own
+ * database is migrated but never wiped.
+ * Tests using it are opt-in via {@code -Dpostgres.tests=true}.
+ */
+public class PostgresTestProfile implements QuarkusTestProfile {
+
+    static final String DEFAULT_URL = "jdbc:postgresql://localhost:5434/payments_test";
+
+    @Override
+    public Map<String, String> getConfigOverrides() {
+        String url = System.getProperty("postgres.url", DEFAULT_URL);
+        String clean = String.valueOf(isTestDatabase(url));
+        return Map.of(
+                "quarkus.datasource.db-kind", "postgresql",
+                "quarkus.datasource.jdbc.url", url,
+                "quarkus.datasource.username", System.getProperty("postgres.username", "postgres"),
+                "quarkus.datasource.password", System.getProperty("postgres.password", "secret"),
+                "quarkus.hibernate-orm.database.generation", "none",
+                "quarkus.flyway.migrate-at-start", "true",
+                "quarkus.flyway.clean-at-start", clean,
+                "quarkus.flyway.clean-disabled", String.valueOf(!Boolean.parseBoolean(clean)));
+    }
+
+    // jdbc:postgresql://host:port/name?params -> name
+    static boolean isTestDatabase(String url) {
+        String path = url.contains("?") ? url.substring(0, url.indexOf('?')) : url;
+        return path.substring(path.lastIndexOf('/') + 1).endsWith("_test");
+    }
+}
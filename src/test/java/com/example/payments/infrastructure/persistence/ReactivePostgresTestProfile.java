@@ -0,0 +1,24 @@
+package com.example.payments.infrastructure.persistence;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link PostgresTestProfile} built with {@code payments.execution-mode=reactive},
+ * so single-payment reads and listings go through the reactive client.
+ * Uses its own archive directory, since its tests write segments.
+ */
+public class ReactivePostgresTestProfile extends PostgresTestProfile {
+
+    public static final String ARCHIVE_DIRECTORY = "target/reactive-test-archive";
+
+    @Override
+    public Map<String, String> getConfigOverrides() {
+        Map<String, String> overrides = new HashMap<>(super.getConfigOverrides());
+        overrides.put("payments.execution-mode", "reactive");
+        overrides.put("quarkus.datasource.reactive", "true");
+        overrides.put("quarkus.datasource.reactive.url", overrides.get("quarkus.datasource.jdbc.url").replace("jdbc:", ""));
+        overrides.put("payments.archive.directory", ARCHIVE_DIRECTORY);
+        return overrides;
+    }
+}
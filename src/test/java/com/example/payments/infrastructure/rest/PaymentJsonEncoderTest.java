@@ -0,0 +1,110 @@
+package com.example.payments.infrastructure.rest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.payments.domain.Currency;
+import com.example.payments.domain.PaymentMethod;
+import com.example.payments.domain.PaymentStatus;
+import com.example.payments.dto.PagedResponse;
+import com.example.payments.dto.PaymentResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import io.vertx.core.buffer.Buffer;
+
+@DisplayName("Payment JSON Encoder Tests")
+class PaymentJsonEncoderTest {
+
+    // Same settings Quarkus applies to its default ObjectMapper
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    @DisplayName("Encodes payments exactly like Jackson")
+    void matchesJacksonForPayments() throws JsonProcessingException {
+        assertMatchesJackson(payment(1, new BigDecimal("150000.00"), LocalDateTime.of(2024, 1, 15, 10, 30)));
+        assertMatchesJackson(new PaymentResponse());
+        assertMatchesJackson(new PaymentResponse(-9L, "PAY-\"quoted\"\\ \n\t\r\b\f\u0001\u001f\u007f", "CLIENTE-ñ-€-😀",
+                new BigDecimal("-0.0001"), Currency.EUR, PaymentMethod.TRANSFER, PaymentStatus.REJECTED,
+                LocalDateTime.of(1999, 12, 31, 23, 59, 59, 120_000_000)));
+    }
+
+    @Test
+    @DisplayName("Formats amounts like BigDecimal.toString and timestamps like ISO_LOCAL_DATE_TIME")
+    void matchesJacksonForAmountsAndTimestamps() throws JsonProcessingException {
+        List<BigDecimal> amounts = new ArrayList<>(List.of(
+                BigDecimal.ZERO, new BigDecimal("0.00"), new BigDecimal("1E+3"), new BigDecimal("0.000001"),
+                new BigDecimal("0.0000001"), new BigDecimal("999999999999999"), new BigDecimal("9999999999999999"),
+                new BigDecimal("-99999999999.9999"), new BigDecimal("123456789012345678901234.5")));
+        List<LocalDateTime> timestamps = new ArrayList<>(List.of(
+                LocalDateTime.of(2024, 1, 15, 0, 0), LocalDateTime.of(2024, 1, 15, 10, 30, 0, 1),
+                LocalDateTime.of(2024, 1, 15, 10, 30, 5, 123_456_000), LocalDateTime.of(12024, 1, 1, 0, 0),
+                LocalDateTime.of(-1, 1, 1, 0, 0), LocalDateTime.of(5, 6, 7, 8, 9, 10, 500_000_000)));
+        Random random = new Random(42);
+        for (int i = 0; i < 2_000; i++) {
+            long unscaled = (long) (random.nextDouble() * Math.pow(10, 1 + random.nextInt(15)));
+            amounts.add(BigDecimal.valueOf(random.nextBoolean() ? unscaled : -unscaled, random.nextInt(16)));
+            timestamps.add(LocalDateTime.of(1970, 1, 1, 0, 0)
+                    .plusSeconds(random.nextInt(Integer.MAX_VALUE))
+                    .withNano(random.nextBoolean() ? random.nextInt(1_000) * 1_000_000 : random.nextInt(1_000_000_000)));
+        }
+
+        for (int i = 0; i < amounts.size(); i++) {
+            assertMatchesJackson(payment(i, amounts.get(i), timestamps.get(i % timestamps.size())));
+        }
+    }
+
+    @Test
+    @DisplayName("Encodes every kind of page exactly like Jackson")
+    void matchesJacksonForPages() throws JsonProcessingException {
+        List<PaymentResponse> content = List.of(
+                payment(1, new BigDecimal("10.5"), LocalDateTime.of(2024, 1, 15, 10, 30)),
+                payment(2, new BigDecimal("20"), LocalDateTime.of(2024, 1, 15, 10, 31)));
+
+        PagedResponse<PaymentResponse> estimated = PagedResponse.ofSlice(content, 1, 2, false);
+        estimated.setEstimatedTotalElements(1_000L);
+
+        for (PagedResponse<PaymentResponse> page : List.of(
+                new PagedResponse<>(content, 0, 2, 7L),
+                PagedResponse.ofSlice(content, 3, 2, true),
+                estimated,
+                PagedResponse.ofCursor(content, 2, "eyJpZCI6Mn0"),
+                PagedResponse.ofCursor(List.<PaymentResponse>of(), 10, null),
+                new PagedResponse<PaymentResponse>())) {
+            assertTrue(PaymentJsonEncoder.isPaymentPage(page));
+            Buffer buffer = Buffer.buffer();
+            PaymentJsonEncoder.writePage(buffer, page);
+            assertEquals(objectMapper.writeValueAsString(page), buffer.toString(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    @DisplayName("Leaves pages of other item types to Jackson")
+    void detectsOtherPages() {
+        assertFalse(PaymentJsonEncoder.isPaymentPage(PagedResponse.ofCursor(List.of("text"), 1, null)));
+    }
+
+    private void assertMatchesJackson(PaymentResponse payment) throws JsonProcessingException {
+        Buffer buffer = Buffer.buffer();
+        PaymentJsonEncoder.writePayment(buffer, payment);
+        assertEquals(objectMapper.writeValueAsString(payment), buffer.toString(StandardCharsets.UTF_8));
+    }
+
+    private static PaymentResponse payment(long id, BigDecimal amount, LocalDateTime createdAt) {
+        return new PaymentResponse(id, "PAY-2024-" + id, "CUST-" + (id % 10), amount,
+                Currency.COP, PaymentMethod.CARD, PaymentStatus.PENDING, createdAt);
+    }
+}
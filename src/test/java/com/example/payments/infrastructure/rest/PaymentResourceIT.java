@@ -2,15 +2,27 @@ package com.example.payments.infrastructure.rest;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Order;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestMethodOrder;
 
+import com.example.payments.infrastructure.outbox.InMemoryOutboxSink;
+import com.example.payments.infrastructure.outbox.OutboxMessage;
+
 import io.quarkus.test.junit.QuarkusTest;
 import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
 
 /**
  * Integration tests for Payment REST endpoints.
@@ -22,6 +34,12 @@ class PaymentResourceIT {
 
     private static Long createdPaymentId;
 
+    @Inject
+    InMemoryOutboxSink outboxSink;
+
+    @ConfigProperty(name = "quarkus.management.test-port", defaultValue = "9001")
+    int managementPort;
+
     @Test
     @Order(1)
     @DisplayName("POST /api/payments - should create payment with PENDING status")
@@ -243,4 +261,505 @@ class PaymentResourceIT {
                 .statusCode(404)
                 .body("code", equalTo("PAYMENT_NOT_FOUND"));
     }
+
+    @Test
+    @Order(12)
+    @DisplayName("GET /api/payments?cursor - should page through payments by keyset")
+    void shouldPageThroughPaymentsWithCursor() {
+        for (String reference : List.of("TEST-CURSOR-001", "TEST-CURSOR-002")) {
+            given()
+                    .contentType(ContentType.JSON)
+                    .body("""
+                            {
+                                "reference": "%s",
+                                "customerId": "CUST-CURSOR",
+                                "amount": 10.00,
+                                "currency": "USD",
+                                "method": "CARD"
+                            }
+                            """.formatted(reference))
+                    .when()
+                    .post("/api/payments")
+                    .then()
+                    .statusCode(201);
+        }
+
+        List<String> seen = new ArrayList<>();
+        String cursor = "";
+        do {
+            var page = given()
+                    .queryParam("customerId", "CUST-CURSOR")
+                    .queryParam("size", 1)
+                    .queryParam("cursor", cursor)
+                    .when()
+                    .get("/api/payments")
+                    .then()
+                    .statusCode(200)
+                    .body("content", hasSize(lessThanOrEqualTo(1)))
+                    .body("totalElements", nullValue())
+                    .extract();
+            seen.addAll(page.path("content.reference"));
+            cursor = page.path("nextCursor");
+        } while (cursor != null);
+
+        assertEquals(List.of("TEST-CURSOR-001", "TEST-CURSOR-002"), seen);
+    }
+
+    @Test
+    @Order(13)
+    @DisplayName("GET /api/payments?cursor - should return 400 for malformed cursor")
+    void shouldReturn400ForMalformedCursor() {
+        given()
+                .queryParam("cursor", "not-a-cursor")
+                .when()
+                .get("/api/payments")
+                .then()
+                .statusCode(400)
+                .body("code", equalTo("INVALID_CURSOR"));
+    }
+
+    @Test
+    @Order(14)
+    @DisplayName("GET /api/payments?count=none - should return hasNext without totals")
+    void shouldReturnHasNextWithoutCount() {
+        given()
+                .queryParam("customerId", "CUST-CURSOR")
+                .queryParam("page", 0)
+                .queryParam("size", 1)
+                .queryParam("count", "none")
+                .when()
+                .get("/api/payments")
+                .then()
+                .statusCode(200)
+                .body("content", hasSize(1))
+                .body("hasNext", equalTo(true))
+                .body("totalElements", nullValue())
+                .body("totalPages", nullValue());
+
+        given()
+                .queryParam("customerId", "CUST-CURSOR")
+                .queryParam("page", 1)
+                .queryParam("size", 1)
+                .queryParam("count", "none")
+                .when()
+                .get("/api/payments")
+                .then()
+                .statusCode(200)
+                .body("content", hasSize(1))
+                .body("hasNext", equalTo(false));
+    }
+
+    @Test
+    @Order(15)
+    @DisplayName("POST /api/payments/batch - should report per-item results")
+    void shouldCreatePaymentsInBatch() {
+        String requestBody = """
+                {
+                    "items": [
+                        { "reference": "TEST-BATCH-001", "customerId": "CUST-BATCH", "amount": 10.00, "currency": "COP", "method": "CARD" },
+                        { "reference": "TEST-REF-001", "customerId": "CUST-BATCH", "amount": 20.00, "currency": "COP", "method": "CARD" },
+                        { "reference": "TEST-BATCH-002", "customerId": "CUST-BATCH", "amount": -5.00, "currency": "COP", "method": "CARD" },
+                        { "reference": "TEST-BATCH-001", "customerId": "CUST-BATCH", "amount": 30.00, "currency": "COP", "method": "PSE" },
+                        { "reference": "TEST-BATCH-003", "customerId": "CUST-BATCH", "amount": 40.00, "currency": "USD", "method": "TRANSFER" }
+                    ]
+                }
+                """;
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(requestBody)
+                .when()
+                .post("/api/payments/batch")
+                .then()
+                .statusCode(200)
+                .body("created", equalTo(2))
+                .body("duplicates", equalTo(2))
+                .body("invalid", equalTo(1))
+                .body("results.outcome", contains("CREATED", "DUPLICATE", "INVALID", "DUPLICATE", "CREATED"))
+                .body("results[0].payment.status", equalTo("PENDING"))
+                .body("results[0].payment.id", notNullValue());
+    }
+
+    @Test
+    @Order(16)
+    @DisplayName("POST /api/payments/batch - should return 400 for empty batch")
+    void shouldReturn400ForEmptyBatch() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{ \"items\": [] }")
+                .when()
+                .post("/api/payments/batch")
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    @Order(17)
+    @DisplayName("PATCH /api/payments/status - should transition pending payments and report the rest")
+    void shouldBulkUpdateStatus() {
+        String requestBody = """
+                {
+                    "references": ["TEST-CURSOR-001", "TEST-CURSOR-002", "TEST-REF-001", "UNKNOWN-REF"],
+                    "ids": [99999],
+                    "status": "REJECTED"
+                }
+                """;
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(requestBody)
+                .when()
+                .patch("/api/payments/status")
+                .then()
+                .statusCode(200)
+                .body("transitioned", hasSize(2))
+                .body("rejected.reference", contains("TEST-REF-001"))
+                .body("rejected[0].status", equalTo("APPROVED"))
+                .body("notFoundIds", contains(99999))
+                .body("notFoundReferences", contains("UNKNOWN-REF"));
+
+        given()
+                .queryParam("customerId", "CUST-CURSOR")
+                .when()
+                .get("/api/payments")
+                .then()
+                .statusCode(200)
+                .body("content.status", everyItem(equalTo("REJECTED")));
+    }
+
+    @Test
+    @Order(18)
+    @DisplayName("PATCH /api/payments/status - should return 400 when no payment is selected")
+    void shouldReturn400ForEmptyBulkUpdate() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{ \"status\": \"APPROVED\" }")
+                .when()
+                .patch("/api/payments/status")
+                .then()
+                .statusCode(400);
+    }
+
+    @Test
+    @Order(19)
+    @DisplayName("GET /api/payments/{id} - should not serve a stale status after an update")
+    void shouldNotServeStaleStatusAfterUpdate() {
+        Integer id = given()
+                .contentType(ContentType.JSON)
+                .body("""
+                        {
+                            "reference": "TEST-CACHE-001",
+                            "customerId": "CUST-CACHE",
+                            "amount": 75.00,
+                            "currency": "EUR",
+                            "method": "TRANSFER"
+                        }
+                        """)
+                .when()
+                .post("/api/payments")
+                .then()
+                .statusCode(201)
+                .extract().path("id");
+
+        given().when().get("/api/payments/{id}", id).then().body("status", equalTo("PENDING"));
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("{ \"status\": \"APPROVED\" }")
+                .when()
+                .patch("/api/payments/{id}/status", id)
+                .then()
+                .statusCode(200);
+
+        given().when().get("/api/payments/{id}", id).then().body("status", equalTo("APPROVED"));
+    }
+
+    @Test
+    @Order(20)
+    @DisplayName("GET /api/payments/status-events - should emit the final status and complete")
+    void shouldStreamFinalStatusAndComplete() {
+        Integer id = given()
+                .contentType(ContentType.JSON)
+                .body("""
+                        {
+                            "reference": "TEST-STREAM-001",
+                            "customerId": "CUST-STREAM",
+                            "amount": 12.00,
+                            "currency": "USD",
+                            "method": "CARD"
+                        }
+                        """)
+                .when()
+                .post("/api/payments")
+                .then()
+                .statusCode(201)
+                .extract().path("id");
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("{ \"status\": \"REJECTED\" }")
+                .when()
+                .patch("/api/payments/{id}/status", id)
+                .then()
+                .statusCode(200);
+
+        given()
+                .accept("text/event-stream")
+                .queryParam("id", id)
+                .queryParam("timeout", 5)
+                .when()
+                .get("/api/payments/status-events")
+                .then()
+                .statusCode(200)
+                .body(containsString("\"status\":\"REJECTED\""))
+                .body(containsString("\"finalStatus\":true"));
+    }
+
+    @Test
+    @Order(21)
+    @DisplayName("GET /api/payments/status-events - should return 404 for an unknown payment")
+    void shouldReturn404WhenStreamingUnknownPayment() {
+        given()
+                .accept("text/event-stream")
+                .queryParam("id", 99999)
+                .when()
+                .get("/api/payments/status-events")
+                .then()
+                .statusCode(404);
+    }
+
+    @Test
+    @Order(22)
+    @DisplayName("GET /api/payments/export - should stream matching payments as NDJSON and CSV")
+    void shouldExportPaymentsAsNdjsonAndCsv() {
+        String ndjson = given()
+                .queryParam("customerId", "CUST-CURSOR")
+                .when()
+                .get("/api/payments/export")
+                .then()
+                .statusCode(200)
+                .contentType(startsWith("application/x-ndjson"))
+                .extract().asString();
+
+        long exported = ndjson.lines().count();
+        Integer total = given()
+                .queryParam("customerId", "CUST-CURSOR")
+                .when()
+                .get("/api/payments")
+                .then()
+                .extract().path("totalElements");
+        assertEquals(total.longValue(), exported);
+
+        given()
+                .queryParam("customerId", "CUST-CURSOR")
+                .queryParam("format", "csv")
+                .when()
+                .get("/api/payments/export")
+                .then()
+                .statusCode(200)
+                .contentType(startsWith("text/csv"))
+                .body(startsWith("id,reference,customerId,amount,currency,method,status,createdAt"))
+                .body(containsString("CUST-CURSOR"));
+    }
+
+    @Test
+    @Order(23)
+    @DisplayName("GET /q/metrics - should expose use case timers and error counters")
+    void shouldExposeUseCaseAndErrorMetrics() {
+        given().when().get("/api/payments/{id}", 999999).then().statusCode(404);
+
+        // Metrics are served on the management interface
+        given()
+                .port(managementPort)
+                .when()
+                .get("/q/metrics")
+                .then()
+                .statusCode(200)
+                .body(containsString("payments_service_seconds_count"))
+                .body(containsString("operation=\"findById\""))
+                .body(containsString("payments_repository_seconds_count"))
+                .body(containsString("payments_errors_total{exception=\"PaymentNotFoundException\",status=\"404\"}"));
+    }
+
+    @Test
+    @Order(24)
+    @DisplayName("PATCH /api/payments/{id}/status - concurrent transitions should let exactly one win")
+    void shouldLetExactlyOneConcurrentTransitionWin() {
+        Integer id = given()
+                .contentType(ContentType.JSON)
+                .body("""
+                        {
+                            "reference": "TEST-REF-RACE",
+                            "customerId": "CUST-RACE",
+                            "amount": 1000.00,
+                            "currency": "COP",
+                            "method": "CARD"
+                        }
+                        """)
+                .when()
+                .post("/api/payments")
+                .then()
+                .statusCode(201)
+                .extract().path("id");
+
+        List<CompletableFuture<Integer>> updates = new ArrayList<>();
+        for (String status : List.of("APPROVED", "REJECTED")) {
+            updates.add(CompletableFuture.supplyAsync(() -> given()
+                    .contentType(ContentType.JSON)
+                    .body("{\"status\": \"" + status + "\"}")
+                    .when()
+                    .patch("/api/payments/{id}/status", id)
+                    .then()
+                    .extract().statusCode()));
+        }
+
+        List<Integer> statusCodes = updates.stream().map(CompletableFuture::join).sorted().toList();
+        assertEquals(List.of(200, 409), statusCodes);
+    }
+
+    @Test
+    @Order(25)
+    @DisplayName("Outbox - should publish creation and status change events in order")
+    void shouldPublishOutboxEventsInOrder() throws InterruptedException {
+        Integer id = given()
+                .contentType(ContentType.JSON)
+                .body("""
+                        {
+                            "reference": "TEST-REF-OUTBOX",
+                            "customerId": "CUST-OUTBOX",
+                            "amount": 2500.00,
+                            "currency": "USD",
+                            "method": "TRANSFER"
+                        }
+                        """)
+                .when()
+                .post("/api/payments")
+                .then()
+                .statusCode(201)
+                .extract().path("id");
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"status\": \"APPROVED\"}")
+                .when()
+                .patch("/api/payments/{id}/status", id)
+                .then()
+                .statusCode(200);
+
+        List<OutboxMessage> events = List.of();
+        for (int attempt = 0; attempt < 100 && events.size() < 2; attempt++) {
+            Thread.sleep(100);
+            events = outboxSink.messages().stream()
+                    .filter(message -> message.paymentId() == id.longValue())
+                    .toList();
+        }
+
+        assertEquals(List.of("PaymentCreated", "PaymentStatusChanged"),
+                events.stream().map(OutboxMessage::type).toList());
+        assertTrue(events.get(0).sequence() < events.get(1).sequence());
+        assertTrue(events.get(1).payload().contains("\"status\":\"APPROVED\""));
+        assertTrue(events.get(1).payload().contains("\"previousStatus\":\"PENDING\""));
+    }
+
+    @Test
+    @Order(26)
+    @DisplayName("GET /api/customers/{customerId}/summary - should reflect creations and status changes")
+    void shouldSummarizeCustomerPayments() {
+        List<Integer> ids = new ArrayList<>();
+        for (String amount : List.of("1000.00", "250.50")) {
+            ids.add(given()
+                    .contentType(ContentType.JSON)
+                    .body("""
+                            {
+                                "reference": "TEST-SUMMARY-%s",
+                                "customerId": "CUST-SUMMARY",
+                                "amount": %s,
+                                "currency": "COP",
+                                "method": "CARD"
+                            }
+                            """.formatted(amount, amount))
+                    .when()
+                    .post("/api/payments")
+                    .then()
+                    .statusCode(201)
+                    .extract().path("id"));
+        }
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"status\": \"APPROVED\"}")
+                .when()
+                .patch("/api/payments/{id}/status", ids.get(0))
+                .then()
+                .statusCode(200);
+
+        given()
+                .when()
+                .get("/api/customers/{customerId}/summary", "CUST-SUMMARY")
+                .then()
+                .statusCode(200)
+                .body("customerId", equalTo("CUST-SUMMARY"))
+                .body("from", nullValue())
+                .body("totals.status", contains("APPROVED", "PENDING"))
+                .body("totals.currency", everyItem(equalTo("COP")))
+                .body("totals.paymentCount", contains(1, 1))
+                .body("totals.totalAmount", contains(1000.00f, 250.50f));
+
+        String today = LocalDate.now().toString();
+        given()
+                .queryParam("from", today)
+                .queryParam("to", today)
+                .when()
+                .get("/api/customers/{customerId}/summary/daily", "CUST-SUMMARY")
+                .then()
+                .statusCode(200)
+                .body("totals.date", everyItem(equalTo(today)))
+                .body("totals.status", contains("APPROVED", "PENDING"));
+
+        // Maintained by the batch insert and bulk update paths too
+        given()
+                .when()
+                .get("/api/customers/{customerId}/summary", "CUST-BATCH")
+                .then()
+                .statusCode(200)
+                .body("totals.currency", contains("COP", "USD"))
+                .body("totals.status", everyItem(equalTo("PENDING")))
+                .body("totals.paymentCount", contains(1, 1));
+        given()
+                .when()
+                .get("/api/customers/{customerId}/summary", "CUST-CURSOR")
+                .then()
+                .statusCode(200)
+                .body("totals.status", contains("REJECTED"))
+                .body("totals.paymentCount", contains(2))
+                .body("totals.totalAmount", contains(20.00f));
+    }
+
+    @Test
+    @Order(27)
+    @DisplayName("GET /api/customers/{customerId}/summary - should return 400 for an incomplete date range")
+    void shouldReturn400ForIncompleteSummaryRange() {
+        given()
+                .queryParam("from", "2024-01-01")
+                .when()
+                .get("/api/customers/{customerId}/summary", "CUST-SUMMARY")
+                .then()
+                .statusCode(400)
+                .body("code", equalTo("INVALID_DATE_RANGE"));
+    }
+
+    @Test
+    @Order(28)
+    @DisplayName("GET /api/payments - should return 400 for a page whose offset overflows")
+    void shouldReturn400ForTooDeepPage() {
+        given()
+                .queryParam("page", Integer.MAX_VALUE)
+                .queryParam("size", 100)
+                .queryParam("count", "none")
+                .when()
+                .get("/api/payments")
+                .then()
+                .statusCode(400)
+                .body("code", equalTo("INVALID_PAGE"));
+    }
 }
@@ -0,0 +1,260 @@
+package com.example.payments.infrastructure.rest;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import com.example.payments.domain.Currency;
+import com.example.payments.domain.PaymentMethod;
+import com.example.payments.domain.PaymentStatus;
+import com.example.payments.dto.PaymentResponse;
+import com.example.payments.infrastructure.archive.ArchivedSegment;
+import com.example.payments.infrastructure.archive.PaymentArchive;
+import com.example.payments.infrastructure.archive.PaymentArchiver;
+import com.example.payments.infrastructure.archive.PaymentSegment;
+import com.example.payments.infrastructure.persistence.ReactivePostgresTestProfile;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Integration tests for the payment endpoints in the reactive execution mode,
+ * against PostgreSQL through the reactive client. Opt-in via
+ * {@code -Dpostgres.tests=true}.
+ */
+@QuarkusTest
+@TestProfile(ReactivePostgresTestProfile.class)
+@EnabledIfSystemProperty(named = "postgres.tests", matches = "true")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ReactivePaymentResourceIT {
+
+    // Far above any id handed out by payments_id_seq in a test run
+    private static final long ARCHIVED_ID = 9_000_000_001L;
+
+    private static Long createdPaymentId;
+
+    @Inject
+    PaymentArchive archive;
+
+    @Inject
+    PaymentArchiver archiver;
+
+    @Inject
+    EntityManager entityManager;
+
+    @AfterAll
+    static void removeSegments() throws IOException {
+        Path directory = Paths.get(ReactivePostgresTestProfile.ARCHIVE_DIRECTORY);
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    @Order(1)
+    @DisplayName("POST /api/payments - should create payment")
+    void shouldCreatePayment() {
+        Integer id = given()
+                .contentType(ContentType.JSON)
+                .body(paymentJson("REACTIVE-REF-001"))
+                .when()
+                .post("/api/payments")
+                .then()
+                .statusCode(201)
+                .body("reference", equalTo("REACTIVE-REF-001"))
+                .body("status", equalTo("PENDING"))
+                .body("id", notNullValue())
+                .extract().path("id");
+
+        createdPaymentId = id.longValue();
+    }
+
+    @Test
+    @Order(2)
+    @DisplayName("POST /api/payments - should return 409 for duplicate reference")
+    void shouldReturn409ForDuplicateReference() {
+        given()
+                .contentType(ContentType.JSON)
+                .body(paymentJson("REACTIVE-REF-001"))
+                .when()
+                .post("/api/payments")
+                .then()
+                .statusCode(409)
+                .body("code", equalTo("DUPLICATE_REFERENCE"));
+    }
+
+    @Test
+    @Order(3)
+    @DisplayName("GET /api/payments/{id} - should find the payment and 404 an unknown one")
+    void shouldFindPaymentById() {
+        given()
+                .when()
+                .get("/api/payments/{id}", createdPaymentId)
+                .then()
+                .statusCode(200)
+                .body("reference", equalTo("REACTIVE-REF-001"));
+
+        given()
+                .when()
+                .get("/api/payments/{id}", 999_999_999L)
+                .then()
+                .statusCode(404);
+    }
+
+    @Test
+    @Order(4)
+    @DisplayName("PATCH /api/payments/{id}/status - should apply the transition once")
+    void shouldUpdateStatusOnce() {
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"status\": \"APPROVED\"}")
+                .when()
+                .patch("/api/payments/{id}/status", createdPaymentId)
+                .then()
+                .statusCode(200)
+                .body("status", equalTo("APPROVED"));
+
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"status\": \"REJECTED\"}")
+                .when()
+                .patch("/api/payments/{id}/status", createdPaymentId)
+                .then()
+                .statusCode(409);
+
+        // Committed with the payment, so only the winning transition counts
+        given()
+                .when()
+                .get("/api/customers/{customerId}/summary", "REACTIVE-CUST")
+                .then()
+                .statusCode(200)
+                .body("totals.status", contains("APPROVED"))
+                .body("totals.paymentCount", contains(1));
+    }
+
+    @Test
+    @Order(5)
+    @DisplayName("GET /api/payments - should list by offset and by cursor")
+    void shouldListPayments() {
+        given()
+                .queryParam("customerId", "REACTIVE-CUST")
+                .queryParam("count", "exact")
+                .when()
+                .get("/api/payments")
+                .then()
+                .statusCode(200)
+                .body("totalElements", equalTo(1))
+                .body("content[0].id", equalTo(createdPaymentId.intValue()));
+
+        given()
+                .queryParam("customerId", "REACTIVE-CUST")
+                .queryParam("cursor", "")
+                .when()
+                .get("/api/payments")
+                .then()
+                .statusCode(200)
+                .body("content", hasSize(1))
+                .body("nextCursor", nullValue());
+    }
+
+    @Test
+    @Order(6)
+    @DisplayName("Reads fall through to archived payments")
+    void shouldReadArchivedPayments() throws IOException {
+        PaymentSegment.Info segment = archive.append(List.of(new PaymentResponse(ARCHIVED_ID, "REACTIVE-ARCHIVED-REF",
+                "REACTIVE-ARCHIVED", new BigDecimal("250.00"), Currency.COP, PaymentMethod.CARD,
+                PaymentStatus.APPROVED, LocalDateTime.of(2020, 1, 15, 10, 0))));
+        // As the archiver does once the hot rows are gone
+        QuarkusTransaction.requiringNew().run(() -> entityManager
+                .persist(new ArchivedSegment(segment.path().getFileName().toString(), segment.rowCount())));
+        archiver.refresh();
+
+        given()
+                .when()
+                .get("/api/payments/{id}", ARCHIVED_ID)
+                .then()
+                .statusCode(200)
+                .body("reference", equalTo("REACTIVE-ARCHIVED-REF"))
+                .body("status", equalTo("APPROVED"));
+
+        given()
+                .queryParam("customerId", "REACTIVE-ARCHIVED")
+                .queryParam("count", "exact")
+                .when()
+                .get("/api/payments")
+                .then()
+                .statusCode(200)
+                .body("totalElements", equalTo(1))
+                .body("content[0].id", equalTo(ARCHIVED_ID));
+
+        given()
+                .queryParam("customerId", "REACTIVE-ARCHIVED")
+                .queryParam("cursor", "")
+                .when()
+                .get("/api/payments")
+                .then()
+                .statusCode(200)
+                .body("content.reference", contains("REACTIVE-ARCHIVED-REF"));
+
+        // Archived payments are final, so a status change is a conflict rather than a 404
+        given()
+                .contentType(ContentType.JSON)
+                .body("{\"status\": \"REJECTED\"}")
+                .when()
+                .patch("/api/payments/{id}/status", ARCHIVED_ID)
+                .then()
+                .statusCode(409);
+    }
+
+    @Test
+    @Order(7)
+    @DisplayName("GET /api/payments - should reject offset pages past the archive merge window")
+    void shouldRejectDeepPagesOverArchive() {
+        given()
+                .queryParam("page", 10_000)
+                .queryParam("size", 10)
+                .when()
+                .get("/api/payments")
+                .then()
+                .statusCode(400)
+                .body("code", equalTo("INVALID_PAGE"));
+    }
+
+    private static String paymentJson(String reference) {
+        return """
+                {
+                    "reference": "%s",
+                    "customerId": "REACTIVE-CUST",
+                    "amount": 1000.00,
+                    "currency": "COP",
+                    "method": "CARD"
+                }
+                """.formatted(reference);
+    }
+}